@@ -0,0 +1,37 @@
+/**
+ *
+ */
+package jmh.java.com.github.dhyanamvaidya.binaryTree;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler, which reports the allocation rate of every
+ * benchmark. The usual JMH command line options are accepted, for example
+ * "-p size=1000 -p shape=RANDOM" to run a single kind of tree, or a regular expression
+ * selecting the benchmarks to be run
+ */
+public final class BenchmarkRunner {
+
+	private BenchmarkRunner() {
+	}
+
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+		CommandLineOptions commandLine = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		builder.parent(commandLine);
+		if(commandLine.getIncludes().isEmpty()) {
+			builder.include(BinaryTreeBenchmark.class.getSimpleName());
+			builder.include(RecursiveOperationsBenchmark.class.getSimpleName());
+			builder.include(ConcurrentBinaryTreeBenchmark.class.getSimpleName());
+		}
+		Options options = builder.addProfiler(GCProfiler.class).build();
+		new Runner(options).run();
+	}
+}
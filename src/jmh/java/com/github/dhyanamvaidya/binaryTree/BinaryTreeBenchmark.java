@@ -0,0 +1,130 @@
+/**
+ *
+ */
+package jmh.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.LinkedList;
+import java.util.concurrent.TimeUnit;
+
+import jmh.java.com.github.dhyanamvaidya.binaryTree.TreeGenerator.Shape;
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * JMH benchmarks of the operations of BinaryTree, on the trees of TreeGenerator. Every
+ * benchmark is measured both in Throughput mode and in SampleTime mode, which reports the
+ * latency percentiles; BenchmarkRunner adds the GC profiler for the allocation rate.
+ *
+ * Every shape is measured at every size here, as all these operations walk the tree
+ * iteratively. The methods which are still recursive (toString, getKthSmallestNode and
+ * getKthLargestNode) are measured by RecursiveOperationsBenchmark, which leaves out the
+ * deep DEGENERATE trees they can not complete
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class BinaryTreeBenchmark {
+
+	/** Seed of the generated trees, so that every run measures the same trees */
+	static final long SEED = 20141026L;
+
+	@Param({"BALANCED", "DEGENERATE", "RANDOM"})
+	Shape shape;
+
+	@Param({"1000", "100000", "10000000"})
+	int size;
+
+	BinaryTree<Integer> tree;
+	BinaryTree<Integer> copy;
+	BinaryTree<Integer> lastNode;
+	String description;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		tree = TreeGenerator.generate(shape, size, SEED);
+		copy = TreeGenerator.generate(shape, size, SEED);
+		lastNode = TreeGenerator.lastNode(tree);
+		description = TreeGenerator.describe(tree);
+	}
+
+	@Benchmark
+	public BinaryTree<String> parse() {
+		return BinaryTree.parse(description);
+	}
+
+	@Benchmark
+	public int size() {
+		return tree.size();
+	}
+
+	@Benchmark
+	public int getHeight() {
+		return tree.getHeight();
+	}
+
+	@Benchmark
+	public boolean isBalanced() {
+		return tree.isBalanced();
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return tree.contains(lastNode);
+	}
+
+	@Benchmark
+	public boolean equalsBenchmark() {
+		return tree.equals(copy);
+	}
+
+	/**
+	 * The hash codes are cached, so the value of the last node is set first: only the path from
+	 * the root to that node is hashed again, as after any update of the tree
+	 */
+	@Benchmark
+	public int hashCodeAfterUpdate() {
+		lastNode.setValue(lastNode.getValue());
+		return tree.hashCode();
+	}
+
+	@Benchmark
+	public LinkedList<BinaryTree<Integer>> getLeaves() {
+		return tree.getLeaves();
+	}
+
+	@Benchmark
+	public void inOrderTraversal(Blackhole blackhole) {
+		tree.inOrderTraversal(blackhole::consume);
+	}
+
+	@Benchmark
+	public void preOrderTraversal(Blackhole blackhole) {
+		tree.preOrderTraversal(blackhole::consume);
+	}
+
+	@Benchmark
+	public void postOrderTraversal(Blackhole blackhole) {
+		tree.postOrderTraversal(blackhole::consume);
+	}
+
+	@Benchmark
+	public void levelOrderTraversal(Blackhole blackhole) {
+		tree.levelOrderTraversal(blackhole::consume);
+	}
+}
@@ -0,0 +1,110 @@
+/**
+ *
+ */
+package jmh.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.concurrent.TimeUnit;
+
+import jmh.java.com.github.dhyanamvaidya.binaryTree.TreeGenerator.Shape;
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.ConcurrentBinaryTree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the read throughput of ConcurrentBinaryTree, which shows whether the reads
+ * scale with the cores under its single StampedLock. Every read is measured on one thread per
+ * core, next to the same read of a plain BinaryTree, which takes no lock; running them again
+ * with "-t 1" gives the throughput of a single thread to compare with. The readWrite group
+ * runs three readers of size along with a writer calling setValue, to show what a writer
+ * costs the readers
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+@Threads(Threads.MAX)
+public class ConcurrentBinaryTreeBenchmark {
+
+	@Param({"1000", "100000"})
+	int size;
+
+	BinaryTree<Integer> plain;
+	BinaryTree<Integer> plainLastNode;
+	ConcurrentBinaryTree<Integer> tree;
+	ConcurrentBinaryTree<Integer> lastNode;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		plain = TreeGenerator.generate(Shape.RANDOM, size, BinaryTreeBenchmark.SEED);
+		plainLastNode = TreeGenerator.lastNode(plain);
+		tree = ConcurrentBinaryTree.of(plain);
+		lastNode = (ConcurrentBinaryTree<Integer>) TreeGenerator.lastNode(tree);
+	}
+
+	@Benchmark
+	public int size() {
+		return tree.size();
+	}
+
+	@Benchmark
+	public int plainSize() {
+		return plain.size();
+	}
+
+	@Benchmark
+	public boolean contains() {
+		return tree.contains(lastNode);
+	}
+
+	@Benchmark
+	public boolean plainContains() {
+		return plain.contains(plainLastNode);
+	}
+
+	@Benchmark
+	public BinaryTree<Integer> leftmostNode() {
+		BinaryTree<Integer> node = tree;
+		while(node.getLeftChild() != null)
+			node = node.getLeftChild();
+		return node;
+	}
+
+	@Benchmark
+	public BinaryTree<Integer> plainLeftmostNode() {
+		BinaryTree<Integer> node = plain;
+		while(node.getLeftChild() != null)
+			node = node.getLeftChild();
+		return node;
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(3)
+	public int readWhileWriting() {
+		return tree.size();
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(1)
+	public void write() {
+		lastNode.setValue(size);
+	}
+}
@@ -0,0 +1,69 @@
+/**
+ *
+ */
+package jmh.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.concurrent.TimeUnit;
+
+import jmh.java.com.github.dhyanamvaidya.binaryTree.TreeGenerator.Shape;
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * JMH benchmarks of the operations of BinaryTree which are still recursive, see
+ * BinaryTreeBenchmark. toString recurses once per level and copies the description of every
+ * subtree, and getKthSmallestNode and getKthLargestNode compute the size of a subtree at every
+ * level, so they take O(n * height). On a DEGENERATE tree of 100K nodes or more they overflow
+ * the stack or run for hours, so the trees are listed explicitly, as shape:size, and only the
+ * DEGENERATE tree of 1000 nodes is measured
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class RecursiveOperationsBenchmark {
+
+	@Param({"BALANCED:1000", "BALANCED:100000", "BALANCED:10000000",
+			"RANDOM:1000", "RANDOM:100000", "RANDOM:10000000",
+			"DEGENERATE:1000"})
+	String tree;
+
+	BinaryTree<Integer> root;
+	int size;
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		int separator = tree.indexOf(':');
+		size = Integer.parseInt(tree.substring(separator + 1));
+		root = TreeGenerator.generate(Shape.valueOf(tree.substring(0, separator)), size, BinaryTreeBenchmark.SEED);
+	}
+
+	@Benchmark
+	public String toStringBenchmark() {
+		return root.toString();
+	}
+
+	@Benchmark
+	public BinaryTree<Integer> getKthSmallestNode() {
+		return root.getKthSmallestNode(size / 2);
+	}
+
+	@Benchmark
+	public BinaryTree<Integer> getKthLargestNode() {
+		return root.getKthLargestNode(size / 2);
+	}
+}
@@ -0,0 +1,178 @@
+/**
+ *
+ */
+package jmh.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Random;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+
+/**
+ * Seeded generators of the trees used by the benchmarks. The same shape, size and seed always
+ * give the same tree, so that the results of two runs can be compared. The nodes are linked
+ * top down, every new node being a leaf, so a tree of n nodes is built in O(n) whatever its
+ * shape (O(n log n) for RANDOM)
+ */
+public final class TreeGenerator {
+
+	/**
+	 * The shapes of the generated trees
+	 */
+	public enum Shape {
+		/** Complete tree, filled level by level from left to right, of height log2(n) */
+		BALANCED,
+		/** Chain of n nodes, every node being the left or the right child of the previous one at random */
+		DEGENERATE,
+		/** BinarySearchTree of the keys 0 to n-1 inserted in random order, of expected height about 3 log2(n) */
+		RANDOM
+	}
+
+	private TreeGenerator() {
+	}
+
+	/**
+	 * Generates a tree of the given shape and size, holding the Integers 0 to size-1
+	 * @param shape The shape of the tree
+	 * @param size The number of nodes, at least 1
+	 * @param seed The seed of the random choices
+	 * @return The root of the tree
+	 * @throws IllegalArgumentException If the size is less than 1
+	 */
+	public static BinaryTree<Integer> generate(Shape shape, int size, long seed) {
+		if(size < 1)
+			throw new IllegalArgumentException("The size must be at least 1: " + size);
+		Random random = new Random(seed);
+		switch(shape) {
+		case BALANCED:
+			return balanced(size);
+		case DEGENERATE:
+			return degenerate(size, random);
+		default:
+			return random(size, random);
+		}
+	}
+
+	/**
+	 * Returns a description of the given tree in the format read by BinaryTree.parse. As a single
+	 * child is always read as a left child, the parsed tree may differ in shape, but it has the
+	 * same size and height
+	 * @param tree The tree to be described
+	 * @return The description
+	 */
+	public static String describe(BinaryTree<?> tree) {
+		StringBuilder description = new StringBuilder();
+		/* The stack holds the nodes still to be described and the separators following them */
+		ArrayDeque<Object> stack = new ArrayDeque<Object>();
+		stack.push(tree);
+		while(!stack.isEmpty()) {
+			Object next = stack.pop();
+			if(!(next instanceof BinaryTree)) {
+				description.append(next);
+				continue;
+			}
+			BinaryTree<?> node = (BinaryTree<?>) next;
+			description.append(node.getValue());
+			if(node.isLeaf())
+				continue;
+			description.append('(');
+			stack.push(")");
+			if(node.getRightChild() != null)
+				stack.push(node.getRightChild());
+			if(node.getLeftChild() != null && node.getRightChild() != null)
+				stack.push(" ");
+			if(node.getLeftChild() != null)
+				stack.push(node.getLeftChild());
+		}
+		return description.toString();
+	}
+
+	/**
+	 * Returns the last node of the given tree in preOrder, which is a leaf as deep as the rightmost
+	 * path goes, so that searching for it walks the whole tree
+	 * @param tree The tree
+	 * @return The last node in preOrder
+	 */
+	public static <V> BinaryTree<V> lastNode(BinaryTree<V> tree) {
+		BinaryTree<V> last = tree;
+		for(Iterator<BinaryTree<V>> iterator = tree.iterator(TraversalOrder.PRE_ORDER); iterator.hasNext();)
+			last = iterator.next();
+		return last;
+	}
+
+	/**
+	 * Helper method which generates a BALANCED tree
+	 * @param size The number of nodes
+	 * @return The root of the tree
+	 */
+	private static BinaryTree<Integer> balanced(int size) {
+		/* The node i has the children 2i+1 and 2i+2, the nodes are created in that order */
+		ArrayDeque<BinaryTree<Integer>> parents = new ArrayDeque<BinaryTree<Integer>>();
+		BinaryTree<Integer> root = new BinaryTree<Integer>(0);
+		parents.add(root);
+		for(int i = 1; i < size; i++) {
+			BinaryTree<Integer> node = new BinaryTree<Integer>(i);
+			if(i % 2 == 1)
+				parents.peek().setLeftChild(node);
+			else
+				parents.remove().setRightChild(node);
+			parents.add(node);
+		}
+		return root;
+	}
+
+	/**
+	 * Helper method which generates a DEGENERATE tree
+	 * @param size The number of nodes
+	 * @param random The source of the directions of the chain
+	 * @return The root of the tree
+	 */
+	private static BinaryTree<Integer> degenerate(int size, Random random) {
+		BinaryTree<Integer> root = new BinaryTree<Integer>(0);
+		BinaryTree<Integer> last = root;
+		for(int i = 1; i < size; i++) {
+			BinaryTree<Integer> node = new BinaryTree<Integer>(i);
+			if(random.nextBoolean())
+				last.setLeftChild(node);
+			else
+				last.setRightChild(node);
+			last = node;
+		}
+		return root;
+	}
+
+	/**
+	 * Helper method which generates a RANDOM tree
+	 * @param size The number of nodes
+	 * @param random The source of the order of the keys
+	 * @return The root of the tree
+	 */
+	private static BinaryTree<Integer> random(int size, Random random) {
+		int[] keys = new int[size];
+		for(int i = 0; i < size; i++)
+			keys[i] = i;
+		for(int i = size - 1; i > 0; i--) {
+			int j = random.nextInt(i + 1);
+			int key = keys[i];
+			keys[i] = keys[j];
+			keys[j] = key;
+		}
+		BinaryTree<Integer> root = new BinaryTree<Integer>(keys[0]);
+		for(int i = 1; i < size; i++) {
+			BinaryTree<Integer> node = root;
+			while(true) {
+				BinaryTree<Integer> next = (keys[i] < node.getValue()) ? node.getLeftChild() : node.getRightChild();
+				if(next == null)
+					break;
+				node = next;
+			}
+			if(keys[i] < node.getValue())
+				node.setLeftChild(new BinaryTree<Integer>(keys[i]));
+			else
+				node.setRightChild(new BinaryTree<Integer>(keys[i]));
+		}
+		return root;
+	}
+}
@@ -0,0 +1,297 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+/**
+ * Aggregate Tree is a BinaryTree in which every node additionally keeps the aggregate of the
+ * values of the subtree rooted at it, as defined by an Aggregator (a count, a sum, a minimum...).
+ * The aggregates are kept up to date by setValue, setLeftChild, setRightChild, removeLeftChild,
+ * removeRightChild, clear and rebalance, which update the modified node and its ancestors, so that:
+ *  -- getAggregate() is O(1)
+ *  -- rangeAggregate(lo, hi), the aggregate of the values between lo and hi, is O(height)
+ *
+ * All the nodes of an AggregateTree must be AggregateTree nodes sharing the same Aggregator.
+ * Like the rank queries of OrderStatisticTree, rangeAggregate only makes sense when the tree is
+ * a BinarySearchTree according to the Comparator of the tree
+ *
+ * @param <V> The type of values held in the Tree
+ * @param <A> The type of the aggregates
+ */
+public class AggregateTree<V, A> extends BinaryTree<V> {
+
+	private final Aggregator<? super V, A> aggregator;
+	private final Comparator<? super V> comparator;
+	private A aggregate;
+
+	/**
+	 * Creates an AggregateTree node with the given value, for values ordered by their natural ordering
+	 * @param value The value to put in this node
+	 * @param aggregator The Aggregator of the values
+	 */
+	@SuppressWarnings("unchecked")
+	public AggregateTree(V value, Aggregator<? super V, A> aggregator) {
+		this(value, aggregator, (Comparator<? super V>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Creates an AggregateTree node with the given value
+	 * @param value The value to put in this node
+	 * @param aggregator The Aggregator of the values
+	 * @param comparator The Comparator ordering the values for rangeAggregate
+	 */
+	public AggregateTree(V value, Aggregator<? super V, A> aggregator, Comparator<? super V> comparator) {
+		super(value);
+		if(aggregator == null)
+			throw new NullPointerException("aggregator");
+		if(comparator == null)
+			throw new NullPointerException("comparator");
+		this.aggregator = aggregator;
+		this.comparator = comparator;
+		this.aggregate = this.compute();
+	}
+
+	/**
+	 * Creates a node without parent nor children, with the Aggregator and the Comparator of
+	 * this node, so that it can be linked in this tree
+	 * @param value The value to put in the new node
+	 * @return The new node
+	 */
+	public AggregateTree<V, A> newNode(V value) {
+		return new AggregateTree<V, A>(value, aggregator, comparator);
+	}
+
+	/**
+	 * Builds an AggregateTree with the same shape and values as the given BinaryTree, in O(n)
+	 * @param tree The BinaryTree to be copied
+	 * @param aggregator The Aggregator of the values
+	 * @param comparator The Comparator ordering the values for rangeAggregate
+	 * @return The root of the new AggregateTree, or NULL if tree is NULL
+	 */
+	public static <V, A> AggregateTree<V, A> of(BinaryTree<V> tree, Aggregator<? super V, A> aggregator,
+			Comparator<? super V> comparator) {
+		if(tree == null)
+			return null;
+		/* In postOrder the children of a node are built just before it, so linking them updates it alone */
+		NodeStack<AggregateTree<V, A>> built = new NodeStack<AggregateTree<V, A>>();
+		Iterator<BinaryTree<V>> iterator = tree.iterator(TraversalOrder.POST_ORDER);
+		while(iterator.hasNext()) {
+			BinaryTree<V> node = iterator.next();
+			AggregateTree<V, A> copy = new AggregateTree<V, A>(node.getValue(), aggregator, comparator);
+			if(node.getRightChild() != null)
+				copy.linkRightChild(built.pop());
+			if(node.getLeftChild() != null)
+				copy.linkLeftChild(built.pop());
+			built.push(copy);
+		}
+		return built.pop();
+	}
+
+	/**
+	 * Returns the aggregate of all the values of the tree rooted at this node in O(1)
+	 * @return The aggregate of this subtree
+	 */
+	public A getAggregate() {
+		return aggregate;
+	}
+
+	/**
+	 * Returns the aggregate of the values of the tree rooted at this node which lie between
+	 * lo and hi, both included, in O(height). The tree must be a BinarySearchTree according to
+	 * the Comparator of the tree, and its values must not be null
+	 * @param lo The lowest value of the range
+	 * @param hi The highest value of the range
+	 * @return The aggregate of the values in the range, the identity if there are none
+	 */
+	public A rangeAggregate(V lo, V hi) {
+		/* The first node in the range is the split node, under which the paths to lo and hi diverge */
+		AggregateTree<V, A> split = this;
+		while(split != null) {
+			if(comparator.compare(split.value, lo) < 0)
+				split = cast(split.rightChild);
+			else if(comparator.compare(split.value, hi) > 0)
+				split = cast(split.leftChild);
+			else
+				break;
+		}
+		if(split == null)
+			return aggregator.identity();
+		/* Down the left side, every node not below lo comes with its whole right subtree */
+		A lower = aggregator.identity();
+		for(AggregateTree<V, A> node = cast(split.leftChild); node != null; ) {
+			if(comparator.compare(node.value, lo) >= 0) {
+				lower = aggregator.combine(aggregator.combine(node.lift(), aggregateOf(node.rightChild)), lower);
+				node = cast(node.leftChild);
+			}
+			else
+				node = cast(node.rightChild);
+		}
+		/* Down the right side, every node not above hi comes with its whole left subtree */
+		A upper = aggregator.identity();
+		for(AggregateTree<V, A> node = cast(split.rightChild); node != null; ) {
+			if(comparator.compare(node.value, hi) <= 0) {
+				upper = aggregator.combine(upper, aggregator.combine(aggregateOf(node.leftChild), node.lift()));
+				node = cast(node.rightChild);
+			}
+			else
+				node = cast(node.leftChild);
+		}
+		return aggregator.combine(aggregator.combine(lower, split.lift()), upper);
+	}
+
+	/**
+	 * Gets the parent of this node, or NULL if this node is a root
+	 * @return The parent node
+	 */
+	@Override
+	public AggregateTree<V, A> getParent() {
+		return this.parent instanceof AggregateTree ? cast(this.parent) : null;
+	}
+
+	@Override
+	public AggregateTree<V, A> getLeftChild() {
+		return cast(this.leftChild);
+	}
+
+	@Override
+	public AggregateTree<V, A> getRightChild() {
+		return cast(this.rightChild);
+	}
+
+	@Override
+	public AggregateTree<V, A> removeLeftChild() throws NoSuchElementException {
+		return cast(super.removeLeftChild());
+	}
+
+	@Override
+	public AggregateTree<V, A> removeRightChild() throws NoSuchElementException {
+		return cast(super.removeRightChild());
+	}
+
+	/**
+	 * Sets the value in this node and updates the aggregates of this node and of its ancestors
+	 * @param value The value to be set
+	 */
+	@Override
+	public void setValue(V value) {
+		super.setValue(value);
+		this.updateAggregates();
+	}
+
+	/**
+	 * Sets the node supplied as the left child of this node, see BinaryTree.setLeftChild
+	 * @param leftChild The leftChild to be set, an AggregateTree with the same Aggregator
+	 * @throws IllegalArgumentException If leftChild is not such an AggregateTree
+	 */
+	@Override
+	public void setLeftChild(BinaryTree<V> leftChild) {
+		super.setLeftChild(this.check(leftChild));
+	}
+
+	/**
+	 * Sets the node supplied as the right child of this node, see BinaryTree.setRightChild
+	 * @param rightChild The rightChild to be set, an AggregateTree with the same Aggregator
+	 * @throws IllegalArgumentException If rightChild is not such an AggregateTree
+	 */
+	@Override
+	public void setRightChild(BinaryTree<V> rightChild) {
+		super.setRightChild(this.check(rightChild));
+	}
+
+	@Override
+	public void clear() {
+		super.clear();
+		this.updateAggregates();
+	}
+
+	/**
+	 * Rebalances the tree rooted at this node, see BinaryTree.rebalance, then computes the
+	 * aggregates of the reshaped subtrees again. The inOrder sequence of the values does not
+	 * change, so neither does the aggregate of this node nor those of its ancestors
+	 */
+	@Override
+	public void rebalance() {
+		super.rebalance();
+		for(Iterator<BinaryTree<V>> iterator = this.iterator(TraversalOrder.POST_ORDER); iterator.hasNext();) {
+			AggregateTree<V, A> node = cast(iterator.next());
+			node.aggregate = node.compute();
+		}
+	}
+
+	/**
+	 * Updates the aggregates of this node and of its ancestors after a child has been replaced
+	 * @param oldChild The child which has been removed, or null
+	 * @param newChild The child which has been linked, or null
+	 */
+	@Override
+	protected void childChanged(BinaryTree<V> oldChild, BinaryTree<V> newChild) {
+		this.updateAggregates();
+	}
+
+	/**
+	 * Helper method which computes the aggregates of this node and of its ancestors again,
+	 * stopping at the first one whose aggregate does not change
+	 */
+	private void updateAggregates() {
+		for(BinaryTree<V> node = this; node instanceof AggregateTree; node = node.parent) {
+			AggregateTree<V, A> aggregateNode = cast(node);
+			A updated = aggregateNode.compute();
+			if(node != this && Objects.equals(updated, aggregateNode.aggregate))
+				return;
+			aggregateNode.aggregate = updated;
+		}
+	}
+
+	/**
+	 * Helper method which computes the aggregate of this node from its value and the
+	 * aggregates of its children
+	 * @return The aggregate of this subtree
+	 */
+	private A compute() {
+		return aggregator.combine(aggregator.combine(aggregateOf(this.leftChild), this.lift()), aggregateOf(this.rightChild));
+	}
+
+	/**
+	 * Helper method which returns the aggregate of the value of this node alone
+	 * @return The aggregate of the value, the identity for a null value
+	 */
+	private A lift() {
+		return (this.value == null) ? aggregator.identity() : aggregator.lift(this.value);
+	}
+
+	/**
+	 * Helper method which returns the aggregate of the given child, or the identity for a null child
+	 * @param child The child whose aggregate is to be returned
+	 * @return The aggregate of the subtree rooted at child
+	 */
+	private A aggregateOf(BinaryTree<V> child) {
+		return (child == null) ? aggregator.identity() : cast(child).aggregate;
+	}
+
+	/**
+	 * Helper method which checks that the given node can be linked as a child of this node
+	 * @param node The node to be linked, or null
+	 * @return The node
+	 * @throws IllegalArgumentException If the node is not an AggregateTree with the same Aggregator
+	 */
+	private BinaryTree<V> check(BinaryTree<V> node) {
+		if(node == null || (node instanceof AggregateTree && ((AggregateTree<?, ?>) node).aggregator == aggregator))
+			return node;
+		throw new IllegalArgumentException("Nodes of an AggregateTree must be AggregateTree nodes with the same Aggregator");
+	}
+
+	/**
+	 * Helper method which casts a BinaryTree node to an AggregateTree node of the same Aggregator
+	 * @param node The node to be cast
+	 * @return The node as an AggregateTree
+	 */
+	@SuppressWarnings("unchecked")
+	private AggregateTree<V, A> cast(BinaryTree<V> node) {
+		return (AggregateTree<V, A>) node;
+	}
+}
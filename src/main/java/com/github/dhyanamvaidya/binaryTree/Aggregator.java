@@ -0,0 +1,38 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+/**
+ * Monoid summarizing the values of a subtree, kept by every node of an AggregateTree. The
+ * aggregate of a subtree is the combination, in inOrder, of the aggregates of its values, so
+ * combine must be associative and identity must be neutral for it; combine does not need to
+ * be commutative. The aggregator is only called for non null values, a null value counts as
+ * the identity. See Aggregators for the common aggregates
+ *
+ * @param <V> The type of values held in the Tree
+ * @param <A> The type of the aggregates
+ */
+public interface Aggregator<V, A> {
+
+	/**
+	 * Returns the aggregate of no value
+	 * @return The identity of combine
+	 */
+	A identity();
+
+	/**
+	 * Returns the aggregate of a single value
+	 * @param value The value, never null
+	 * @return The aggregate of the value
+	 */
+	A lift(V value);
+
+	/**
+	 * Combines the aggregates of two consecutive ranges of values
+	 * @param left The aggregate of the first range
+	 * @param right The aggregate of the second range
+	 * @return The aggregate of both ranges
+	 */
+	A combine(A left, A right);
+}
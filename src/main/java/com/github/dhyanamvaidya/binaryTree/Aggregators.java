@@ -0,0 +1,139 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Comparator;
+
+/**
+ * Aggregators for the common aggregates: count, sums, minimum and maximum
+ */
+public final class Aggregators {
+
+	/** Counts the non null values */
+	public static final Aggregator<Object, Integer> COUNT = new Aggregator<Object, Integer>() {
+		@Override
+		public Integer identity() {
+			return 0;
+		}
+
+		@Override
+		public Integer lift(Object value) {
+			return 1;
+		}
+
+		@Override
+		public Integer combine(Integer left, Integer right) {
+			return left + right;
+		}
+	};
+
+	/** Sums Integers into a Long, so that the sum does not overflow */
+	public static final Aggregator<Integer, Long> INTEGER_SUM = new Aggregator<Integer, Long>() {
+		@Override
+		public Long identity() {
+			return 0L;
+		}
+
+		@Override
+		public Long lift(Integer value) {
+			return value.longValue();
+		}
+
+		@Override
+		public Long combine(Long left, Long right) {
+			return left + right;
+		}
+	};
+
+	/** Sums Longs */
+	public static final Aggregator<Long, Long> LONG_SUM = new Aggregator<Long, Long>() {
+		@Override
+		public Long identity() {
+			return 0L;
+		}
+
+		@Override
+		public Long lift(Long value) {
+			return value;
+		}
+
+		@Override
+		public Long combine(Long left, Long right) {
+			return left + right;
+		}
+	};
+
+	/** Sums Doubles */
+	public static final Aggregator<Double, Double> DOUBLE_SUM = new Aggregator<Double, Double>() {
+		@Override
+		public Double identity() {
+			return 0.0;
+		}
+
+		@Override
+		public Double lift(Double value) {
+			return value;
+		}
+
+		@Override
+		public Double combine(Double left, Double right) {
+			return left + right;
+		}
+	};
+
+	private Aggregators() {
+	}
+
+	/**
+	 * Returns the Aggregator of the smallest value according to the given Comparator, whose
+	 * identity is null
+	 * @param comparator The Comparator of the values
+	 * @return The Aggregator of the minimum
+	 */
+	public static <V> Aggregator<V, V> min(Comparator<? super V> comparator) {
+		return extremum(comparator, -1);
+	}
+
+	/**
+	 * Returns the Aggregator of the largest value according to the given Comparator, whose
+	 * identity is null
+	 * @param comparator The Comparator of the values
+	 * @return The Aggregator of the maximum
+	 */
+	public static <V> Aggregator<V, V> max(Comparator<? super V> comparator) {
+		return extremum(comparator, 1);
+	}
+
+	/**
+	 * Helper method which returns the Aggregator keeping the value the comparator puts first
+	 * (sign -1) or last (sign 1)
+	 * @param comparator The Comparator of the values
+	 * @param sign The sign of the comparison of the value kept with the other one
+	 * @return The Aggregator
+	 */
+	private static <V> Aggregator<V, V> extremum(final Comparator<? super V> comparator, final int sign) {
+		if(comparator == null)
+			throw new NullPointerException("comparator");
+		return new Aggregator<V, V>() {
+			@Override
+			public V identity() {
+				return null;
+			}
+
+			@Override
+			public V lift(V value) {
+				return value;
+			}
+
+			@Override
+			public V combine(V left, V right) {
+				if(left == null)
+					return right;
+				if(right == null)
+					return left;
+				return (Integer.signum(comparator.compare(right, left)) == sign) ? right : left;
+			}
+		};
+	}
+}
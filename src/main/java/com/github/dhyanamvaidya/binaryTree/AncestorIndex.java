@@ -0,0 +1,289 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * An index over the BinaryTree rooted at a node, built by BinaryTree.ancestorIndex, which answers
+ * ancestry questions about the nodes of the tree without following the parent links:
+ *  -- getDepth and isAncestor in O(1)
+ *  -- lowestCommonAncestor and distance in O(1)
+ * The index numbers the nodes in preOrder and keeps the Euler tour of the tree, the sequence
+ * of the nodes met while walking around it, with a sparse table of the minimums of its ranges
+ * of length 2^k: the lowest common ancestor of two nodes is the node with the smallest
+ * preOrder number met between them in the tour. It takes O(n log n) time and space.
+ *
+ * The index is meant for trees which rarely change. Linking or removing a child of a node of
+ * the tree, clearing it or rebalancing it invalidates the index, which is then rebuilt on the
+ * next query; setting a value does not. The index keeps the preOrder numbers of the nodes itself,
+ * so the indexes of overlapping trees, such as a tree and one of its subtrees, do not disturb
+ * each other. It is an observer held by the root of the tree, see TreeObserver: while it is
+ * open, modifying a node of the tree walks up to its root, so an index which is no longer
+ * needed should be closed. Like the tree, an index is not thread-safe
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public final class AncestorIndex<V> extends TreeObserver<V> implements AutoCloseable {
+
+	private final BinaryTree<V> root;
+	private boolean valid;
+	private boolean closed;
+	private int rebuilds;
+
+	/* The preOrder numbers of the nodes */
+	private Map<BinaryTree<V>, Integer> numbers;
+	/* Indexed by preOrder number: the nodes, their depths and the sizes of their subtrees */
+	private Object[] nodes;
+	private int[] depths;
+	private int[] sizes;
+	/* The position of the first visit of every node in the Euler tour */
+	private int[] firstVisits;
+	/* table[k][i] is the smallest preOrder number among the 2^k visits of the tour from i */
+	private int[][] table;
+
+	/**
+	 * Builds the index of the tree rooted at the given node, see BinaryTree.ancestorIndex
+	 * @param root The root of the tree
+	 */
+	AncestorIndex(BinaryTree<V> root) {
+		this.root = root;
+		this.build();
+	}
+
+	/**
+	 * Marks the index as invalid, so that it is rebuilt on the next query. It is called when
+	 * a node of the tree is relinked
+	 */
+	@Override
+	void shapeChanged() {
+		valid = false;
+	}
+
+	@Override
+	boolean isOpen() {
+		return !closed;
+	}
+
+	/**
+	 * Closes this index, which no longer follows the changes of the tree and can no longer be
+	 * queried. Closing an index twice has no effect
+	 */
+	@Override
+	public void close() {
+		if(closed)
+			return;
+		closed = true;
+		root.removeObserver(this);
+		numbers = null;
+		nodes = null;
+		depths = sizes = firstVisits = null;
+		table = null;
+	}
+
+	/**
+	 * Returns <code>true</code> if this index has been closed
+	 * @return <code>true</code> if this index can no longer be queried
+	 */
+	public boolean isClosed() {
+		return closed;
+	}
+
+	/**
+	 * Returns <code>true</code> if the tree has not been modified since the index was last
+	 * built, so that the next query does not have to rebuild it
+	 * @return <code>true</code> if the index is up to date
+	 */
+	public boolean isValid() {
+		return valid;
+	}
+
+	/**
+	 * Returns the number of times the index has been rebuilt after being invalidated
+	 * @return The number of rebuilds
+	 */
+	public int getRebuilds() {
+		return rebuilds;
+	}
+
+	/**
+	 * Gets the root of the indexed tree
+	 * @return The root node
+	 */
+	@Override
+	public BinaryTree<V> getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns the number of nodes of the indexed tree
+	 * @return The number of nodes
+	 */
+	public int size() {
+		this.ensureValid();
+		return depths.length;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given node belongs to the indexed tree, in O(1)
+	 * @param node The node to be searched for
+	 * @return <code>true</code> if the node is in the tree
+	 */
+	public boolean contains(BinaryTree<V> node) {
+		this.ensureValid();
+		return node != null && numbers.containsKey(node);
+	}
+
+	/**
+	 * Returns the depth of the given node below the root of the indexed tree in O(1).
+	 * The root has a depth of 0, its children a depth of 1 and so on
+	 * @param node A node of the tree
+	 * @return The depth of the node
+	 * @throws IllegalArgumentException If the node does not belong to the tree
+	 */
+	public int getDepth(BinaryTree<V> node) {
+		/* numberOf may rebuild the arrays */
+		int number = this.numberOf(node);
+		return depths[number];
+	}
+
+	/**
+	 * Returns <code>true</code> if the first node is the second node or one of its ancestors,
+	 * in O(1): the preOrder numbers of the nodes of a subtree follow the number of its root
+	 * @param ancestor A node of the tree
+	 * @param node A node of the tree
+	 * @return <code>true</code> if ancestor is an ancestor of node, or node itself
+	 * @throws IllegalArgumentException If a node does not belong to the tree
+	 */
+	public boolean isAncestor(BinaryTree<V> ancestor, BinaryTree<V> node) {
+		int a = this.numberOf(ancestor);
+		int n = this.numberOf(node);
+		return a <= n && n < a + sizes[a];
+	}
+
+	/**
+	 * Returns the lowest common ancestor of two nodes, the deepest node having both as
+	 * descendants (a node being a descendant of itself), in O(1)
+	 * @param first A node of the tree
+	 * @param second A node of the tree
+	 * @return The lowest common ancestor of the two nodes
+	 * @throws IllegalArgumentException If a node does not belong to the tree
+	 */
+	@SuppressWarnings("unchecked")
+	public BinaryTree<V> lowestCommonAncestor(BinaryTree<V> first, BinaryTree<V> second) {
+		int a = this.numberOf(first);
+		int b = this.numberOf(second);
+		return (BinaryTree<V>) nodes[this.lowestCommonNumber(a, b)];
+	}
+
+	/**
+	 * Returns the number of edges on the path between two nodes in O(1)
+	 * @param first A node of the tree
+	 * @param second A node of the tree
+	 * @return The distance between the two nodes
+	 * @throws IllegalArgumentException If a node does not belong to the tree
+	 */
+	public int distance(BinaryTree<V> first, BinaryTree<V> second) {
+		int a = this.numberOf(first);
+		int b = this.numberOf(second);
+		return depths[a] + depths[b] - 2 * depths[this.lowestCommonNumber(a, b)];
+	}
+
+	/**
+	 * Helper method which returns the preOrder number of the lowest common ancestor of the
+	 * nodes of the given numbers, the smallest number met between their first visits
+	 * @param a The preOrder number of a node
+	 * @param b The preOrder number of a node
+	 * @return The preOrder number of their lowest common ancestor
+	 */
+	private int lowestCommonNumber(int a, int b) {
+		int from = Math.min(firstVisits[a], firstVisits[b]);
+		int to = Math.max(firstVisits[a], firstVisits[b]);
+		/* Two ranges of length 2^k cover [from, to] */
+		int k = 31 - Integer.numberOfLeadingZeros(to - from + 1);
+		return Math.min(table[k][from], table[k][to - (1 << k) + 1]);
+	}
+
+	/**
+	 * Helper method which returns the preOrder number of the given node, rebuilding the index
+	 * first if it is invalid
+	 * @param node A node of the tree
+	 * @return The preOrder number of the node
+	 * @throws IllegalArgumentException If the node does not belong to the tree
+	 */
+	private int numberOf(BinaryTree<V> node) {
+		this.ensureValid();
+		Integer number = (node == null) ? null : numbers.get(node);
+		if(number == null)
+			throw new IllegalArgumentException("The node does not belong to the indexed tree");
+		return number;
+	}
+
+	/**
+	 * Helper method which rebuilds the index if the tree has been modified
+	 * @throws IllegalStateException If the index has been closed
+	 */
+	private void ensureValid() {
+		if(closed)
+			throw new IllegalStateException("The index has been closed");
+		if(valid)
+			return;
+		rebuilds++;
+		this.build();
+	}
+
+	/**
+	 * Helper method which numbers the nodes and walks the Euler tour of the tree iteratively,
+	 * then fills the sparse table
+	 */
+	private void build() {
+		int size = root.size();
+		numbers = new IdentityHashMap<BinaryTree<V>, Integer>(size);
+		nodes = new Object[size];
+		depths = new int[size];
+		sizes = new int[size];
+		firstVisits = new int[size];
+		int[] tour = new int[2*size - 1];
+		int visits = 0;
+		int count = 0;
+		/* The mark of a node is 0 before its visit, 1 after its left subtree, 2 after its right one */
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(root);
+		while(!stack.isEmpty()) {
+			BinaryTree<V> node = stack.peek();
+			int mark = stack.peekMark();
+			if(mark == 0) {
+				numbers.put(node, count);
+				nodes[count] = node;
+				depths[count] = stack.size() - 1;
+				firstVisits[count] = visits;
+				tour[visits++] = count++;
+			}
+			if(mark < 2) {
+				stack.setMark(mark + 1);
+				BinaryTree<V> child = (mark == 0) ? node.leftChild : node.rightChild;
+				if(child != null)
+					stack.push(child);
+				continue;
+			}
+			stack.pop();
+			int number = numbers.get(node);
+			sizes[number] = count - number;
+			if(!stack.isEmpty())
+				tour[visits++] = numbers.get(stack.peek());
+		}
+		int levels = 32 - Integer.numberOfLeadingZeros(tour.length);
+		table = new int[levels][];
+		table[0] = tour;
+		for(int k = 1; k < levels; k++) {
+			int[] previous = table[k-1];
+			int[] level = new int[tour.length - (1 << k) + 1];
+			for(int i = 0; i < level.length; i++)
+				level[i] = Math.min(previous[i], previous[i + (1 << (k-1))]);
+			table[k] = level;
+		}
+		valid = true;
+	}
+}
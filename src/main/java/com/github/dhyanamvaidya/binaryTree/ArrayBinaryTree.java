@@ -0,0 +1,232 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * A BinaryTree kept in parallel arrays instead of one object per node: the value of the
+ * node i is values[i] and its children are the nodes left[i] and right[i]. The nodes are
+ * referred to by their int handles, see IndexedBinaryTree, so walking the tree reads a few
+ * arrays instead of chasing a reference per node, and the garbage collector only sees three
+ * arrays whatever the size of the tree.
+ *
+ * The tree grows by adding leaves with addLeftChild and addRightChild, so it is a tree at
+ * any time. Nodes can not be removed; convert the tree to a BinaryTree to restructure it.
+ * The trees built by of(BinaryTree) are laid out in preOrder, so the left child of a node
+ * is the next node in the arrays and a preOrder walk reads them sequentially
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public class ArrayBinaryTree<V> extends IndexedBinaryTree {
+
+	private Object[] values;
+	private int[] left;
+	private int[] right;
+	private int size;
+
+	/**
+	 * Creates a tree with a single root node holding the given value
+	 * @param rootValue The value of the root
+	 */
+	public ArrayBinaryTree(V rootValue) {
+		this(rootValue, 16);
+	}
+
+	/**
+	 * Creates a tree with a single root node holding the given value, with room for the
+	 * given number of nodes before the arrays have to grow
+	 * @param rootValue The value of the root
+	 * @param capacity The number of nodes to make room for
+	 * @throws IllegalArgumentException If the capacity is less than 1
+	 */
+	public ArrayBinaryTree(V rootValue, int capacity) {
+		if(capacity < 1)
+			throw new IllegalArgumentException("The capacity must be at least 1: " + capacity);
+		this.values = new Object[capacity];
+		this.left = new int[capacity];
+		this.right = new int[capacity];
+		this.size = 0;
+		this.addNode(rootValue);
+	}
+
+	/**
+	 * Builds an ArrayBinaryTree with the same shape and values as the given BinaryTree,
+	 * its nodes laid out in preOrder
+	 * @param tree The BinaryTree to be copied
+	 * @return The new ArrayBinaryTree, or NULL if tree is NULL
+	 */
+	public static <V> ArrayBinaryTree<V> of(BinaryTree<V> tree) {
+		if(tree == null)
+			return null;
+		ArrayBinaryTree<V> copy = null;
+		/* The mark of a node is the handle of its parent, complemented for a left child */
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(tree, NIL);
+		while(!stack.isEmpty()) {
+			int mark = stack.peekMark();
+			BinaryTree<V> node = stack.pop();
+			int handle;
+			if(copy == null) {
+				copy = new ArrayBinaryTree<V>(node.getValue());
+				handle = copy.getRoot();
+			}
+			else {
+				handle = copy.addNode(node.getValue());
+				if(mark < 0)
+					copy.left[~mark] = handle;
+				else
+					copy.right[mark] = handle;
+			}
+			if(node.getRightChild() != null)
+				stack.push(node.getRightChild(), handle);
+			if(node.getLeftChild() != null)
+				stack.push(node.getLeftChild(), ~handle);
+		}
+		return copy;
+	}
+
+	/**
+	 * Builds a linked BinaryTree with the same shape and values as this tree
+	 * @return The root of the new BinaryTree
+	 */
+	public BinaryTree<V> toBinaryTree() {
+		@SuppressWarnings("unchecked")
+		BinaryTree<V>[] nodes = (BinaryTree<V>[]) new BinaryTree<?>[size];
+		for(int i = 0; i < size; i++)
+			nodes[i] = new BinaryTree<V>(this.getValue(i));
+		for(int i = 0; i < size; i++) {
+			if(left[i] != NIL)
+				nodes[i].linkLeftChild(nodes[left[i]]);
+			if(right[i] != NIL)
+				nodes[i].linkRightChild(nodes[right[i]]);
+		}
+		return nodes[this.getRoot()];
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int getLeftChild(int node) {
+		this.checkNode(node);
+		return left[node];
+	}
+
+	@Override
+	public int getRightChild(int node) {
+		this.checkNode(node);
+		return right[node];
+	}
+
+	/**
+	 * Gets the value of the given node
+	 * @param node The handle of the node
+	 * @return The value
+	 */
+	@SuppressWarnings("unchecked")
+	public V getValue(int node) {
+		this.checkNode(node);
+		return (V) values[node];
+	}
+
+	/**
+	 * Sets the value of the given node
+	 * @param node The handle of the node
+	 * @param value The value to be set
+	 */
+	public void setValue(int node, V value) {
+		this.checkNode(node);
+		values[node] = value;
+	}
+
+	/**
+	 * Adds a new leaf holding the given value as the left child of the given node
+	 * @param node The handle of the parent node
+	 * @param value The value of the new node
+	 * @return The handle of the new node
+	 * @throws IllegalArgumentException If the node already has a left child
+	 */
+	public int addLeftChild(int node, V value) {
+		if(this.getLeftChild(node) != NIL)
+			throw new IllegalArgumentException("Node " + node + " already has a left child");
+		int child = this.addNode(value);
+		left[node] = child;
+		return child;
+	}
+
+	/**
+	 * Adds a new leaf holding the given value as the right child of the given node
+	 * @param node The handle of the parent node
+	 * @param value The value of the new node
+	 * @return The handle of the new node
+	 * @throws IllegalArgumentException If the node already has a right child
+	 */
+	public int addRightChild(int node, V value) {
+		if(this.getRightChild(node) != NIL)
+			throw new IllegalArgumentException("Node " + node + " already has a right child");
+		int child = this.addNode(value);
+		right[node] = child;
+		return child;
+	}
+
+	/**
+	 * Passes the values of the tree to the action in inOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void inOrderTraversal(Consumer<? super V> action) {
+		this.traverse(TraversalOrder.IN_ORDER, action);
+	}
+
+	/**
+	 * Passes the values of the tree to the action in preOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void preOrderTraversal(Consumer<? super V> action) {
+		this.traverse(TraversalOrder.PRE_ORDER, action);
+	}
+
+	/**
+	 * Passes the values of the tree to the action in postOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void postOrderTraversal(Consumer<? super V> action) {
+		this.traverse(TraversalOrder.POST_ORDER, action);
+	}
+
+	/**
+	 * Helper method which passes the values of the tree to the action in the given order
+	 * @param order The order in which the values are visited
+	 * @param action The action to be performed on each value
+	 */
+	@SuppressWarnings("unchecked")
+	private void traverse(TraversalOrder order, Consumer<? super V> action) {
+		this.forEachNode(order, node -> action.accept((V) values[node]));
+	}
+
+	/**
+	 * Helper method which appends a node without children, growing the arrays if needed
+	 * @param value The value of the node
+	 * @return The handle of the node
+	 */
+	private int addNode(V value) {
+		if(size == values.length) {
+			int capacity = size << 1;
+			if(capacity < 0)
+				capacity = Integer.MAX_VALUE - 8;
+			if(capacity <= size)
+				throw new IllegalStateException("An ArrayBinaryTree can not hold more than " + size + " nodes");
+			values = Arrays.copyOf(values, capacity);
+			left = Arrays.copyOf(left, capacity);
+			right = Arrays.copyOf(right, capacity);
+		}
+		values[size] = value;
+		left[size] = NIL;
+		right[size] = NIL;
+		return size++;
+	}
+}
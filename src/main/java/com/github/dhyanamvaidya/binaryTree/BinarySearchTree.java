@@ -0,0 +1,455 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Binary Search Tree is a BinaryTree where the left child of a node is lesser in value than
+ * the node and the right child is greater in value than the node. It is kept balanced as an
+ * AVL tree: the heights of the left and right subtrees of every node differ by at most 1, so
+ * the height of a tree of n keys is less than 1.45 log2(n+2) and insert, find, delete, floor
+ * and ceiling are O(log n) whatever the order in which the keys are inserted.
+ *
+ * The keys are kept in the values of the nodes and ordered by a Comparator, or by their
+ * natural ordering. Null keys are not allowed. The tree is modified through insert and
+ * delete, which must be called on its root; rotations move the keys between the nodes, so
+ * the root node stays the root of the tree. A root with a null value and no children is an
+ * empty tree. setValue, setLeftChild, setRightChild, removeLeftChild and removeRightChild
+ * are not supported, as they could break the order of the keys
+ *
+ * @param <K> The type of keys held in the Tree
+ */
+public class BinarySearchTree<K> extends BinaryTree<K> {
+
+	private final Comparator<? super K> comparator;
+	private int height;
+
+	/**
+	 * Creates an empty BinarySearchTree ordering its keys by their natural ordering
+	 */
+	@SuppressWarnings("unchecked")
+	public BinarySearchTree() {
+		this((Comparator<? super K>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Creates an empty BinarySearchTree ordering its keys with the given Comparator
+	 * @param comparator The Comparator of the keys
+	 */
+	public BinarySearchTree(Comparator<? super K> comparator) {
+		super(null);
+		if(comparator == null)
+			throw new NullPointerException("comparator");
+		this.comparator = comparator;
+		this.height = -1;
+	}
+
+	/**
+	 * Creates a BinarySearchTree node for the given key
+	 * @param key The key of the node
+	 * @param comparator The Comparator of the keys
+	 */
+	private BinarySearchTree(K key, Comparator<? super K> comparator) {
+		super(key);
+		this.comparator = comparator;
+		this.height = 0;
+	}
+
+	/**
+	 * Builds a BinarySearchTree of the given keys, sorted in their natural ordering, in O(n),
+	 * see fromSorted(List, Comparator)
+	 * @param keys The keys, in increasing order
+	 * @return The root of the tree
+	 * @throws IllegalArgumentException If the keys are not in increasing order
+	 */
+	@SuppressWarnings("unchecked")
+	public static <K> BinarySearchTree<K> fromSorted(List<? extends K> keys) {
+		return fromSorted(keys, (Comparator<? super K>) Comparator.naturalOrder());
+	}
+
+	/**
+	 * Builds a BinarySearchTree of the given keys in O(n) instead of inserting them one by one.
+	 * The middle key of every range becomes the root of the subtree of that range, so the tree
+	 * is perfectly balanced, see BinaryTree.fromSorted(List)
+	 * @param keys The keys, in increasing order according to the comparator
+	 * @param comparator The Comparator of the keys
+	 * @return The root of the tree, empty if there are no keys
+	 * @throws IllegalArgumentException If the keys are not in increasing order, or hold duplicates
+	 */
+	public static <K> BinarySearchTree<K> fromSorted(List<? extends K> keys, Comparator<? super K> comparator) {
+		if(keys.isEmpty())
+			return new BinarySearchTree<K>(comparator);
+		@SuppressWarnings("unchecked")
+		BinarySearchTree<K>[] nodes = (BinarySearchTree<K>[]) new BinarySearchTree<?>[keys.size()];
+		K previous = null;
+		int i = 0;
+		for(K key : keys) {
+			if(key == null)
+				throw new NullPointerException("key");
+			if(previous != null && comparator.compare(previous, key) >= 0)
+				throw new IllegalArgumentException("The keys are not in increasing order at index " + i);
+			nodes[i++] = new BinarySearchTree<K>(key, comparator);
+			previous = key;
+		}
+		BinarySearchTree<K> root = linkBalanced(nodes);
+		for(Iterator<BinaryTree<K>> iterator = root.iterator(TraversalOrder.POST_ORDER); iterator.hasNext();)
+			cast(iterator.next()).updateHeight();
+		return root;
+	}
+
+	/**
+	 * Returns <code>true</code> if this tree holds no keys
+	 * @return <code>true</code> if the tree is empty
+	 */
+	public boolean isEmpty() {
+		return this.value == null;
+	}
+
+	/**
+	 * Returns the number of keys in the tree rooted at this node
+	 * @return The number of keys in this subtree
+	 */
+	@Override
+	public int size() {
+		return this.isEmpty() ? 0 : super.size();
+	}
+
+	/**
+	 * Returns the height of the tree rooted at this node in O(1), as every node keeps its height.
+	 * The height of an empty tree is -1
+	 * @return The height of this subtree
+	 */
+	@Override
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Inserts the given key into the tree and rebalances it. Must be called on the root
+	 * @param key The key to be inserted
+	 * @return <code>true</code> if the key was inserted, <code>false</code> if it was already present
+	 * @throws IllegalStateException If this node is not the root of the tree
+	 */
+	public boolean insert(K key) {
+		this.checkRoot(key);
+		if(this.isEmpty()) {
+			this.saveVersion();
+			this.value = key;
+			this.height = 0;
+			this.invalidate();
+			return true;
+		}
+		BinarySearchTree<K> node = this;
+		while(true) {
+			int comparison = comparator.compare(key, node.value);
+			if(comparison == 0)
+				return false;
+			BinarySearchTree<K> child = cast(comparison < 0 ? node.leftChild : node.rightChild);
+			if(child == null) {
+				child = new BinarySearchTree<K>(key, comparator);
+				if(comparison < 0)
+					node.linkLeftChild(child);
+				else
+					node.linkRightChild(child);
+				node.rebalanceUpwards();
+				return true;
+			}
+			node = child;
+		}
+	}
+
+	/**
+	 * Returns the node holding the given key in the tree rooted at this node
+	 * @param key The key to be searched for
+	 * @return The node holding the key, or NULL if the key is not present
+	 */
+	public BinarySearchTree<K> find(K key) {
+		if(key == null || this.isEmpty())
+			return null;
+		BinarySearchTree<K> node = this;
+		while(node != null) {
+			int comparison = comparator.compare(key, node.value);
+			if(comparison == 0)
+				return node;
+			node = cast(comparison < 0 ? node.leftChild : node.rightChild);
+		}
+		return null;
+	}
+
+	/**
+	 * Deletes the given key from the tree and rebalances it. Must be called on the root
+	 * @param key The key to be deleted
+	 * @return <code>true</code> if the key was deleted, <code>false</code> if it was not present
+	 * @throws IllegalStateException If this node is not the root of the tree
+	 */
+	public boolean delete(K key) {
+		this.checkRoot(key);
+		BinarySearchTree<K> node = this.find(key);
+		if(node == null)
+			return false;
+		if(node.leftChild != null && node.rightChild != null) {
+			/* Replace the key by its successor, which has no left child, and delete the successor */
+			BinarySearchTree<K> successor = cast(node.rightChild);
+			while(successor.leftChild != null)
+				successor = cast(successor.leftChild);
+			node.saveVersion();
+			node.value = successor.value;
+			node.invalidate();
+			node = successor;
+		}
+		BinarySearchTree<K> child = cast(node.leftChild != null ? node.leftChild : node.rightChild);
+		BinarySearchTree<K> parent = cast(node.parent);
+		if(parent == null) {
+			/* The root node stays, it takes the place of its only child */
+			if(child == null) {
+				node.saveVersion();
+				node.value = null;
+				node.height = -1;
+				node.invalidate();
+			}
+			else {
+				node.saveVersion();
+				node.value = child.value;
+				node.linkLeftChild(child.leftChild);
+				node.linkRightChild(child.rightChild);
+				node.rebalanceUpwards();
+			}
+			return true;
+		}
+		if(parent.leftChild == node)
+			parent.linkLeftChild(child);
+		else
+			parent.linkRightChild(child);
+		parent.rebalanceUpwards();
+		return true;
+	}
+
+	/**
+	 * Returns the greatest key in the tree rooted at this node which is less than or equal to the given key
+	 * @param key The key to be compared with
+	 * @return The floor of the key, or NULL if there is no such key
+	 */
+	public K floor(K key) {
+		K floor = null;
+		BinarySearchTree<K> node = this.isEmpty() ? null : this;
+		while(node != null) {
+			int comparison = comparator.compare(key, node.value);
+			if(comparison == 0)
+				return node.value;
+			if(comparison < 0)
+				node = cast(node.leftChild);
+			else {
+				floor = node.value;
+				node = cast(node.rightChild);
+			}
+		}
+		return floor;
+	}
+
+	/**
+	 * Returns the least key in the tree rooted at this node which is greater than or equal to the given key
+	 * @param key The key to be compared with
+	 * @return The ceiling of the key, or NULL if there is no such key
+	 */
+	public K ceiling(K key) {
+		K ceiling = null;
+		BinarySearchTree<K> node = this.isEmpty() ? null : this;
+		while(node != null) {
+			int comparison = comparator.compare(key, node.value);
+			if(comparison == 0)
+				return node.value;
+			if(comparison > 0)
+				node = cast(node.rightChild);
+			else {
+				ceiling = node.value;
+				node = cast(node.leftChild);
+			}
+		}
+		return ceiling;
+	}
+
+	/**
+	 * Removes all the keys when called on the root
+	 * @throws UnsupportedOperationException If this node is not the root of the tree
+	 */
+	@Override
+	public void clear() {
+		if(this.parent != null)
+			throw new UnsupportedOperationException("Only the root of a BinarySearchTree can be cleared");
+		super.clear();
+		this.height = -1;
+	}
+
+	/**
+	 * Does nothing, as a BinarySearchTree is kept balanced by insert and delete
+	 */
+	@Override
+	public void rebalance() {
+	}
+
+	/**
+	 * Not supported, the keys are modified through insert and delete
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void setValue(K value) {
+		throw new UnsupportedOperationException("Use insert and delete to modify a BinarySearchTree");
+	}
+
+	/**
+	 * Not supported, the keys are modified through insert and delete
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void setLeftChild(BinaryTree<K> leftChild) {
+		throw new UnsupportedOperationException("Use insert and delete to modify a BinarySearchTree");
+	}
+
+	/**
+	 * Not supported, the keys are modified through insert and delete
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public void setRightChild(BinaryTree<K> rightChild) {
+		throw new UnsupportedOperationException("Use insert and delete to modify a BinarySearchTree");
+	}
+
+	/**
+	 * Not supported, the keys are modified through insert and delete
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public BinaryTree<K> removeLeftChild() {
+		throw new UnsupportedOperationException("Use insert and delete to modify a BinarySearchTree");
+	}
+
+	/**
+	 * Not supported, the keys are modified through insert and delete
+	 * @throws UnsupportedOperationException Always
+	 */
+	@Override
+	public BinaryTree<K> removeRightChild() {
+		throw new UnsupportedOperationException("Use insert and delete to modify a BinarySearchTree");
+	}
+
+	/**
+	 * Helper method which checks the arguments of insert and delete
+	 * @param key The key to be inserted or deleted
+	 */
+	private void checkRoot(K key) {
+		if(key == null)
+			throw new NullPointerException("key");
+		if(this.parent != null)
+			throw new IllegalStateException("insert and delete must be called on the root of a BinarySearchTree");
+	}
+
+	/**
+	 * Updates the heights of this node and of all its ancestors, rotating the nodes whose
+	 * subtrees are not balanced anymore
+	 */
+	private void rebalanceUpwards() {
+		for(BinarySearchTree<K> node = this; node != null; node = cast(node.parent)) {
+			int balance = heightOf(node.leftChild) - heightOf(node.rightChild);
+			if(balance > 1) {
+				BinarySearchTree<K> left = cast(node.leftChild);
+				if(heightOf(left.leftChild) < heightOf(left.rightChild))
+					left.rotateLeft();
+				node.rotateRight();
+			}
+			else if(balance < -1) {
+				BinarySearchTree<K> right = cast(node.rightChild);
+				if(heightOf(right.rightChild) < heightOf(right.leftChild))
+					right.rotateRight();
+				node.rotateLeft();
+			}
+			else
+				node.updateHeight();
+		}
+	}
+
+	/**
+	 * Rotates this node with its left child. The keys are swapped, so this node stays the
+	 * root of the subtree:
+	 *          n(x)             n(y)
+	 *          /  \             /  \
+	 *        l(y)  C    ==>    A   l(x)
+	 *        /  \                  /  \
+	 *       A    B                B    C
+	 */
+	private void rotateRight() {
+		BinarySearchTree<K> left = cast(this.leftChild);
+		BinaryTree<K> a = left.leftChild;
+		BinaryTree<K> b = left.rightChild;
+		BinaryTree<K> c = this.rightChild;
+		this.swapValues(left);
+		this.linkLeftChild(a);
+		left.linkLeftChild(b);
+		left.linkRightChild(c);
+		this.linkRightChild(left);
+		left.updateHeight();
+		this.updateHeight();
+	}
+
+	/**
+	 * Rotates this node with its right child, the mirror image of rotateRight
+	 */
+	private void rotateLeft() {
+		BinarySearchTree<K> right = cast(this.rightChild);
+		BinaryTree<K> a = this.leftChild;
+		BinaryTree<K> b = right.leftChild;
+		BinaryTree<K> c = right.rightChild;
+		this.swapValues(right);
+		this.linkRightChild(c);
+		right.linkRightChild(b);
+		right.linkLeftChild(a);
+		this.linkLeftChild(right);
+		right.updateHeight();
+		this.updateHeight();
+	}
+
+	/**
+	 * Helper method which swaps the keys of this node and of the given node
+	 * @param other The node whose key is to be swapped
+	 */
+	private void swapValues(BinarySearchTree<K> other) {
+		this.saveVersion();
+		other.saveVersion();
+		K value = this.value;
+		this.value = other.value;
+		other.value = value;
+		this.invalidate();
+		other.invalidate();
+	}
+
+	/**
+	 * Helper method which computes the height of this node from the heights of its children
+	 */
+	private void updateHeight() {
+		int leftHeight = heightOf(this.leftChild);
+		int rightHeight = heightOf(this.rightChild);
+		this.height = (leftHeight > rightHeight ? leftHeight : rightHeight) + 1;
+	}
+
+	/**
+	 * Helper method which returns the height of the given node, or -1 for a null node
+	 * @param node The node whose height is to be returned
+	 * @return The height of the subtree rooted at node
+	 */
+	private static int heightOf(BinaryTree<?> node) {
+		return node == null ? -1 : ((BinarySearchTree<?>) node).height;
+	}
+
+	/**
+	 * Helper method which casts a BinaryTree node to a BinarySearchTree node
+	 * @param node The node to be cast
+	 * @return The node as a BinarySearchTree
+	 */
+	@SuppressWarnings("unchecked")
+	private static <K> BinarySearchTree<K> cast(BinaryTree<K> node) {
+		return (BinarySearchTree<K>) node;
+	}
+}
@@ -3,9 +3,23 @@
  */
 package main.java.com.github.dhyanamvaidya.binaryTree;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Binary Tree is a node-based binary tree data structure which has the following properties:
@@ -16,6 +30,16 @@ import java.util.NoSuchElementException;
  *  
  * Each object in the BinaryTree class represents a single node; however, nodes are linked together,
  * so that any node may be considered as the "root" of a complete tree
+ * 
+ * Every node also keeps a link to its parent, so a node can be the child of one node only:
+ * setting a node which already has a parent as a child, in the constructor or with
+ * setLeftChild and setRightChild, throws an IllegalArgumentException, which is checked in O(1).
+ * A node is moved by removing it from its parent first, and a subtree can not be shared, so
+ * new BinaryTree(value, node, node) is rejected. getParent, getRoot, getDepth and ancestors
+ * follow these links
+ * 
+ * The methods walking the whole tree use an explicit stack (see TreeIterator) instead of
+ * recursion, so that they work on degenerate trees of any depth
  *  
  *  @author Dhyanam Vaidya
  *  @version 26 September 2014
@@ -23,9 +47,25 @@ import java.util.NoSuchElementException;
  */
 public class BinaryTree<V> {
 	
-	private V value;
-	private BinaryTree<V> leftChild;
-	private BinaryTree<V> rightChild;
+	protected V value;
+	protected BinaryTree<V> leftChild;
+	protected BinaryTree<V> rightChild;
+	protected BinaryTree<V> parent;
+	
+	/* Cached structural hash code, 0 when it is not cached; a node with a cached hash only has
+	 * descendants with cached hashes. A single field is read and written, so that readers sharing
+	 * a tree may fill the cache at the same time, see ConcurrentBinaryTree */
+	private int hash;
+	
+	/* Cached height of a balanced subtree plus 1, 0 when it is not cached, kept by
+	 * isBalanced(true) with the same invariant */
+	private int cachedHeight;
+	
+	/* The observers of the tree rooted at this node, such as the history of its snapshots or an
+	 * index of its nodes, and those of the trees this node was removed from which still follow
+	 * it, see TreeObserver. It is null when no open observer may watch this node, and an empty
+	 * List when this node is in an observed tree without holding observers itself */
+	private List<TreeObserver<V>> observers;
 	
 	/**
 	 * Creates a BinaryTree node with the given value
@@ -35,18 +75,22 @@ public class BinaryTree<V> {
 		this.value = value;
 		this.leftChild = null;
 		this.rightChild = null;
+		this.parent = null;
 	}
 	
 	/**
 	 * Creates a BinaryTree node and sets its plus its left and right child values with the given values
 	 * @param value The value to put in this node
-	 * @param leftChild The left child node
-	 * @param rightChild The right child node
+	 * @param leftChild The left child node, which must not have a parent
+	 * @param rightChild The right child node, which must not have a parent
+	 * @throws IllegalArgumentException If a child already has a parent, or if both children are the same node
 	 */
 	public BinaryTree(V value, BinaryTree<V> leftChild, BinaryTree<V> rightChild) {
-		this.value = value;
-		this.leftChild = leftChild;
-		this.rightChild = rightChild;
+		this(value);
+		checkNoParent(leftChild, null);
+		this.link(leftChild, true);
+		checkNoParent(rightChild, null);
+		this.link(rightChild, false);
 	}
 	
 	/**
@@ -62,7 +106,9 @@ public class BinaryTree<V> {
 	 * @param value The value to be set
 	 */
 	public void setValue(V value) {
+		this.saveVersion();
 		this.value = value;
+		this.invalidate();
 	}
 
 	/**
@@ -74,12 +120,18 @@ public class BinaryTree<V> {
 	}
 
 	/**
-	 * Sets the node supplied as the left child of this BinaryTree node
+	 * Sets the node supplied as the left child of this BinaryTree node. The node must not have
+	 * a parent, unless it already is the left child of this node: a node is moved by removing it
+	 * from its parent first. The node is not set if it is this node or one of its ancestors,
+	 * as that would make a cycle; this is checked in O(depth), and in O(1) when the node is a leaf
 	 * @param leftChild The leftChild to be set
+	 * @throws IllegalArgumentException If the node already has another parent
 	 */
 	public void setLeftChild(BinaryTree<V> leftChild) {
-		if(!this.contains(leftChild))
-			this.leftChild = leftChild;
+		if(this.wouldMakeCycle(leftChild))
+			return;
+		checkNoParent(leftChild, this.leftChild);
+		this.link(leftChild, true);
 	}
 
 	/**
@@ -91,12 +143,412 @@ public class BinaryTree<V> {
 	}
 
 	/**
-	 * Sets the node supplied as the right child of this BinaryTree node
+	 * Sets the node supplied as the right child of this BinaryTree node. The node must not have
+	 * a parent, unless it already is the right child of this node: a node is moved by removing it
+	 * from its parent first. The node is not set if it is this node or one of its ancestors,
+	 * as that would make a cycle; this is checked in O(depth), and in O(1) when the node is a leaf
 	 * @param rightChild The rightChild to be set
+	 * @throws IllegalArgumentException If the node already has another parent
 	 */
 	public void setRightChild(BinaryTree<V> rightChild) {
-		if(!this.contains(rightChild))
-			this.rightChild = rightChild;
+		if(this.wouldMakeCycle(rightChild))
+			return;
+		checkNoParent(rightChild, this.rightChild);
+		this.link(rightChild, false);
+	}
+	
+	/**
+	 * Throws an IllegalArgumentException if the given node has a parent, unless it is the
+	 * current child it replaces, so that a node is never the child of two nodes
+	 * @param child The node to be linked, or null
+	 * @param current The child of the node it is linked to which it replaces, or null
+	 * @throws IllegalArgumentException If the node already has a parent
+	 */
+	static void checkNoParent(BinaryTree<?> child, BinaryTree<?> current) {
+		if(child != null && child != current && child.parent != null)
+			throw new IllegalArgumentException("The node already has a parent, it has to be removed from it first");
+	}
+	
+	/**
+	 * Helper method which tells if linking the given node as a child of this node would
+	 * make a cycle. A leaf other than this node can not be one of its ancestors
+	 * @param child The node to be linked
+	 * @return <code>true</code> if the node is this node or one of its ancestors
+	 */
+	private boolean wouldMakeCycle(BinaryTree<V> child) {
+		if(child == null)
+			return false;
+		if(child.leftChild == null && child.rightChild == null)
+			return child == this;
+		return child.isAncestorOf(this);
+	}
+	
+	/**
+	 * Gets the parent of this BinaryTree node
+	 * @return The parent node, or NULL if this node is a root
+	 */
+	public BinaryTree<V> getParent() {
+		return parent;
+	}
+	
+	/**
+	 * Returns <code>true</code> if this node has no parent
+	 * @return <code>true</code> if this node is a root
+	 */
+	public boolean isRoot() {
+		return parent == null;
+	}
+	
+	/**
+	 * Returns the root of the tree this node belongs to, following the parent links in O(depth)
+	 * @return The root of the whole tree
+	 */
+	public BinaryTree<V> getRoot() {
+		BinaryTree<V> node = this;
+		while(node.parent != null)
+			node = node.parent;
+		return node;
+	}
+	
+	/**
+	 * Returns the depth of this node in the tree it belongs to, following the parent links
+	 * in O(depth). The root has a depth of 0, its children a depth of 1 and so on
+	 * @return The depth of this node
+	 */
+	public int getDepth() {
+		int depth = 0;
+		for(BinaryTree<V> node = this.parent; node != null; node = node.parent)
+			depth++;
+		return depth;
+	}
+	
+	/**
+	 * Returns <code>true</code> if this node is the given node or one of its ancestors,
+	 * following the parent links of the given node in O(depth)
+	 * @param node The node whose ancestors are to be searched
+	 * @return <code>true</code> if this node lies on the path from node to its root
+	 */
+	public boolean isAncestorOf(BinaryTree<?> node) {
+		for(BinaryTree<?> current = node; current != null; current = current.parent)
+			if(current == this)
+				return true;
+		return false;
+	}
+	
+	/**
+	 * Returns an Iterator over the ancestors of this node, from its parent up to the root
+	 * @return The Iterator over the ancestors of this node
+	 */
+	public Iterator<BinaryTree<V>> ancestors() {
+		return new Iterator<BinaryTree<V>>() {
+			private BinaryTree<V> next = BinaryTree.this.parent;
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public BinaryTree<V> next() {
+				if(next == null)
+					throw new NoSuchElementException();
+				BinaryTree<V> node = next;
+				next = next.parent;
+				return node;
+			}
+		};
+	}
+	
+	/**
+	 * Links the given node as the left child of this node, without checking for cycles.
+	 * The node is removed from its previous parent first
+	 * @param leftChild The leftChild to be linked, or null to unlink the current one
+	 */
+	protected final void linkLeftChild(BinaryTree<V> leftChild) {
+		this.link(leftChild, true);
+	}
+	
+	/**
+	 * Links the given node as the right child of this node, without checking for cycles.
+	 * The node is removed from its previous parent first
+	 * @param rightChild The rightChild to be linked, or null to unlink the current one
+	 */
+	protected final void linkRightChild(BinaryTree<V> rightChild) {
+		this.link(rightChild, false);
+	}
+	
+	/**
+	 * Helper method which replaces a child of this node, keeping the parent links up to date.
+	 * A child which has a parent is removed from it first, which the rotations of the subclasses
+	 * rely on; the public methods reject such a child instead, see checkNoParent
+	 * @param child The new child, or null
+	 * @param left <code>true</code> to replace the left child, <code>false</code> for the right one
+	 */
+	private void link(BinaryTree<V> child, boolean left) {
+		BinaryTree<V> oldChild = left ? this.leftChild : this.rightChild;
+		if(oldChild == child)
+			return;
+		if(child != null && child.parent != null)
+			child.parent.link(null, child.parent.leftChild == child);
+		boolean observed = this.beforeChange(true);
+		if(oldChild != null) {
+			oldChild.parent = null;
+			if(observed)
+				oldChild.inheritObservers(this);
+		}
+		if(left)
+			this.leftChild = child;
+		else
+			this.rightChild = child;
+		if(child != null) {
+			child.parent = this;
+			if(observed)
+				child.observeSubtree();
+		}
+		this.invalidate();
+		this.childChanged(oldChild, child);
+	}
+	
+	/**
+	 * Saves the current value and children of this node for the outstanding snapshots of its
+	 * tree, unless they are already saved, see TreeSnapshot. It has to be called before the value
+	 * or a child of this node changes; setValue, clear and the linking methods do it. In a tree
+	 * with an open observer it walks up to the root to find the observers, otherwise it returns
+	 * at once, see TreeObserver
+	 */
+	protected final void saveVersion() {
+		this.beforeChange(false);
+	}
+	
+	/**
+	 * Helper method which tells the open observers of the tree of this node that the value or a
+	 * child of this node is about to change. A node which finds none is no longer marked as
+	 * observed, unless it holds observers itself
+	 * @param reshaped <code>true</code> if a child changes, so that the shape of the tree changes
+	 * @return <code>true</code> if an observer of the tree of this node is open
+	 */
+	private boolean beforeChange(boolean reshaped) {
+		if(this.observers == null)
+			return false;
+		boolean open = false;
+		for(BinaryTree<V> node = this; node != null; node = node.parent) {
+			if(node.observers == null)
+				continue;
+			for(int i = 0; i < node.observers.size(); i++) {
+				TreeObserver<V> observer = node.observers.get(i);
+				if(!observer.isOpen())
+					continue;
+				open = true;
+				observer.beforeChange(this);
+				if(reshaped)
+					observer.shapeChanged();
+			}
+		}
+		if(!open && this.observers.isEmpty())
+			this.observers = null;
+		return open;
+	}
+	
+	/**
+	 * Marks every node of the subtree rooted at this node as belonging to an observed tree, so
+	 * that their modifications look for the observers. It is done when an observer of the tree
+	 * opens, and when the subtree is linked into an observed tree, in O(n) without allocating
+	 */
+	void observeSubtree() {
+		for(BinaryTree<V> node = this; node != null; node = this.nextInPreOrder(node))
+			if(node.observers == null)
+				node.observers = Collections.emptyList();
+	}
+	
+	/**
+	 * Helper method which returns <code>true</code> if a node of the subtree rooted at this
+	 * node is marked as observed, which is the case of every node of a tree while one of its
+	 * observers is open
+	 * @return <code>true</code> if the subtree may be observed
+	 */
+	private boolean isSubtreeObserved() {
+		for(BinaryTree<V> node = this; node != null; node = this.nextInPreOrder(node))
+			if(node.observers != null)
+				return true;
+		return false;
+	}
+	
+	/**
+	 * Helper method which returns the node following the given one in a preOrder walk of the
+	 * subtree rooted at this node, following the child and parent links
+	 * @param node The current node of the subtree
+	 * @return The next node, or NULL if node is the last one
+	 */
+	private BinaryTree<V> nextInPreOrder(BinaryTree<V> node) {
+		if(node.leftChild != null)
+			return node.leftChild;
+		if(node.rightChild != null)
+			return node.rightChild;
+		for(; node != this; node = node.parent) {
+			BinaryTree<V> parent = node.parent;
+			if(parent.leftChild == node && parent.rightChild != null)
+				return parent.rightChild;
+		}
+		return null;
+	}
+	
+	/**
+	 * Helper method which tells the observers of the tree that every node of the subtree rooted
+	 * at this node is about to change, in a single preOrder pass, before the subtree is reshaped.
+	 * The observers held by the nodes of the subtree are told too. rebalance only does it when
+	 * a node of the subtree holds observers, see rotationObservers
+	 */
+	private void beforeSubtreeChange() {
+		if(!this.isSubtreeObserved())
+			return;
+		/* The observers of the ancestors of the node on top of the stack, whose mark is the
+		 * number of observers of its parent and of the ancestors of its parent */
+		List<TreeObserver<V>> path = new ArrayList<TreeObserver<V>>();
+		for(BinaryTree<V> node = this.parent; node != null; node = node.parent)
+			if(node.observers != null)
+				path.addAll(node.observers);
+		for(int i = 0; i < path.size(); i++)
+			path.get(i).shapeChanged();
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(this, path.size());
+		while(!stack.isEmpty()) {
+			int mark = stack.peekMark();
+			BinaryTree<V> node = stack.pop();
+			path.subList(mark, path.size()).clear();
+			if(node.observers != null) {
+				path.addAll(node.observers);
+				for(int i = 0; i < node.observers.size(); i++)
+					node.observers.get(i).shapeChanged();
+			}
+			for(int i = 0; i < path.size(); i++)
+				path.get(i).beforeChange(node);
+			if(node.rightChild != null)
+				stack.push(node.rightChild, path.size());
+			if(node.leftChild != null)
+				stack.push(node.leftChild, path.size());
+		}
+	}
+	
+	/**
+	 * Helper method called when this node is removed from the given parent: the open observers
+	 * of the tree of the parent which follow the removed subtrees are kept by this node, so that
+	 * the modifications of its subtree are still observed. The observers this node kept for
+	 * other trees and which are no longer open are dropped
+	 * @param parent The former parent of this node
+	 */
+	private void inheritObservers(BinaryTree<V> parent) {
+		if(this.observers != null)
+			this.observers.removeIf(observer -> observer.getRoot() != this && !observer.isOpen());
+		for(BinaryTree<V> node = parent; node != null; node = node.parent) {
+			if(node.observers == null)
+				continue;
+			for(int i = 0; i < node.observers.size(); i++) {
+				TreeObserver<V> observer = node.observers.get(i);
+				if(!observer.followsRemovedSubtrees() || !observer.isOpen())
+					continue;
+				if(this.observers == null || this.observers.isEmpty())
+					this.observers = new ArrayList<TreeObserver<V>>(1);
+				if(!this.observers.contains(observer))
+					this.observers.add(observer);
+			}
+		}
+	}
+	
+	/**
+	 * Adds an observer of the tree rooted at this node, see TreeObserver
+	 * @param observer The observer
+	 */
+	void addObserver(TreeObserver<V> observer) {
+		if(this.observers == null || this.observers.isEmpty())
+			this.observers = new ArrayList<TreeObserver<V>>(1);
+		this.observers.add(observer);
+	}
+	
+	/**
+	 * Removes an observer of the tree rooted at this node, see TreeObserver. The node stays
+	 * marked as observed until its next modification finds no open observer
+	 * @param observer The observer
+	 */
+	void removeObserver(TreeObserver<V> observer) {
+		if(this.observers != null && this.observers.remove(observer) && this.observers.isEmpty())
+			this.observers = Collections.emptyList();
+	}
+	
+	/**
+	 * Takes a snapshot of the BinaryTree rooted at this node in O(1) while another snapshot of
+	 * the tree is outstanding, otherwise in a single O(n) pass which marks the nodes of the tree
+	 * as observed, see TreeObserver. The tree can keep being modified, the snapshot still reads
+	 * the values and children of its nodes as they were; it has to be released once it is no
+	 * longer needed, see TreeSnapshot. The snapshots of a node share the history kept by the node
+	 * @return The snapshot
+	 */
+	public TreeSnapshot<V> snapshot() {
+		return new TreeSnapshot<V>(this, this.history(), null);
+	}
+	
+	/**
+	 * Gets the history of the snapshots of the tree rooted at this node, which is created and
+	 * held by this node the first time. Unless a snapshot is outstanding already, the nodes of
+	 * the tree are marked as observed, see observeSubtree
+	 * @return The history of the snapshots
+	 */
+	TreeHistory<V> history() {
+		TreeHistory<V> history = null;
+		if(this.observers != null)
+			for(int i = 0; i < this.observers.size() && history == null; i++)
+				if(this.observers.get(i) instanceof TreeHistory && this.observers.get(i).getRoot() == this)
+					history = (TreeHistory<V>) this.observers.get(i);
+		if(history == null) {
+			history = new TreeHistory<V>(this);
+			this.addObserver(history);
+		}
+		if(!history.isOpen())
+			this.observeSubtree();
+		return history;
+	}
+	
+	/**
+	 * Builds an index of the BinaryTree rooted at this node in O(n log n), which answers the
+	 * depth, ancestor, lowest common ancestor and distance queries on its nodes in O(1).
+	 * The index is rebuilt on its next query whenever the shape of the tree changes, until it
+	 * is closed, see AncestorIndex
+	 * @return The index
+	 */
+	public AncestorIndex<V> ancestorIndex() {
+		AncestorIndex<V> index = new AncestorIndex<V>(this);
+		this.addObserver(index);
+		this.observeSubtree();
+		return index;
+	}
+	
+	/**
+	 * Called after a child of this node has been replaced, so that subclasses keeping
+	 * information about the subtrees can update it. Does nothing by default
+	 * @param oldChild The child which has been removed, or null
+	 * @param newChild The child which has been linked, or null
+	 */
+	protected void childChanged(BinaryTree<V> oldChild, BinaryTree<V> newChild) {
+	}
+	
+	/**
+	 * Returns the number of nodes in the subtree rooted at this node if it is known without
+	 * walking the subtree, which is never the case for a plain BinaryTree. Subclasses keeping
+	 * the sizes of their subtrees override this method so that equals can use them
+	 * @return The size of this subtree, or -1 if it is not known
+	 */
+	protected int cachedSize() {
+		return -1;
+	}
+	
+	/**
+	 * Drops the cached information about the subtree of this node and of all its ancestors,
+	 * which has to be done whenever the value or a child of this node changes
+	 */
+	protected void invalidate() {
+		for(BinaryTree<V> node = this; node != null && (node.hash != 0 || node.cachedHeight != 0); node = node.parent) {
+			node.hash = 0;
+			node.cachedHeight = 0;
+		}
 	}
 	
 	/**
@@ -170,13 +622,12 @@ public class BinaryTree<V> {
 	public boolean contains(BinaryTree<V> node) {
 		if(this == node)
 			return true;
+		if(node == null)
+			return false;
 		
-		if(this.leftChild != null)
-			if(this.leftChild.contains(node))
-				return true;
-		
-		if(this.rightChild != null)
-			if(this.rightChild.contains(node))
+		Iterator<BinaryTree<V>> iterator = new TreeIterator<V>(this, TraversalOrder.PRE_ORDER);
+		while(iterator.hasNext())
+			if(iterator.next() == node)
 				return true;
 
 		return false;
@@ -189,42 +640,71 @@ public class BinaryTree<V> {
 	 * one BinaryTree equals the corresponding child of
 	 * the other BinaryTree
 	 * 
+	 * The comparison skips the pairs of subtrees which are the same node, and rejects
+	 * the pairs whose cached hash codes (see hashCode()), cached heights (see isBalanced(boolean))
+	 * or cached sizes differ without walking them, so trees which have been hashed before are
+	 * told apart in O(1)
+	 * 
 	 * @see java.lang.Object#equals(java.lang.Object)
 	 * @param obj The object to be compared with
 	 */	
 	@Override
 	public boolean equals(Object obj) {
-		if(obj != null && obj instanceof BinaryTree) {
-			final BinaryTree<?> other = (BinaryTree<?>) obj;
+		if(obj == null || !(obj instanceof BinaryTree))
+			return false;
+		return subtreesEqual(this, (BinaryTree<?>) obj);
+	}
+	
+	/**
+	 * Helper method to equals which compares the two subtrees iteratively
+	 * @param first The root of the first subtree, or null
+	 * @param second The root of the second subtree, or null
+	 * @return <code>true</code> if the subtrees are equal in values and shape
+	 */
+	private static boolean subtreesEqual(BinaryTree<?> first, BinaryTree<?> second) {
+		/* The pairs of nodes still to be compared are pushed one after the other */
+		NodeStack<BinaryTree<?>> stack = new NodeStack<BinaryTree<?>>();
+		stack.push(first);
+		stack.push(second);
+		while(!stack.isEmpty()) {
+			BinaryTree<?> other = stack.pop();
+			BinaryTree<?> node = stack.pop();
+			if(node == other)
+				continue;
+			if(node == null || other == null)
+				return false;
+			if(cachedInformationDiffers(node, other))
+				return false;
 			/* Check for null equality first, If both of them are not null then if 'this' object is not null
 			 * then check the value equality. This is done to prevent NullPointerExceptions from being thrown */
-			if( (this.getValue() == other.getValue()) || 
-				(this.getValue() != null && (this.getValue().equals(other.getValue()))) ) {
-				
-				/* Check left subtree equality */
-				if(this.leftChild == null) {
-					if(other.leftChild != null)
-						return false;
-				}
-				else {
-					if(!this.leftChild.equals(other.leftChild))
-						return false;
-				}
-				
-				/* Check right subtree equality */
-				if(this.rightChild == null) {
-					if(other.rightChild != null)
-						return false;
-				}
-				else {
-					if(!this.rightChild.equals(other.rightChild))
-						return false;
-				}
-				return true;
-			}
-			return false;
+			if( !((node.getValue() == other.getValue()) || 
+				(node.getValue() != null && (node.getValue().equals(other.getValue())))) )
+				return false;
+			
+			/* Check right and left subtree equality */
+			stack.push(node.rightChild);
+			stack.push(other.rightChild);
+			stack.push(node.leftChild);
+			stack.push(other.leftChild);
 		}
-		return false;
+		return true;
+	}
+
+	/**
+	 * Returns <code>true</code> if the two nodes are known to be the roots of different subtrees
+	 * because their cached hash codes, cached heights or cached sizes differ
+	 * @param node The first node
+	 * @param other The second node
+	 * @return <code>true</code> if the subtrees can not be equal
+	 */
+	static boolean cachedInformationDiffers(BinaryTree<?> node, BinaryTree<?> other) {
+		if(node.hash != 0 && other.hash != 0 && node.hash != other.hash)
+			return true;
+		if(node.cachedHeight != 0 && other.cachedHeight != 0 && node.cachedHeight != other.cachedHeight)
+			return true;
+		int size = node.cachedSize();
+		int otherSize = other.cachedSize();
+		return size >= 0 && otherSize >= 0 && size != otherSize;
 	}
 
 	/**
@@ -262,22 +742,55 @@ public class BinaryTree<V> {
 	}
 
 	/**
-	 * Returns the hash code value for this BinaryTree. The hash code of
-	 * a BinaryTree is defined to be the sum of the hash codes of root and
-	 * its left child and its right child. This ensures that node1.equals(node2)
-	 * implies that node1.hashCode()==node2.hashCode() for any two nodes node1
-	 * and node2 of type BinaryTree as required by the general contract of Object.hashCode().
-	 * 	@Override
+	 * Returns the hash code value for this BinaryTree. The hash code of a BinaryTree
+	 * mixes the hash code of its value with the hash codes of its left and right children,
+	 * so it depends on the values and the shape of the whole tree. This ensures that
+	 * node1.equals(node2) implies that node1.hashCode()==node2.hashCode() for any two nodes
+	 * node1 and node2 of type BinaryTree as required by the general contract of Object.hashCode().
+	 * 
+	 * The hash code of every node is cached and dropped for the node and its ancestors
+	 * when the tree is modified, so only the modified part of the tree is hashed again
+	 * and repeated calls take O(1)
+	 * @see java.lang.Object#hashCode()
 	 */
+	@Override
     public int hashCode() {
-    	int rootHash = this.getValue().hashCode();
-    	int leftChildHash = 0;
-    	if(this.leftChild != null)
-    		this.getLeftChild().hashCode();
-    	int rightChildHash = 0;
-    	if(this.rightChild != null)
-    		this.getRightChild().hashCode();
-    	return 17 * (rootHash + leftChildHash + rightChildHash);
+		int cached = this.hash;
+		if(cached != 0)
+			return cached;
+		/* Children are hashed before their parents, skipping the subtrees already hashed */
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(this, 0);
+		while(!stack.isEmpty()) {
+			BinaryTree<V> node = stack.peek();
+			int mark = stack.peekMark();
+			if(mark < 2) {
+				stack.setMark(mark+1);
+				BinaryTree<V> child = (mark == 0) ? node.leftChild : node.rightChild;
+				if(child != null && child.hash == 0)
+					stack.push(child, 0);
+				continue;
+			}
+			stack.pop();
+			node.hash = hash(node.value, (node.leftChild == null) ? 0 : node.leftChild.hash,
+					(node.rightChild == null) ? 0 : node.rightChild.hash);
+		}
+		return this.hash;
+	}
+	
+	/**
+	 * Mixes the hash code of the value of a node with the hash codes of its children. As 0 marks
+	 * a hash code which is not cached, a mix of 0 is replaced by 1
+	 * @param value The value of the node
+	 * @param leftHash The hash code of the left child, 0 if there is none
+	 * @param rightHash The hash code of the right child, 0 if there is none
+	 * @return The hash code of the node, never 0
+	 */
+	static int hash(Object value, int leftHash, int rightHash) {
+		int hash = (value == null) ? 0 : value.hashCode();
+		hash = 31 * hash + leftHash;
+		hash = 31 * hash + rightHash;
+		return (hash == 0) ? 1 : hash;
 	}
 	
     /**
@@ -286,6 +799,9 @@ public class BinaryTree<V> {
 	 * a value is any sequence of characters not containing parentheses or 
 	 * whitespace, and each child is either just a (String) value or is 
 	 * another treeDescription. Whitespace is used to separate values.
+	 * The value of the root runs up to its opening parenthesis, so a
+	 * description without parentheses such as "a b" is a single node
+	 * whose value is "a b".
 	 * For example, the String "one(two three(four(six seven) five))" 
 	 * becomes the Tree:
 	 *                            one
@@ -301,69 +817,137 @@ public class BinaryTree<V> {
 	 * 
 	 * @param treeDescription The String to be parsed
 	 * @return The resultant Tree&lt;String&lt;
+	 * @throws TreeParseException If the description is not well formed, its offset tells where
 	 */
 	public static BinaryTree<String> parse(String treeDescription) {
-		BinaryTree<String> root = null;
-		treeDescription = treeDescription.trim();
-		if(!treeDescription.contains("(")) {
-			root = new BinaryTree<String>(treeDescription.trim());
-			return root;
+		return parse((CharSequence) treeDescription);
+	}
+	
+	/**
+	 * Translates a description of a tree, in the same format as parse(String) expects,
+	 * into a Tree&lt;String&gt; object. The description is read in a single pass, so any
+	 * CharSequence (a StringBuilder, a CharBuffer etc.) can be parsed without copying it
+	 * @param treeDescription The CharSequence to be parsed
+	 * @return The resultant Tree&lt;String&gt;
+	 * @throws TreeParseException If the description is not well formed, its offset tells where
+	 */
+	public static BinaryTree<String> parse(CharSequence treeDescription) {
+		try {
+			return TreeParser.of(treeDescription).parse();
 		}
-		else {
-			int firstParenOccurrence = treeDescription.indexOf('(');
-			String rootValue = treeDescription.substring(0, firstParenOccurrence);
-			root = new BinaryTree<String>(rootValue.trim());
-			String childrenValue = treeDescription.substring(firstParenOccurrence+1, treeDescription.length()-1);
-			
-			ArrayList<String> tokenizedChildren = tokenizeChildren(childrenValue);
-			if(tokenizedChildren.size() == 1)
-				root.leftChild = parse(tokenizedChildren.get(0));
-			else if(tokenizedChildren.size() == 2) {
-				root.leftChild = parse(tokenizedChildren.get(0));
-				root.rightChild = parse(tokenizedChildren.get(1));
-			}
+		catch (IOException e) {
+			/* A CharSequence is never read through an IOException */
+			throw new UncheckedIOException(e);
 		}
-		return root;
 	}
-    
 	
 	/**
-	 * Helper method which tokenizes the given string so that it can be split
-	 * into two separate child strings out of which two separate BinaryTree
-	 * node can be made
-	 * @param childrenValue
-	 * @return
+	 * Translates a description of a tree, in the same format as parse(String) expects,
+	 * into a Tree&lt;String&gt; object, reading the description from the given Reader
+	 * in a single pass. The Reader is not closed
+	 * @param treeDescription The Reader of the description to be parsed
+	 * @return The resultant Tree&lt;String&gt;
+	 * @throws IOException If the Reader throws an IOException
+	 * @throws TreeParseException If the description is not well formed, its offset tells where
 	 */
-	private static ArrayList<String> tokenizeChildren(String childrenValue) {
-		ArrayList<String> tokenizedChildren = new ArrayList<String>();
-		StringBuilder temp = new StringBuilder("");
-		int parenCounter = 0;
-		for(int i=0; i<childrenValue.length(); i++) {
-			if(childrenValue.charAt(i) == ' ' || i == childrenValue.length()-1) {
-				temp.append(childrenValue.charAt(i));
-				tokenizedChildren.add(temp.toString().trim());
-				temp.delete(0, temp.length());
-			}
-			else if(childrenValue.charAt(i) == '(') {
-				parenCounter += 1;
-				temp.append(childrenValue.charAt(i));
-				i += 1;
-				while(parenCounter > 0) {
-					if(childrenValue.charAt(i) == '(')
-						parenCounter += 1;
-					else if(childrenValue.charAt(i) == ')')
-						parenCounter -= 1;
-					temp.append(childrenValue.charAt(i));
-					i += 1;
-				}
-				tokenizedChildren.add(temp.toString().trim());
-				temp.delete(0, temp.length());
+	public static BinaryTree<String> parse(Reader treeDescription) throws IOException {
+		return TreeParser.of(treeDescription).parse();
+	}
+	
+	/**
+	 * Translates the UTF-8 description of a tree stored in the given file, in the same format
+	 * as parse(String) expects, into a Tree&lt;String&gt; object. The file is memory mapped and
+	 * parsed directly from the mapped bytes, in chunks for files larger than 2GB, so the memory
+	 * used on the heap depends on the size of the resulting tree only, not of the file
+	 * @param treeDescription The path of the file to be parsed
+	 * @return The resultant Tree&lt;String&gt;
+	 * @throws IOException If the file can not be read or is not valid UTF-8
+	 * @throws TreeParseException If the description is not well formed, its offset tells where
+	 */
+	public static BinaryTree<String> parse(Path treeDescription) throws IOException {
+		return parse(treeDescription, TreeParser.MAPPING_SIZE);
+	}
+	
+	/**
+	 * Translates the UTF-8 description of a tree stored in the given file, see parse(Path),
+	 * mapping at most chunkSize bytes of the file at a time
+	 * @param treeDescription The path of the file to be parsed
+	 * @param chunkSize The maximum number of bytes mapped at a time, at least 4 so that any
+	 * 			UTF-8 character fits in a chunk, and at most 2^31-1
+	 * @return The resultant Tree&lt;String&gt;
+	 * @throws IllegalArgumentException If chunkSize is out of range
+	 * @throws IOException If the file can not be read or is not valid UTF-8
+	 * @throws TreeParseException If the description is not well formed, its offset tells where
+	 */
+	public static BinaryTree<String> parse(Path treeDescription, long chunkSize) throws IOException {
+		FileChannel channel = FileChannel.open(treeDescription, StandardOpenOption.READ);
+		try {
+			return TreeParser.of(channel, chunkSize).parse();
+		}
+		finally {
+			channel.close();
+		}
+	}
+	
+	/**
+	 * Builds a perfectly balanced BinaryTree whose inOrder traversal returns the given values in
+	 * their order, so that it is a BinarySearchTree if the values are sorted (which is not
+	 * checked). The middle value of every range becomes the root of the subtree of that range,
+	 * and the nodes are linked without the cycle checks of setLeftChild and setRightChild, so
+	 * the tree is built in O(n) and its height is floor(log2(n))
+	 * @param values The values, in inOrder
+	 * @return The root of the tree, or NULL if there are no values
+	 */
+	public static <V> BinaryTree<V> fromSorted(V[] values) {
+		@SuppressWarnings("unchecked")
+		BinaryTree<V>[] nodes = (BinaryTree<V>[]) new BinaryTree<?>[values.length];
+		for(int i = 0; i < values.length; i++)
+			nodes[i] = new BinaryTree<V>(values[i]);
+		return linkBalanced(nodes);
+	}
+	
+	/**
+	 * Builds a perfectly balanced BinaryTree whose inOrder traversal returns the values of the
+	 * given List in their order, in O(n) whatever the kind of List, see fromSorted(Object[])
+	 * @param values The values, in inOrder
+	 * @return The root of the tree, or NULL if the List is empty
+	 */
+	public static <V> BinaryTree<V> fromSorted(List<? extends V> values) {
+		@SuppressWarnings("unchecked")
+		BinaryTree<V>[] nodes = (BinaryTree<V>[]) new BinaryTree<?>[values.size()];
+		int i = 0;
+		for(V value : values)
+			nodes[i++] = new BinaryTree<V>(value);
+		return linkBalanced(nodes);
+	}
+	
+	/**
+	 * Links the given nodes into a perfectly balanced tree whose inOrder traversal returns them
+	 * in their order: the middle node of every range of the array is linked as the child of the
+	 * middle node of the enclosing range
+	 * @param nodes The nodes, without parent nor children
+	 * @return The root of the tree, or NULL if there are no nodes
+	 */
+	static <V, T extends BinaryTree<V>> T linkBalanced(T[] nodes) {
+		if(nodes.length == 0)
+			return null;
+		/* The ranges still to be linked, each one pushed as its first index marked with its last index */
+		IndexStack ranges = new IndexStack();
+		ranges.push(0, nodes.length - 1);
+		while(!ranges.isEmpty()) {
+			int last = ranges.peekMark();
+			int first = ranges.pop();
+			int middle = (first + last) >>> 1;
+			if(first < middle) {
+				nodes[middle].linkLeftChild(nodes[(first + middle - 1) >>> 1]);
+				ranges.push(first, middle - 1);
 			}
-			else {
-				temp.append(childrenValue.charAt(i));
+			if(middle < last) {
+				nodes[middle].linkRightChild(nodes[(middle + 1 + last) >>> 1]);
+				ranges.push(middle + 1, last);
 			}
 		}
-		return tokenizedChildren;
+		return nodes[(nodes.length - 1) >>> 1];
 	}
 	
 	/**
@@ -372,57 +956,237 @@ public class BinaryTree<V> {
 	 * @return The number of total nodes in this subtree
 	 */
 	public int size() {
-		int leftSubTreeSize = 0;
-		if(this.leftChild != null)
-			leftSubTreeSize = this.leftChild.size();
-		
-		int rightSubTreeSize = 0;
-		if(this.rightChild != null)
-			rightSubTreeSize = this.rightChild.size();
-		
-		return leftSubTreeSize + rightSubTreeSize + 1;
+		int size = 0;
+		Iterator<BinaryTree<V>> iterator = new TreeIterator<V>(this, TraversalOrder.PRE_ORDER);
+		while(iterator.hasNext()) {
+			iterator.next();
+			size++;
+		}
+		return size;
+	}
+	
+	/**
+	 * Returns an Iterator over the nodes of the BinaryTree rooted at this node
+	 * in the given order
+	 * @param order The order in which the nodes are to be returned
+	 * @return The Iterator over the nodes of this BinaryTree
+	 */
+	public Iterator<BinaryTree<V>> iterator(TraversalOrder order) {
+		return new TreeIterator<V>(this, order);
+	}
+	
+	/**
+	 * Returns a Spliterator over the nodes of the BinaryTree rooted at this node
+	 * in the given order. Only the preOrder Spliterator splits at subtree boundaries
+	 * (see TreeSpliterator), the other ones split the way Spliterators.spliteratorUnknownSize does
+	 * @param order The order in which the nodes are to be returned
+	 * @return The Spliterator over the nodes of this BinaryTree
+	 */
+	public Spliterator<BinaryTree<V>> spliterator(TraversalOrder order) {
+		if(order == TraversalOrder.PRE_ORDER)
+			return new TreeSpliterator<V>(this);
+		return Spliterators.spliteratorUnknownSize(this.iterator(order),
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+	
+	/**
+	 * Returns a sequential Stream over the nodes of the BinaryTree rooted at this node in preOrder
+	 * @return The Stream of the nodes of this BinaryTree
+	 */
+	public Stream<BinaryTree<V>> stream() {
+		return StreamSupport.stream(new TreeSpliterator<V>(this), false);
+	}
+	
+	/**
+	 * Returns a parallel Stream over the nodes of the BinaryTree rooted at this node in preOrder.
+	 * The nodes are split between the threads at subtree boundaries
+	 * @return The parallel Stream of the nodes of this BinaryTree
+	 */
+	public Stream<BinaryTree<V>> parallelStream() {
+		return StreamSupport.stream(new TreeSpliterator<V>(this), true);
 	}
 	
 	/**
 	 * Prints the nodes of this BinaryTree in an inOrder traversal to the console
 	 */
 	public void inOrderTraversal() {
-		if(this.leftChild != null)
-			this.leftChild.inOrderTraversal();
-		System.out.println(this.getValue());
-		if(this.rightChild != null)
-			this.rightChild.inOrderTraversal();
+		this.inOrderTraversal(System.out::println);
+	}
+	
+	/**
+	 * Passes the values of the nodes of this BinaryTree to the given action in an inOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void inOrderTraversal(Consumer<? super V> action) {
+		this.traverse(TraversalOrder.IN_ORDER, action);
 	}
 	
 	/**
 	 * Prints the nodes of this BinaryTree in a preOrder traversal to the console
 	 */
 	public void preOrderTraversal() {
-		System.out.println(this.getValue());
-		if(this.leftChild != null)
-			this.leftChild.preOrderTraversal();
-		if(this.rightChild != null)
-			this.rightChild.preOrderTraversal();
+		this.preOrderTraversal(System.out::println);
+	}
+	
+	/**
+	 * Passes the values of the nodes of this BinaryTree to the given action in a preOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void preOrderTraversal(Consumer<? super V> action) {
+		this.traverse(TraversalOrder.PRE_ORDER, action);
 	}
 	
 	/**
 	 * Prints the nodes of this BinaryTree in a postOrder traversal to the console
 	 */
 	public void postOrderTraversal() {
-		if(this.leftChild != null)
-			this.leftChild.postOrderTraversal();
-		if(this.rightChild != null)
-			this.rightChild.postOrderTraversal();
-		System.out.println(this.getValue());
+		this.postOrderTraversal(System.out::println);
+	}
+	
+	/**
+	 * Passes the values of the nodes of this BinaryTree to the given action in a postOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void postOrderTraversal(Consumer<? super V> action) {
+		this.traverse(TraversalOrder.POST_ORDER, action);
+	}
+	
+	/**
+	 * Prints the nodes of this BinaryTree in a levelOrder traversal to the console
+	 */
+	public void levelOrderTraversal() {
+		this.levelOrderTraversal(System.out::println);
+	}
+	
+	/**
+	 * Passes the values of the nodes of this BinaryTree to the given action in a levelOrder
+	 * traversal, level by level from this node and each level from left to right
+	 * @param action The action to be performed on each value
+	 */
+	public void levelOrderTraversal(Consumer<? super V> action) {
+		this.traverse(TraversalOrder.LEVEL_ORDER, action);
+	}
+	
+	/**
+	 * Returns a Stream of the levels of the BinaryTree rooted at this node, starting with the
+	 * level of this node alone. Every level is the List of its nodes from left to right. A level
+	 * is only built when it is asked for, from the last level returned, so the Stream holds a
+	 * single level between two levels, and levels().limit(k) builds k levels
+	 * @return The Stream of the levels of this BinaryTree
+	 */
+	public Stream<List<BinaryTree<V>>> levels() {
+		final List<BinaryTree<V>> first = new ArrayList<BinaryTree<V>>(1);
+		first.add(this);
+		Iterator<List<BinaryTree<V>>> iterator = new Iterator<List<BinaryTree<V>>>() {
+			/* The last level returned, and the next one once hasNext has built it */
+			private List<BinaryTree<V>> last = null;
+			private List<BinaryTree<V>> next = first;
+
+			@Override
+			public boolean hasNext() {
+				if(next == null) {
+					next = new ArrayList<BinaryTree<V>>();
+					for(BinaryTree<V> node : last) {
+						if(node.leftChild != null)
+							next.add(node.leftChild);
+						if(node.rightChild != null)
+							next.add(node.rightChild);
+					}
+					last = null;
+				}
+				return !next.isEmpty();
+			}
+
+			@Override
+			public List<BinaryTree<V>> next() {
+				if(!this.hasNext())
+					throw new NoSuchElementException();
+				last = next;
+				next = null;
+				return last;
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+				Spliterator.ORDERED | Spliterator.NONNULL), false);
+	}
+	
+	/**
+	 * Returns the width and the number of leaves of every level of the BinaryTree rooted at
+	 * this node, gathered in a single levelOrder walk, see LevelStatistics
+	 * @return The statistics of the levels of this BinaryTree
+	 */
+	public LevelStatistics getLevelStatistics() {
+		LevelStatistics statistics = new LevelStatistics();
+		/* The depth of every node is kept as its mark in the queue */
+		NodeQueue<BinaryTree<V>> queue = new NodeQueue<BinaryTree<V>>();
+		queue.add(this, 0);
+		while(!queue.isEmpty()) {
+			int depth = queue.peekMark();
+			BinaryTree<V> node = queue.remove();
+			statistics.add(depth, node.isLeaf());
+			if(node.leftChild != null)
+				queue.add(node.leftChild, depth+1);
+			if(node.rightChild != null)
+				queue.add(node.rightChild, depth+1);
+		}
+		return statistics;
+	}
+	
+	/**
+	 * Helper method which passes the values of the nodes to the action in the given order
+	 * @param order The order in which the nodes are visited
+	 * @param action The action to be performed on each value
+	 */
+	private void traverse(TraversalOrder order, Consumer<? super V> action) {
+		Iterator<BinaryTree<V>> iterator = new TreeIterator<V>(this, order);
+		while(iterator.hasNext())
+			action.accept(iterator.next().getValue());
+	}
+	
+	/**
+	 * Walks this BinaryTree depth first, calling the enter method of the visitor when a node
+	 * is reached and its leave method once both its subtrees have been walked
+	 * @param visitor The visitor to be called for each node
+	 */
+	public void traverse(TreeVisitor<? super V> visitor) {
+		/* Every node on the stack is marked with the number of its children already pushed,
+		 * so the stack always holds the path from this node to the current node */
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(this, 0);
+		visitor.enter(this, 0);
+		while(!stack.isEmpty()) {
+			BinaryTree<V> node = stack.peek();
+			int mark = stack.peekMark();
+			BinaryTree<V> child = null;
+			if(mark == 0) {
+				stack.setMark(1);
+				child = node.leftChild;
+			}
+			else if(mark == 1) {
+				stack.setMark(2);
+				child = node.rightChild;
+			}
+			else {
+				stack.pop();
+				visitor.leave(node, stack.size());
+				continue;
+			}
+			if(child != null) {
+				visitor.enter(child, stack.size());
+				stack.push(child, 0);
+			}
+		}
 	}
 	
 	/**
 	 * Removes all of the mappings from this BinaryTree and resets the node with null values
 	 */
 	public void clear() {
+		this.link(null, true);
+		this.link(null, false);
+		this.saveVersion();
 		this.value = null;
-		this.leftChild = null;
-		this.rightChild = null;
+		this.invalidate();
 	}
 	
 	/**
@@ -448,40 +1212,125 @@ public class BinaryTree<V> {
 	 * |  |  five
 	 */
 	public void print() {
-		this.printHelper("");
+		try {
+			this.print(System.out);
+		}
+		catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
 	}
 
 	/**
-	 * Helper method to print which does the actual work
-	 * @param string The string containing the information about the indent
+	 * Appends the multi-line version of the tree, in the same format as print(), to the
+	 * given Appendable. The indent of each line is appended piece by piece, so no String
+	 * is built per node
+	 * @param out The Appendable to which the tree is written
+	 * @throws IOException If the Appendable throws an IOException
 	 */
-	private void printHelper(String string) {
-		StringBuilder indent = new StringBuilder(string);
-		System.out.println(indent.toString()+this.getValue());
-		indent.append("|\t");
-		if(this.leftChild != null)
-			this.leftChild.printHelper(indent.toString());
-		if(this.rightChild != null)
-			this.rightChild.printHelper(indent.toString());
+	public void print(Appendable out) throws IOException {
+		String lineSeparator = System.lineSeparator();
+		/* The depth of every node is kept as its mark on the stack */
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(this, 0);
+		while(!stack.isEmpty()) {
+			int depth = stack.peekMark();
+			BinaryTree<V> node = stack.pop();
+			for(int i = 0; i < depth; i++)
+				out.append("|\t");
+			out.append(String.valueOf(node.getValue())).append(lineSeparator);
+			if(node.rightChild != null)
+				stack.push(node.rightChild, depth+1);
+			if(node.leftChild != null)
+				stack.push(node.leftChild, depth+1);
+		}
 	}
     
     /**
      * Returns the LinkedList containing only the leaves of this BinaryTree on which
-     * this method is called
+     * this method is called, from left to right
      * @return The LinkedList containing the leaves of this BinaryTree
      */
 	public LinkedList<BinaryTree<V>> getLeaves() {
     	LinkedList<BinaryTree<V>> list = new LinkedList<BinaryTree<V>>();
-    	if(this.leftChild == null && this.rightChild == null)
-    		list.add(this);
-    	
-    	if(this.leftChild != null)
-    		list.addAll(this.leftChild.getLeaves());
-    	if(this.rightChild != null)
-    		list.addAll(this.rightChild.getLeaves());
-    		
+    	this.forEachLeaf(list::add);
     	return list;
     }
+	
+	/**
+	 * Returns a lazy Stream of the leaves of this BinaryTree from left to right. The leaves are
+	 * found one at a time by following the child and parent links, so the Stream holds nothing
+	 * but the current leaf. The tree must not be modified while the Stream is being consumed
+	 * @return The Stream of the leaves of this BinaryTree
+	 */
+	public Stream<BinaryTree<V>> leaves() {
+		Iterator<BinaryTree<V>> iterator = new Iterator<BinaryTree<V>>() {
+			private BinaryTree<V> next = firstLeaf(BinaryTree.this);
+
+			@Override
+			public boolean hasNext() {
+				return next != null;
+			}
+
+			@Override
+			public BinaryTree<V> next() {
+				if(next == null)
+					throw new NoSuchElementException();
+				BinaryTree<V> leaf = next;
+				next = BinaryTree.this.nextLeaf(leaf);
+				return leaf;
+			}
+		};
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+				Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL), false);
+	}
+	
+	/**
+	 * Returns the number of leaves of this BinaryTree, without allocating anything
+	 * @return The number of leaves
+	 */
+	public int countLeaves() {
+		int count = 0;
+		for(BinaryTree<V> leaf = firstLeaf(this); leaf != null; leaf = this.nextLeaf(leaf))
+			count++;
+		return count;
+	}
+	
+	/**
+	 * Passes the leaves of this BinaryTree to the given action from left to right, without
+	 * allocating anything
+	 * @param action The action to be performed on each leaf
+	 */
+	public void forEachLeaf(Consumer<? super BinaryTree<V>> action) {
+		for(BinaryTree<V> leaf = firstLeaf(this); leaf != null; leaf = this.nextLeaf(leaf))
+			action.accept(leaf);
+	}
+	
+	/**
+	 * Helper method which returns the leftmost leaf of the subtree rooted at the given node
+	 * @param node The root of the subtree
+	 * @return The first leaf of the subtree
+	 */
+	private static <V> BinaryTree<V> firstLeaf(BinaryTree<V> node) {
+		while(!node.isLeaf())
+			node = (node.leftChild != null) ? node.leftChild : node.rightChild;
+		return node;
+	}
+	
+	/**
+	 * Helper method which returns the leaf following the given one in the BinaryTree rooted at
+	 * this node: climbing from the leaf, the first ancestor reached from its left subtree and
+	 * having a right subtree leads to the first leaf of that right subtree
+	 * @param leaf The current leaf
+	 * @return The next leaf, or NULL if leaf is the last one
+	 */
+	private BinaryTree<V> nextLeaf(BinaryTree<V> leaf) {
+		for(BinaryTree<V> node = leaf; node != this; node = node.parent) {
+			BinaryTree<V> parent = node.parent;
+			if(parent.leftChild == node && parent.rightChild != null)
+				return firstLeaf(parent.rightChild);
+		}
+		return null;
+	}
     
     /**
      * Returns <code>true</code> if the left subtree of this node is the same as its
@@ -489,26 +1338,230 @@ public class BinaryTree<V> {
      * @return <code>true</code> if the node is symmetric
      */
     public boolean isSymmetric() {
-    	if(this.leftChild == null)
-    		return this.rightChild == null;
-    	else
-    		return this.leftChild.equals(this.rightChild);
+    	return subtreesEqual(this.leftChild, this.rightChild);
 	}
     
+    /**
+     * Reshapes the BinaryTree rooted at this node into a perfectly balanced tree of the same
+     * nodes, keeping its inOrder traversal, with the Day-Stout-Warren algorithm: the tree is
+     * first rotated into a vine of right children, which is then folded by rounds of left
+     * rotations. It takes O(n) time and O(1) extra space, besides a List of the open observers
+     * of the tree.
+     * 
+     * The rotations move the values between the nodes rather than the nodes themselves, so that
+     * this node stays the root of the subtree. The other nodes keep their identity but may hold
+     * other values afterwards: a node reference kept by the caller, such as a node returned by
+     * getKthSmallestNode, OrderStatisticTree.select or TreeSnapshot, or a node given to an
+     * AncestorIndex, no longer stands for the same value and has to be looked up again.
+     * The nodes are relinked directly, without calling childChanged, so subclasses keeping
+     * information about their subtrees override this method to rebuild it.
+     * 
+     * The state of every node is saved for the outstanding snapshots just before a rotation
+     * first modifies it, see rotationObservers
+     */
+    public void rebalance() {
+    	this.invalidate();
+    	List<TreeObserver<V>> observers = this.rotationObservers();
+    	/* Rotate right until the subtree is a vine, dropping the cached information of every node */
+    	int size = 0;
+    	for(BinaryTree<V> node = this; node != null; ) {
+    		if(node.leftChild != null)
+    			node.rotateRight(observers);
+    		else {
+    			node.hash = 0;
+    			node.cachedHeight = 0;
+    			size++;
+    			node = node.rightChild;
+    		}
+    	}
+    	/* The nodes below the largest perfect tree are folded first, then every level in turn */
+    	int perfect = Integer.highestOneBit(size + 1) - 1;
+    	this.compress(size - perfect, observers);
+    	for(int count = perfect / 2; count > 0; count /= 2)
+    		this.compress(count, observers);
+    }
+    
+    /**
+     * Helper method to rebalance which returns the open observers of the tree which have to hear
+     * about every node a rotation modifies, the observers of this node and of its ancestors,
+     * after telling them that the shape of the tree changes. Should a node below this one hold
+     * observers itself, the rotations would move nodes in and out of their subtrees, so every
+     * node is told about upfront instead, see beforeSubtreeChange
+     * @return The observers, or NULL if no observer has to hear about the rotations
+     */
+    private List<TreeObserver<V>> rotationObservers() {
+    	if(!this.isSubtreeObserved())
+    		return null;
+    	for(BinaryTree<V> node = this.nextInPreOrder(this); node != null; node = this.nextInPreOrder(node)) {
+    		if(node.observers != null && !node.observers.isEmpty()) {
+    			this.beforeSubtreeChange();
+    			return null;
+    		}
+    	}
+    	List<TreeObserver<V>> observers = new ArrayList<TreeObserver<V>>();
+    	for(BinaryTree<V> node = this; node != null; node = node.parent) {
+    		if(node.observers == null)
+    			continue;
+    		for(int i = 0; i < node.observers.size(); i++) {
+    			TreeObserver<V> observer = node.observers.get(i);
+    			if(observer.isOpen()) {
+    				observer.shapeChanged();
+    				observers.add(observer);
+    			}
+    		}
+    	}
+    	return observers;
+    }
+    
+    /**
+     * Helper method to the rotations which tells the given observers that the node is about to
+     * be modified
+     * @param node The node about to be modified
+     * @param observers The observers, or NULL
+     */
+    private static <V> void beforeRotation(BinaryTree<V> node, List<TreeObserver<V>> observers) {
+    	if(observers != null)
+    		for(int i = 0; i < observers.size(); i++)
+    			observers.get(i).beforeChange(node);
+    }
+    
+    /**
+     * Helper method to rebalance which rotates left the given number of nodes along the right
+     * path from this node, every other node
+     * @param count The number of rotations
+     * @param observers The observers to be told about the modified nodes, or NULL
+     */
+    private void compress(int count, List<TreeObserver<V>> observers) {
+    	BinaryTree<V> node = this;
+    	for(int i = 0; i < count; i++) {
+    		node.rotateLeft(observers);
+    		node = node.rightChild;
+    	}
+    }
+    
+    /**
+     * Helper method to rebalance which rotates this node with its left child. The values of the
+     * two nodes are swapped, so this node stays in place and the left child becomes its right child
+     * @param observers The observers to be told about the two modified nodes, or NULL
+     */
+    private void rotateRight(List<TreeObserver<V>> observers) {
+    	BinaryTree<V> left = this.leftChild;
+    	beforeRotation(this, observers);
+    	beforeRotation(left, observers);
+    	V value = this.value;
+    	this.value = left.value;
+    	left.value = value;
+    	BinaryTree<V> outer = left.leftChild;
+    	left.leftChild = left.rightChild;
+    	left.rightChild = this.rightChild;
+    	if(left.rightChild != null)
+    		left.rightChild.parent = left;
+    	this.leftChild = outer;
+    	if(outer != null)
+    		outer.parent = this;
+    	this.rightChild = left;
+    }
+    
+    /**
+     * Helper method to rebalance which rotates this node with its right child. The values of the
+     * two nodes are swapped, so this node stays in place and the right child becomes its left child
+     * @param observers The observers to be told about the two modified nodes, or NULL
+     */
+    private void rotateLeft(List<TreeObserver<V>> observers) {
+    	BinaryTree<V> right = this.rightChild;
+    	beforeRotation(this, observers);
+    	beforeRotation(right, observers);
+    	V value = this.value;
+    	this.value = right.value;
+    	right.value = value;
+    	BinaryTree<V> outer = right.rightChild;
+    	right.rightChild = right.leftChild;
+    	right.leftChild = this.leftChild;
+    	if(right.leftChild != null)
+    		right.leftChild.parent = right;
+    	this.rightChild = outer;
+    	if(outer != null)
+    		outer.parent = this;
+    	this.leftChild = right;
+    }
+    
     /**
      * Returns <code>true</code> if difference between heights of its left subtrees and right subtrees
      * is not more than 1 and left and right subtrees are balanced, otherwise return false.
+     * Every subtree is checked in a single postOrder pass, see findUnbalancedNode
      * @return <code>true</code> if the BinaryTree is balanced
      */
     public boolean isBalanced() {
-    	int leftSubTreeHeight = getHeightHelper(this.leftChild);
-    	int rightSubTreeHeight = getHeightHelper(this.rightChild);
-    	
-		int difference = leftSubTreeHeight - rightSubTreeHeight;
-		int absDifference = (difference < 0) ? -difference : difference;
-		
-		return absDifference < 2;
+    	return this.findUnbalancedNode(false) == null;
 	}
+    
+    /**
+     * Returns <code>true</code> if the BinaryTree is balanced, see isBalanced(), optionally
+     * caching the heights of the balanced subtrees, see findUnbalancedNode(boolean)
+     * @param cacheHeights <code>true</code> to cache the heights of the subtrees checked
+     * @return <code>true</code> if the BinaryTree is balanced
+     */
+    public boolean isBalanced(boolean cacheHeights) {
+    	return this.findUnbalancedNode(cacheHeights) == null;
+    }
+    
+    /**
+     * Returns the first node, in postOrder, whose left and right subtrees differ in height by
+     * more than 1, or NULL if the BinaryTree rooted at this node is balanced. The heights are
+     * computed bottom up in a single postOrder pass which stops at the first unbalanced node,
+     * so the check takes O(n) at most
+     * @return The first unbalanced node, or NULL if the BinaryTree is balanced
+     */
+    public BinaryTree<V> findUnbalancedNode() {
+    	return this.findUnbalancedNode(false);
+    }
+    
+    /**
+     * Returns the first unbalanced node, see findUnbalancedNode(). When cacheHeights is
+     * <code>true</code>, the height of every balanced subtree is kept in its root until the
+     * subtree is modified, and the subtrees whose heights are kept are not walked again, so
+     * that checking the tree again after a local change only walks the modified path: O(depth)
+     * @param cacheHeights <code>true</code> to cache the heights of the subtrees checked
+     * @return The first unbalanced node, or NULL if the BinaryTree is balanced
+     */
+    public BinaryTree<V> findUnbalancedNode(boolean cacheHeights) {
+    	/* The mark of a node is the number of its children already pushed. Without the cache,
+    	 * the heights of the subtrees walked are pushed on the heights stack in postOrder */
+    	NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+    	IndexStack heights = cacheHeights ? null : new IndexStack();
+    	if(!(cacheHeights && this.cachedHeight != 0))
+    		stack.push(this, 0);
+    	while(!stack.isEmpty()) {
+    		BinaryTree<V> node = stack.peek();
+    		int mark = stack.peekMark();
+    		if(mark < 2) {
+    			stack.setMark(mark+1);
+    			BinaryTree<V> child = (mark == 0) ? node.leftChild : node.rightChild;
+    			if(child != null && !(cacheHeights && child.cachedHeight != 0))
+    				stack.push(child, 0);
+    			continue;
+    		}
+    		stack.pop();
+    		int rightHeight, leftHeight;
+    		if(cacheHeights) {
+    			rightHeight = (node.rightChild == null) ? -1 : node.rightChild.cachedHeight - 1;
+    			leftHeight = (node.leftChild == null) ? -1 : node.leftChild.cachedHeight - 1;
+    		}
+    		else {
+    			rightHeight = (node.rightChild == null) ? -1 : heights.pop();
+    			leftHeight = (node.leftChild == null) ? -1 : heights.pop();
+    		}
+    		int difference = leftHeight - rightHeight;
+    		if(difference > 1 || difference < -1)
+    			return node;
+    		int height = ((leftHeight > rightHeight) ? leftHeight : rightHeight) + 1;
+    		if(cacheHeights)
+    			node.cachedHeight = height + 1;
+    		else
+    			heights.push(height, 0);
+    	}
+    	return null;
+    }
 	
     /**
      * Returns the height of the BinaryTree on which this method is called
@@ -516,9 +1569,13 @@ public class BinaryTree<V> {
      * 	if there are 2 levels of nodes the height is 1 and so on
      * 	A null tree (no nodes except the null node) is defined to have a height of negative 1
      * Height of a tree is the depth of farthest most leaf node from the root (max depth)
+     * The height cached by isBalanced(true) is returned in O(1)
      * @return The height of this BinaryTree
      */
 	public int getHeight() {
+		int cached = this.cachedHeight;
+		if(cached != 0)
+			return cached - 1;
 		return getHeightHelper(this);
 	}
 	
@@ -531,12 +1588,21 @@ public class BinaryTree<V> {
 		if(root==null) {
 			return -1;
 		}
-		else {
-			int leftSubTreeHeight = getHeightHelper(root.leftChild)+1;
-			int rightSubTreeHeight = getHeightHelper(root.rightChild)+1;
-			
-			return leftSubTreeHeight > rightSubTreeHeight ? leftSubTreeHeight : rightSubTreeHeight;
+		/* The depth of every node is kept as its mark on the stack */
+		int height = 0;
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(root, 0);
+		while(!stack.isEmpty()) {
+			int depth = stack.peekMark();
+			BinaryTree<V> node = stack.pop();
+			if(depth > height)
+				height = depth;
+			if(node.rightChild != null)
+				stack.push(node.rightChild, depth+1);
+			if(node.leftChild != null)
+				stack.push(node.leftChild, depth+1);
 		}
+		return height;
 	}
 	
 	/**
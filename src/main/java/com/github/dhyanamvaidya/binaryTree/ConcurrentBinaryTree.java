@@ -0,0 +1,764 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * A BinaryTree which can be shared between threads. All the nodes of a tree share a single
+ * StampedLock:
+ *  -- getValue, getLeftChild, getRightChild, getParent and isLeaf are optimistic reads,
+ *  	which take no lock unless a writer is running at the same time
+ *  -- every other read, such as size, getHeight, contains, the leaves, the Kth nodes, the
+ *  	traversals, the level statistics, equals, hashCode, toString and print, walks the tree
+ *  	under the read lock, so readers run in parallel and always see the tree between two writes
+ *  -- iterator, spliterator, stream, parallelStream, levels, leaves and ancestors gather the
+ *  	nodes under the read lock when they are called, and then return them whatever the
+ *  	writers do meanwhile
+ *  -- setValue, setLeftChild, setRightChild, removeLeftChild, removeRightChild, clear,
+ *  	rebalance and snapshot take the write lock
+ *
+ * hashCode and isBalanced(true) fill the caches of the nodes under the read lock: every cache
+ * is a single int field, and readers racing to fill it write the same value, so the race is
+ * benign; the caches are only dropped by writers.
+ *
+ * Unlike a striped or per-subtree locking scheme, a single lock covers the whole tree: a write
+ * may move a subtree anywhere in the tree, the cycle check of setLeftChild and setRightChild
+ * walks up to the root and the caches are dropped up to the root, so a write touches the
+ * ancestors of the nodes it changes, which a lock per subtree would not cover. Writes are
+ * expected to be rare compared to reads. The actions and visitors passed to the traversals run
+ * under the read lock and must not modify the tree. equals only locks this tree; a
+ * ConcurrentBinaryTree it is compared with must not be written meanwhile.
+ *
+ * New nodes are created by newNode, so that they share the lock of the tree; a node of
+ * another tree, or a plain BinaryTree node, can not be linked into this tree
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public class ConcurrentBinaryTree<V> extends BinaryTree<V> {
+
+	private static final int LEFT = 0;
+	private static final int RIGHT = 1;
+	private static final int PARENT = 2;
+
+	private final StampedLock lock;
+
+	/**
+	 * Creates the root node of a new tree, with its own lock
+	 * @param value The value to put in this node
+	 */
+	public ConcurrentBinaryTree(V value) {
+		this(value, new StampedLock());
+	}
+
+	/**
+	 * Creates a node sharing the given lock
+	 * @param value The value to put in this node
+	 * @param lock The lock of the tree of the node
+	 */
+	private ConcurrentBinaryTree(V value, StampedLock lock) {
+		super(value);
+		this.lock = lock;
+	}
+
+	/**
+	 * Creates a node without parent nor children which belongs to the same tree as this
+	 * node, so that it can be linked anywhere in the tree
+	 * @param value The value to put in the new node
+	 * @return The new node
+	 */
+	public ConcurrentBinaryTree<V> newNode(V value) {
+		return new ConcurrentBinaryTree<V>(value, lock);
+	}
+
+	/**
+	 * Builds a ConcurrentBinaryTree with the same shape and values as the given BinaryTree
+	 * @param tree The BinaryTree to be copied
+	 * @return The root of the new ConcurrentBinaryTree, or NULL if tree is NULL
+	 */
+	public static <V> ConcurrentBinaryTree<V> of(BinaryTree<V> tree) {
+		if(tree == null)
+			return null;
+		ConcurrentBinaryTree<V> root = new ConcurrentBinaryTree<V>(tree.getValue());
+		/* The original nodes and their copies are pushed one after the other */
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(tree);
+		stack.push(root);
+		while(!stack.isEmpty()) {
+			ConcurrentBinaryTree<V> copy = cast(stack.pop());
+			BinaryTree<V> node = stack.pop();
+			if(node.leftChild != null) {
+				ConcurrentBinaryTree<V> child = root.newNode(node.leftChild.getValue());
+				copy.linkLeftChild(child);
+				stack.push(node.leftChild);
+				stack.push(child);
+			}
+			if(node.rightChild != null) {
+				ConcurrentBinaryTree<V> child = root.newNode(node.rightChild.getValue());
+				copy.linkRightChild(child);
+				stack.push(node.rightChild);
+				stack.push(child);
+			}
+		}
+		return root;
+	}
+
+	@Override
+	public V getValue() {
+		long stamp = lock.tryOptimisticRead();
+		V value = this.value;
+		if(!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				value = this.value;
+			}
+			finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return value;
+	}
+
+	@Override
+	public void setValue(V value) {
+		long stamp = lock.writeLock();
+		try {
+			super.setValue(value);
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public ConcurrentBinaryTree<V> getLeftChild() {
+		return this.readLink(LEFT);
+	}
+
+	@Override
+	public ConcurrentBinaryTree<V> getRightChild() {
+		return this.readLink(RIGHT);
+	}
+
+	@Override
+	public ConcurrentBinaryTree<V> getParent() {
+		return this.readLink(PARENT);
+	}
+
+	@Override
+	public boolean isLeaf() {
+		long stamp = lock.tryOptimisticRead();
+		boolean leaf = this.leftChild == null && this.rightChild == null;
+		if(!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				leaf = this.leftChild == null && this.rightChild == null;
+			}
+			finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return leaf;
+	}
+
+	/**
+	 * Sets the node supplied as the left child of this node, see BinaryTree.setLeftChild.
+	 * The cycle check, the parent check and the link are done under the write lock
+	 * @param leftChild The leftChild to be set, a node of this tree without parent
+	 * @throws IllegalArgumentException If leftChild does not belong to this tree, or already has another parent
+	 */
+	@Override
+	public void setLeftChild(BinaryTree<V> leftChild) {
+		this.writeLink(leftChild, true);
+	}
+
+	/**
+	 * Sets the node supplied as the right child of this node, see BinaryTree.setRightChild.
+	 * The cycle check, the parent check and the link are done under the write lock
+	 * @param rightChild The rightChild to be set, a node of this tree without parent
+	 * @throws IllegalArgumentException If rightChild does not belong to this tree, or already has another parent
+	 */
+	@Override
+	public void setRightChild(BinaryTree<V> rightChild) {
+		this.writeLink(rightChild, false);
+	}
+
+	@Override
+	public ConcurrentBinaryTree<V> removeLeftChild() throws NoSuchElementException {
+		return this.unlink(true);
+	}
+
+	@Override
+	public ConcurrentBinaryTree<V> removeRightChild() throws NoSuchElementException {
+		return this.unlink(false);
+	}
+
+	@Override
+	public void clear() {
+		long stamp = lock.writeLock();
+		try {
+			super.clear();
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	@Override
+	public void rebalance() {
+		long stamp = lock.writeLock();
+		try {
+			super.rebalance();
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Takes a snapshot of the tree rooted at this node, see BinaryTree.snapshot. The snapshot
+	 * is registered under the write lock. It can be read by any thread while writers keep
+	 * running: every read of the snapshot is an optimistic read of the lock, so that it never
+	 * sees a node between the save of its state and its modification, which a writer does
+	 * under the write lock
+	 * @return The snapshot
+	 */
+	@Override
+	public TreeSnapshot<V> snapshot() {
+		long stamp = lock.writeLock();
+		try {
+			return new TreeSnapshot<V>(this, this.history(), lock);
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Returns the hash code of this tree, see BinaryTree.hashCode. The cache of the hash codes
+	 * is filled under the read lock, see the class description
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		long stamp = lock.readLock();
+		try {
+			return super.hashCode();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		long stamp = lock.readLock();
+		try {
+			return super.equals(obj);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns the first unbalanced node, see BinaryTree.findUnbalancedNode(boolean). The
+	 * heights are cached under the read lock, see the class description; isBalanced and
+	 * findUnbalancedNode() call this method
+	 * @param cacheHeights <code>true</code> to cache the heights of the subtrees checked
+	 * @return The first unbalanced node, or NULL if the tree is balanced
+	 */
+	@Override
+	public ConcurrentBinaryTree<V> findUnbalancedNode(boolean cacheHeights) {
+		long stamp = lock.readLock();
+		try {
+			return cast(super.findUnbalancedNode(cacheHeights));
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int size() {
+		long stamp = lock.readLock();
+		try {
+			return super.size();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int getHeight() {
+		long stamp = lock.readLock();
+		try {
+			return super.getHeight();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean contains(BinaryTree<V> node) {
+		long stamp = lock.readLock();
+		try {
+			return super.contains(node);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int countLeaves() {
+		long stamp = lock.readLock();
+		try {
+			return super.countLeaves();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public void forEachLeaf(Consumer<? super BinaryTree<V>> action) {
+		long stamp = lock.readLock();
+		try {
+			super.forEachLeaf(action);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public void inOrderTraversal(Consumer<? super V> action) {
+		long stamp = lock.readLock();
+		try {
+			super.inOrderTraversal(action);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public void preOrderTraversal(Consumer<? super V> action) {
+		long stamp = lock.readLock();
+		try {
+			super.preOrderTraversal(action);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public void postOrderTraversal(Consumer<? super V> action) {
+		long stamp = lock.readLock();
+		try {
+			super.postOrderTraversal(action);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public void levelOrderTraversal(Consumer<? super V> action) {
+		long stamp = lock.readLock();
+		try {
+			super.levelOrderTraversal(action);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns the Kth node in inOrder of the tree rooted at this node, or NULL if not present.
+	 * The nodes are walked under the read lock until the Kth one, see BinaryTree.getKthSmallestNode
+	 * @param k The Kth smallest element to be returned
+	 * @return The Kth smallest element
+	 */
+	@Override
+	public ConcurrentBinaryTree<V> getKthSmallestNode(int k) {
+		return this.getKthNode(k, true);
+	}
+
+	/**
+	 * Returns the Kth node in reverse inOrder of the tree rooted at this node, or NULL if not
+	 * present. The nodes are walked under the read lock until the Kth one, see
+	 * BinaryTree.getKthLargestNode
+	 * @param k The Kth largest element to be returned
+	 * @return The Kth largest element
+	 */
+	@Override
+	public ConcurrentBinaryTree<V> getKthLargestNode(int k) {
+		return this.getKthNode(k, false);
+	}
+
+	@Override
+	public LinkedList<BinaryTree<V>> getLeaves() {
+		long stamp = lock.readLock();
+		try {
+			LinkedList<BinaryTree<V>> list = new LinkedList<BinaryTree<V>>();
+			super.forEachLeaf(list::add);
+			return list;
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean isSymmetric() {
+		long stamp = lock.readLock();
+		try {
+			return super.isSymmetric();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public LevelStatistics getLevelStatistics() {
+		long stamp = lock.readLock();
+		try {
+			return super.getLevelStatistics();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Walks this tree depth first under the read lock, see BinaryTree.traverse(TreeVisitor).
+	 * The visitor must not modify the tree
+	 * @param visitor The visitor to be called for each node
+	 */
+	@Override
+	public void traverse(TreeVisitor<? super V> visitor) {
+		long stamp = lock.readLock();
+		try {
+			super.traverse(visitor);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Appends the multi-line version of the tree to the given Appendable under the read lock,
+	 * see BinaryTree.print(Appendable)
+	 * @param out The Appendable to which the tree is written
+	 * @throws IOException If the Appendable throws an IOException
+	 */
+	@Override
+	public void print(Appendable out) throws IOException {
+		long stamp = lock.readLock();
+		try {
+			super.print(out);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns an Iterator over the nodes of the tree rooted at this node in the given order.
+	 * The nodes are gathered under the read lock when this method is called, so the Iterator
+	 * returns the nodes of the tree as it was then, whatever the writers do meanwhile
+	 * @param order The order in which the nodes are to be returned
+	 * @return The Iterator over the nodes of this tree
+	 */
+	@Override
+	public Iterator<BinaryTree<V>> iterator(TraversalOrder order) {
+		return Collections.unmodifiableList(this.nodes(order)).iterator();
+	}
+
+	/**
+	 * Returns a Spliterator over the nodes of the tree rooted at this node in the given order.
+	 * The nodes are gathered under the read lock when this method is called, see iterator
+	 * @param order The order in which the nodes are to be returned
+	 * @return The Spliterator over the nodes of this tree
+	 */
+	@Override
+	public Spliterator<BinaryTree<V>> spliterator(TraversalOrder order) {
+		return Spliterators.spliterator(this.nodes(order), Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL);
+	}
+
+	@Override
+	public Stream<BinaryTree<V>> stream() {
+		return StreamSupport.stream(this.spliterator(TraversalOrder.PRE_ORDER), false);
+	}
+
+	@Override
+	public Stream<BinaryTree<V>> parallelStream() {
+		return StreamSupport.stream(this.spliterator(TraversalOrder.PRE_ORDER), true);
+	}
+
+	/**
+	 * Returns a Stream of the levels of the tree rooted at this node, see BinaryTree.levels.
+	 * All the levels are gathered under the read lock when this method is called, so that they
+	 * are the levels of the same tree
+	 * @return The Stream of the levels of this tree
+	 */
+	@Override
+	public Stream<List<BinaryTree<V>>> levels() {
+		long stamp = lock.readLock();
+		try {
+			List<List<BinaryTree<V>>> levels = new ArrayList<List<BinaryTree<V>>>();
+			List<BinaryTree<V>> level = Collections.<BinaryTree<V>>singletonList(this);
+			while(!level.isEmpty()) {
+				levels.add(level);
+				List<BinaryTree<V>> next = new ArrayList<BinaryTree<V>>();
+				for(BinaryTree<V> node : level) {
+					if(node.leftChild != null)
+						next.add(node.leftChild);
+					if(node.rightChild != null)
+						next.add(node.rightChild);
+				}
+				level = next;
+			}
+			return levels.stream();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns a Stream of the leaves of the tree rooted at this node from left to right. The
+	 * leaves are gathered under the read lock when this method is called, see getLeaves
+	 * @return The Stream of the leaves of this tree
+	 */
+	@Override
+	public Stream<BinaryTree<V>> leaves() {
+		return this.getLeaves().stream();
+	}
+
+	@Override
+	public ConcurrentBinaryTree<V> getRoot() {
+		long stamp = lock.readLock();
+		try {
+			return cast(super.getRoot());
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int getDepth() {
+		long stamp = lock.readLock();
+		try {
+			return super.getDepth();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public boolean isAncestorOf(BinaryTree<?> node) {
+		long stamp = lock.readLock();
+		try {
+			return super.isAncestorOf(node);
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns an Iterator over the ancestors of this node, from its parent up to the root. The
+	 * ancestors are gathered under the read lock when this method is called
+	 * @return The Iterator over the ancestors of this node
+	 */
+	@Override
+	public Iterator<BinaryTree<V>> ancestors() {
+		long stamp = lock.readLock();
+		try {
+			List<BinaryTree<V>> ancestors = new ArrayList<BinaryTree<V>>();
+			for(BinaryTree<V> node = this.parent; node != null; node = node.parent)
+				ancestors.add(node);
+			return Collections.unmodifiableList(ancestors).iterator();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	@Override
+	public int getNumberOfChildren() {
+		long stamp = lock.readLock();
+		try {
+			return super.getNumberOfChildren();
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Returns the description of this tree, in the same form as BinaryTree.toString. The
+	 * tree is walked under the read lock with an explicit stack
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		long stamp = lock.readLock();
+		try {
+			return TreeWalker.<BinaryTree<V>>toString(this, node -> node.leftChild, node -> node.rightChild,
+					(node, representation) -> representation.append(node.value));
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Helper method which reads a link of this node with an optimistic read
+	 * @param which LEFT, RIGHT or PARENT
+	 * @return The linked node
+	 */
+	private ConcurrentBinaryTree<V> readLink(int which) {
+		long stamp = lock.tryOptimisticRead();
+		BinaryTree<V> node = (which == LEFT) ? this.leftChild : (which == RIGHT) ? this.rightChild : this.parent;
+		if(!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				node = (which == LEFT) ? this.leftChild : (which == RIGHT) ? this.rightChild : this.parent;
+			}
+			finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return cast(node);
+	}
+
+	/**
+	 * Helper method which links a child under the write lock, unless it would make a cycle
+	 * @param child The child to be linked, or null
+	 * @param left <code>true</code> for the left child, <code>false</code> for the right one
+	 * @throws IllegalArgumentException If the child already has another parent
+	 */
+	private void writeLink(BinaryTree<V> child, boolean left) {
+		if(child != null && !(child instanceof ConcurrentBinaryTree && ((ConcurrentBinaryTree<V>) child).lock == lock))
+			throw new IllegalArgumentException("Nodes of a ConcurrentBinaryTree must be created by its newNode method");
+		long stamp = lock.writeLock();
+		try {
+			for(BinaryTree<V> node = this; node != null; node = node.parent)
+				if(node == child)
+					return;
+			checkNoParent(child, left ? this.leftChild : this.rightChild);
+			if(left)
+				this.linkLeftChild(child);
+			else
+				this.linkRightChild(child);
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Helper method which removes a child under the write lock
+	 * @param left <code>true</code> for the left child, <code>false</code> for the right one
+	 * @return The removed child
+	 * @throws NoSuchElementException If there is no such child
+	 */
+	private ConcurrentBinaryTree<V> unlink(boolean left) {
+		long stamp = lock.writeLock();
+		try {
+			BinaryTree<V> child = left ? this.leftChild : this.rightChild;
+			if(child == null)
+				throw new NoSuchElementException("There is no " + (left ? "left" : "right") + " child");
+			if(left)
+				this.linkLeftChild(null);
+			else
+				this.linkRightChild(null);
+			return cast(child);
+		}
+		finally {
+			lock.unlockWrite(stamp);
+		}
+	}
+
+	/**
+	 * Helper method which gathers the nodes of the tree rooted at this node under the read lock
+	 * @param order The order in which the nodes are gathered
+	 * @return The nodes of the tree
+	 */
+	private List<BinaryTree<V>> nodes(TraversalOrder order) {
+		long stamp = lock.readLock();
+		try {
+			List<BinaryTree<V>> nodes = new ArrayList<BinaryTree<V>>();
+			for(Iterator<BinaryTree<V>> iterator = new TreeIterator<V>(this, order); iterator.hasNext();)
+				nodes.add(iterator.next());
+			return nodes;
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Helper method which walks the tree under the read lock in inOrder or reverse inOrder
+	 * until the Kth node
+	 * @param k The rank of the node to be returned
+	 * @param smallest <code>true</code> for inOrder, <code>false</code> for reverse inOrder
+	 * @return The Kth node, or NULL if not present
+	 */
+	private ConcurrentBinaryTree<V> getKthNode(int k, boolean smallest) {
+		if(k < 1)
+			return null;
+		long stamp = lock.readLock();
+		try {
+			NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+			BinaryTree<V> node = this;
+			while(node != null || !stack.isEmpty()) {
+				while(node != null) {
+					stack.push(node);
+					node = smallest ? node.leftChild : node.rightChild;
+				}
+				node = stack.pop();
+				if(--k == 0)
+					return cast(node);
+				node = smallest ? node.rightChild : node.leftChild;
+			}
+			return null;
+		}
+		finally {
+			lock.unlockRead(stamp);
+		}
+	}
+
+	/**
+	 * Helper method which casts a BinaryTree node to a ConcurrentBinaryTree node
+	 * @param node The node to be cast
+	 * @return The node as a ConcurrentBinaryTree
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V> ConcurrentBinaryTree<V> cast(BinaryTree<V> node) {
+		return (ConcurrentBinaryTree<V>) node;
+	}
+}
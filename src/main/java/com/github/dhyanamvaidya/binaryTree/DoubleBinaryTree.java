@@ -0,0 +1,135 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.function.DoubleConsumer;
+import java.util.stream.DoubleStream;
+
+/**
+ * BinaryTree of double values. The value of every node is kept unboxed, so a node is a single
+ * object and the traversals pass the values to a DoubleConsumer without allocating anything
+ * per node. See PrimitiveBinaryTree for the handling of the children
+ */
+public class DoubleBinaryTree extends PrimitiveBinaryTree<DoubleBinaryTree> {
+
+	private static final TreeParser.NodeFactory<DoubleBinaryTree> NODES = nodeFactory("a double", value -> new DoubleBinaryTree(Double.parseDouble(value)));
+
+	private double value;
+
+	/**
+	 * Creates a node with the given value
+	 * @param value The value to put in this node
+	 */
+	public DoubleBinaryTree(double value) {
+		this.value = value;
+	}
+
+	/**
+	 * Creates a node and sets its left and right children with the given nodes
+	 * @param value The value to put in this node
+	 * @param leftChild The left child node, which must not have a parent
+	 * @param rightChild The right child node, which must not have a parent
+	 * @throws IllegalArgumentException If a child already has a parent, or if both children are the same node
+	 */
+	public DoubleBinaryTree(double value, DoubleBinaryTree leftChild, DoubleBinaryTree rightChild) {
+		this(value);
+		this.setLeftChild(leftChild);
+		this.setRightChild(rightChild);
+	}
+
+	@Override
+	DoubleBinaryTree self() {
+		return this;
+	}
+
+	@Override
+	void appendValue(StringBuilder builder) {
+		builder.append(value);
+	}
+
+	/**
+	 * Gets the value of this node
+	 * @return The value
+	 */
+	public double getValue() {
+		return value;
+	}
+
+	/**
+	 * Sets the value of this node
+	 * @param value The value to be set
+	 */
+	public void setValue(double value) {
+		this.value = value;
+	}
+
+	/**
+	 * Passes the values of the tree rooted at this node to the action in inOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void inOrderTraversal(DoubleConsumer action) {
+		this.walk(TraversalOrder.IN_ORDER, node -> action.accept(node.value));
+	}
+
+	/**
+	 * Passes the values of the tree rooted at this node to the action in preOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void preOrderTraversal(DoubleConsumer action) {
+		this.walk(TraversalOrder.PRE_ORDER, node -> action.accept(node.value));
+	}
+
+	/**
+	 * Passes the values of the tree rooted at this node to the action in postOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void postOrderTraversal(DoubleConsumer action) {
+		this.walk(TraversalOrder.POST_ORDER, node -> action.accept(node.value));
+	}
+
+	/**
+	 * Builds a perfectly balanced tree whose inOrder traversal returns the given values in their
+	 * order, in O(n), see BinaryTree.fromSorted(Object[])
+	 * @param values The values, in inOrder
+	 * @return The root of the tree, or NULL if there are no values
+	 */
+	public static DoubleBinaryTree fromSorted(double... values) {
+		return linkBalanced(new DoubleBinaryTree[values.length], i -> new DoubleBinaryTree(values[i]));
+	}
+
+	/**
+	 * Builds a perfectly balanced tree whose inOrder traversal returns the values of the given
+	 * DoubleStream in their order, in O(n), see fromSorted(double...)
+	 * @param values The values, in inOrder
+	 * @return The root of the tree, or NULL if there are no values
+	 */
+	public static DoubleBinaryTree fromSorted(DoubleStream values) {
+		return fromSorted(values.toArray());
+	}
+
+	/**
+	 * Translates a description of a tree, in the form accepted by BinaryTree.parse, into
+	 * a DoubleBinaryTree. Every value must be a double as accepted by Double.parseDouble
+	 * @param treeDescription The description to be parsed
+	 * @return The resultant DoubleBinaryTree
+	 * @throws TreeParseException If the description is not well formed or a value is not a double
+	 */
+	public static DoubleBinaryTree parse(CharSequence treeDescription) {
+		return parse(treeDescription, NODES);
+	}
+
+	/**
+	 * Translates the description of a tree read from the given Reader into a DoubleBinaryTree,
+	 * see parse(CharSequence)
+	 * @param treeDescription The Reader of the description to be parsed
+	 * @return The resultant DoubleBinaryTree
+	 * @throws IOException If the Reader can not be read
+	 * @throws TreeParseException If the description is not well formed or a value is not a double
+	 */
+	public static DoubleBinaryTree parse(Reader treeDescription) throws IOException {
+		return parse(treeDescription, NODES);
+	}
+}
@@ -0,0 +1,78 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+/**
+ * The NodeQueue of the trees whose nodes are int indices, see IndexedBinaryTree.
+ * Along with every index it keeps an int mark, and no index is ever boxed
+ */
+final class IndexQueue {
+
+	private int[] elements;
+	private int[] marks;
+	private int head;
+	private int size;
+
+	/**
+	 * Creates an empty queue
+	 */
+	IndexQueue() {
+		this.elements = new int[16];
+		this.marks = new int[16];
+		this.head = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Returns <code>true</code> if the queue has no elements
+	 * @return <code>true</code> if the queue is empty
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Adds the element with the given mark at the tail of the queue
+	 * @param element The element to be added
+	 * @param mark The mark of the element
+	 */
+	void add(int element, int mark) {
+		if(size == elements.length) {
+			/* Unwrap the ring so that the head is at index 0 of the grown arrays */
+			int[] grownElements = new int[size << 1];
+			int[] grownMarks = new int[size << 1];
+			int firstPart = elements.length - head;
+			System.arraycopy(elements, head, grownElements, 0, firstPart);
+			System.arraycopy(elements, 0, grownElements, firstPart, head);
+			System.arraycopy(marks, head, grownMarks, 0, firstPart);
+			System.arraycopy(marks, 0, grownMarks, firstPart, head);
+			elements = grownElements;
+			marks = grownMarks;
+			head = 0;
+		}
+		int tail = (head + size) & (elements.length - 1);
+		elements[tail] = element;
+		marks[tail] = mark;
+		size++;
+	}
+
+	/**
+	 * Returns the mark of the element at the head of the queue
+	 * @return The mark of the head element
+	 */
+	int peekMark() {
+		return marks[head];
+	}
+
+	/**
+	 * Removes and returns the element at the head of the queue
+	 * @return The head element
+	 */
+	int remove() {
+		int element = elements[head];
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return element;
+	}
+}
@@ -0,0 +1,81 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Arrays;
+
+/**
+ * The NodeStack of the trees whose nodes are int indices, see IndexedBinaryTree.
+ * Along with every index it keeps an int mark, and no index is ever boxed
+ */
+final class IndexStack {
+
+	private int[] elements;
+	private int[] marks;
+	private int size;
+
+	/**
+	 * Creates an empty stack
+	 */
+	IndexStack() {
+		this.elements = new int[16];
+		this.marks = new int[16];
+		this.size = 0;
+	}
+
+	/**
+	 * Returns <code>true</code> if the stack has no elements
+	 * @return <code>true</code> if the stack is empty
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Pushes the element with the given mark
+	 * @param element The element to be pushed
+	 * @param mark The mark of the element
+	 */
+	void push(int element, int mark) {
+		if(size == elements.length) {
+			elements = Arrays.copyOf(elements, size << 1);
+			marks = Arrays.copyOf(marks, size << 1);
+		}
+		elements[size] = element;
+		marks[size] = mark;
+		size++;
+	}
+
+	/**
+	 * Returns the element at the top of the stack without removing it
+	 * @return The top element
+	 */
+	int peek() {
+		return elements[size-1];
+	}
+
+	/**
+	 * Returns the mark of the element at the top of the stack
+	 * @return The mark of the top element
+	 */
+	int peekMark() {
+		return marks[size-1];
+	}
+
+	/**
+	 * Changes the mark of the element at the top of the stack
+	 * @param mark The new mark
+	 */
+	void setMark(int mark) {
+		marks[size-1] = mark;
+	}
+
+	/**
+	 * Removes and returns the element at the top of the stack
+	 * @return The top element
+	 */
+	int pop() {
+		return elements[--size];
+	}
+}
@@ -0,0 +1,245 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * A BinaryTree whose nodes are not objects but int indices into some storage, such as the
+ * arrays of an ArrayBinaryTree. A node is referred to by its index, its handle, and a missing
+ * child by NIL. The root is always the node 0 and the nodes are numbered from 0 to size()-1.
+ * This class walks the tree through getLeftChild and getRightChild only, with an explicit
+ * stack of ints, so that no walk allocates anything per node and trees of any depth are supported
+ */
+public abstract class IndexedBinaryTree {
+
+	/** The handle of a missing node */
+	public static final int NIL = -1;
+
+	/**
+	 * Only the storages of this package extend this class
+	 */
+	IndexedBinaryTree() {
+	}
+
+	/**
+	 * Returns the number of nodes in the tree
+	 * @return The number of nodes
+	 */
+	public abstract int size();
+
+	/**
+	 * Returns the left child of the given node
+	 * @param node The handle of the node
+	 * @return The handle of the left child, or NIL
+	 * @throws IndexOutOfBoundsException If there is no such node
+	 */
+	public abstract int getLeftChild(int node);
+
+	/**
+	 * Returns the right child of the given node
+	 * @param node The handle of the node
+	 * @return The handle of the right child, or NIL
+	 * @throws IndexOutOfBoundsException If there is no such node
+	 */
+	public abstract int getRightChild(int node);
+
+	/**
+	 * Returns the handle of the root, which is always 0
+	 * @return The root of the tree
+	 */
+	public int getRoot() {
+		return 0;
+	}
+
+	/**
+	 * Returns <code>true</code> if the given node has no children
+	 * @param node The handle of the node
+	 * @return <code>true</code> if the node is a leaf
+	 */
+	public boolean isLeaf(int node) {
+		return this.getLeftChild(node) == NIL && this.getRightChild(node) == NIL;
+	}
+
+	/**
+	 * Returns the number of nodes including the root in the subtree rooted at the given node
+	 * @param node The handle of the node
+	 * @return The number of total nodes in the subtree
+	 */
+	public int size(int node) {
+		this.checkNode(node);
+		int size = 0;
+		IndexStack stack = new IndexStack();
+		stack.push(node, 0);
+		while(!stack.isEmpty()) {
+			int current = stack.pop();
+			size++;
+			int child = this.getRightChild(current);
+			if(child != NIL)
+				stack.push(child, 0);
+			child = this.getLeftChild(current);
+			if(child != NIL)
+				stack.push(child, 0);
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the height of the tree, see BinaryTree.getHeight
+	 * @return The height of the tree
+	 */
+	public int getHeight() {
+		return this.getHeight(this.getRoot());
+	}
+
+	/**
+	 * Returns the height of the subtree rooted at the given node, see BinaryTree.getHeight
+	 * @param node The handle of the node
+	 * @return The height of the subtree
+	 */
+	public int getHeight(int node) {
+		this.checkNode(node);
+		/* The depth of every node is kept as its mark on the stack */
+		int height = 0;
+		IndexStack stack = new IndexStack();
+		stack.push(node, 0);
+		while(!stack.isEmpty()) {
+			int depth = stack.peekMark();
+			int current = stack.pop();
+			if(depth > height)
+				height = depth;
+			int child = this.getRightChild(current);
+			if(child != NIL)
+				stack.push(child, depth+1);
+			child = this.getLeftChild(current);
+			if(child != NIL)
+				stack.push(child, depth+1);
+		}
+		return height;
+	}
+
+	/**
+	 * Returns the handles of the leaves of the tree, in preOrder
+	 * @return The leaves of the tree
+	 */
+	public int[] getLeaves() {
+		return this.getLeaves(this.getRoot());
+	}
+
+	/**
+	 * Returns the handles of the leaves of the subtree rooted at the given node, in preOrder
+	 * @param node The handle of the node
+	 * @return The leaves of the subtree
+	 */
+	public int[] getLeaves(int node) {
+		final int[][] leaves = {new int[16]};
+		final int[] count = {0};
+		this.forEachNode(node, TraversalOrder.PRE_ORDER, current -> {
+			if(this.isLeaf(current)) {
+				if(count[0] == leaves[0].length)
+					leaves[0] = Arrays.copyOf(leaves[0], count[0] << 1);
+				leaves[0][count[0]++] = current;
+			}
+		});
+		return Arrays.copyOf(leaves[0], count[0]);
+	}
+
+	/**
+	 * Returns the width and the number of leaves of every level of the tree, gathered in a
+	 * single levelOrder walk, see LevelStatistics
+	 * @return The statistics of the levels of the tree
+	 */
+	public LevelStatistics getLevelStatistics() {
+		LevelStatistics statistics = new LevelStatistics();
+		/* The depth of every node is kept as its mark in the queue */
+		IndexQueue queue = new IndexQueue();
+		queue.add(this.getRoot(), 0);
+		while(!queue.isEmpty()) {
+			int depth = queue.peekMark();
+			int node = queue.remove();
+			int left = this.getLeftChild(node);
+			int right = this.getRightChild(node);
+			statistics.add(depth, left == NIL && right == NIL);
+			if(left != NIL)
+				queue.add(left, depth+1);
+			if(right != NIL)
+				queue.add(right, depth+1);
+		}
+		return statistics;
+	}
+
+	/**
+	 * Passes the handles of the nodes of the tree to the action in the given order
+	 * @param order The order in which the nodes are visited
+	 * @param action The action to be performed on each node
+	 */
+	public void forEachNode(TraversalOrder order, IntConsumer action) {
+		this.forEachNode(this.getRoot(), order, action);
+	}
+
+	/**
+	 * Passes the handles of the nodes of the subtree rooted at the given node to the action
+	 * in the given order
+	 * @param node The handle of the root of the subtree
+	 * @param order The order in which the nodes are visited
+	 * @param action The action to be performed on each node
+	 */
+	public void forEachNode(int node, TraversalOrder order, IntConsumer action) {
+		this.checkNode(node);
+		if(order == TraversalOrder.LEVEL_ORDER) {
+			IndexQueue queue = new IndexQueue();
+			queue.add(node, 0);
+			while(!queue.isEmpty()) {
+				int current = queue.remove();
+				action.accept(current);
+				int child = this.getLeftChild(current);
+				if(child != NIL)
+					queue.add(child, 0);
+				child = this.getRightChild(current);
+				if(child != NIL)
+					queue.add(child, 0);
+			}
+			return;
+		}
+		/* The mark of a node tells which of its children have been pushed already */
+		IndexStack stack = new IndexStack();
+		stack.push(node, 0);
+		while(!stack.isEmpty()) {
+			int current = stack.peek();
+			int mark = stack.peekMark();
+			if(mark == 0) {
+				if(order == TraversalOrder.PRE_ORDER)
+					action.accept(current);
+				stack.setMark(1);
+				int child = this.getLeftChild(current);
+				if(child != NIL)
+					stack.push(child, 0);
+			}
+			else if(mark == 1) {
+				if(order == TraversalOrder.IN_ORDER)
+					action.accept(current);
+				stack.setMark(2);
+				int child = this.getRightChild(current);
+				if(child != NIL)
+					stack.push(child, 0);
+			}
+			else {
+				stack.pop();
+				if(order == TraversalOrder.POST_ORDER)
+					action.accept(current);
+			}
+		}
+	}
+
+	/**
+	 * Helper method which checks that the given handle is a node of this tree
+	 * @param node The handle of the node
+	 * @throws IndexOutOfBoundsException If there is no such node
+	 */
+	protected void checkNode(int node) {
+		if(node < 0 || node >= this.size())
+			throw new IndexOutOfBoundsException("No node " + node + " in a tree of " + this.size() + " nodes");
+	}
+}
@@ -0,0 +1,136 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Arrays;
+
+/**
+ * The shape of a tree level by level, gathered in a single breadth first walk: the number of
+ * nodes at every depth (the width of the level) and the number of leaves at every depth.
+ * The size, the number of leaves and the height of the tree follow from them, so one walk
+ * replaces the separate walks of size(), getLeaves() and getHeight()
+ */
+public final class LevelStatistics {
+
+	private int[] widths;
+	private int[] leaves;
+	private int levels;
+	private int size;
+	private int leafCount;
+
+	/**
+	 * Creates empty statistics, filled by the walks of this package through add
+	 */
+	LevelStatistics() {
+		this.widths = new int[16];
+		this.leaves = new int[16];
+	}
+
+	/**
+	 * Counts a node
+	 * @param depth The depth of the node
+	 * @param leaf <code>true</code> if the node is a leaf
+	 */
+	void add(int depth, boolean leaf) {
+		if(depth == widths.length) {
+			widths = Arrays.copyOf(widths, depth << 1);
+			leaves = Arrays.copyOf(leaves, depth << 1);
+		}
+		if(depth >= levels)
+			levels = depth + 1;
+		widths[depth]++;
+		size++;
+		if(leaf) {
+			leaves[depth]++;
+			leafCount++;
+		}
+	}
+
+	/**
+	 * Returns the number of nodes of the tree
+	 * @return The size of the tree
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the number of leaves of the tree
+	 * @return The number of leaves
+	 */
+	public int getLeafCount() {
+		return leafCount;
+	}
+
+	/**
+	 * Returns the number of levels of the tree, which is its height plus 1
+	 * @return The number of levels
+	 */
+	public int getLevelCount() {
+		return levels;
+	}
+
+	/**
+	 * Returns the height of the tree, see BinaryTree.getHeight
+	 * @return The height of the tree
+	 */
+	public int getHeight() {
+		return levels - 1;
+	}
+
+	/**
+	 * Returns the number of nodes at the given depth
+	 * @param depth The depth of the level, 0 for the root
+	 * @return The width of the level, 0 below the deepest level
+	 */
+	public int getWidth(int depth) {
+		return (depth < 0 || depth >= levels) ? 0 : widths[depth];
+	}
+
+	/**
+	 * Returns the number of leaves at the given depth
+	 * @param depth The depth of the level, 0 for the root
+	 * @return The number of leaves of the level, 0 below the deepest level
+	 */
+	public int getLeafCount(int depth) {
+		return (depth < 0 || depth >= levels) ? 0 : leaves[depth];
+	}
+
+	/**
+	 * Returns the width of the widest level
+	 * @return The largest number of nodes at the same depth
+	 */
+	public int getMaxWidth() {
+		int max = 0;
+		for(int depth = 0; depth < levels; depth++)
+			if(widths[depth] > max)
+				max = widths[depth];
+		return max;
+	}
+
+	/**
+	 * Returns the histogram of the depths of the nodes, the width of every level
+	 * @return The number of nodes at every depth, indexed by depth
+	 */
+	public int[] getWidths() {
+		return Arrays.copyOf(widths, levels);
+	}
+
+	/**
+	 * Returns the histogram of the depths of the leaves
+	 * @return The number of leaves at every depth, indexed by depth
+	 */
+	public int[] getLeafCounts() {
+		return Arrays.copyOf(leaves, levels);
+	}
+
+	/**
+	 * Returns the widths and the leaf counts of the levels, e.g. "widths=[1, 2, 2] leaves=[0, 1, 2]"
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return "widths=" + Arrays.toString(this.getWidths()) + " leaves=" + Arrays.toString(this.getLeafCounts());
+	}
+}
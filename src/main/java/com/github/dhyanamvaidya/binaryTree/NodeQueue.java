@@ -0,0 +1,103 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Arrays;
+
+/**
+ * Array backed queue used by the level order walks, the breadth first counterpart of NodeStack.
+ * It is a ring buffer which doubles when full, and along with every element it keeps an int
+ * mark, which the walks use to remember the depth of a node. Unlike a LinkedList it allocates
+ * nothing per element once it is big enough
+ *
+ * @param <T> The type of elements held in the queue
+ */
+final class NodeQueue<T> {
+
+	private Object[] elements;
+	private int[] marks;
+	private int head;
+	private int size;
+
+	/**
+	 * Creates an empty queue
+	 */
+	NodeQueue() {
+		this.elements = new Object[16];
+		this.marks = new int[16];
+		this.head = 0;
+		this.size = 0;
+	}
+
+	/**
+	 * Returns <code>true</code> if the queue has no elements
+	 * @return <code>true</code> if the queue is empty
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of elements in the queue
+	 * @return The number of elements
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Adds the element with the given mark at the tail of the queue
+	 * @param element The element to be added
+	 * @param mark The mark of the element
+	 */
+	void add(T element, int mark) {
+		if(size == elements.length) {
+			/* Unwrap the ring so that the head is at index 0 of the grown arrays */
+			Object[] grownElements = new Object[size << 1];
+			int[] grownMarks = new int[size << 1];
+			int firstPart = elements.length - head;
+			System.arraycopy(elements, head, grownElements, 0, firstPart);
+			System.arraycopy(elements, 0, grownElements, firstPart, head);
+			System.arraycopy(marks, head, grownMarks, 0, firstPart);
+			System.arraycopy(marks, 0, grownMarks, firstPart, head);
+			elements = grownElements;
+			marks = grownMarks;
+			head = 0;
+		}
+		int tail = (head + size) & (elements.length - 1);
+		elements[tail] = element;
+		marks[tail] = mark;
+		size++;
+	}
+
+	/**
+	 * Returns the mark of the element at the head of the queue
+	 * @return The mark of the head element
+	 */
+	int peekMark() {
+		return marks[head];
+	}
+
+	/**
+	 * Removes and returns the element at the head of the queue
+	 * @return The head element
+	 */
+	@SuppressWarnings("unchecked")
+	T remove() {
+		T element = (T) elements[head];
+		elements[head] = null;
+		head = (head + 1) & (elements.length - 1);
+		size--;
+		return element;
+	}
+
+	/**
+	 * Removes all the elements, keeping the arrays for reuse
+	 */
+	void clear() {
+		Arrays.fill(elements, null);
+		head = 0;
+		size = 0;
+	}
+}
@@ -0,0 +1,131 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Arrays;
+
+/**
+ * Array backed stack used by the iterative algorithms of BinaryTree in place of the call stack.
+ * Along with every element it keeps an int mark, which the algorithms use to remember
+ * the state of a node (how far its visit has progressed, its depth etc.).
+ * The arrays only grow, so a stack which is reused allocates nothing once it is big enough
+ *
+ * @param <T> The type of elements held in the stack
+ */
+final class NodeStack<T> {
+
+	private Object[] elements;
+	private int[] marks;
+	private int size;
+
+	/**
+	 * Creates an empty stack
+	 */
+	NodeStack() {
+		this.elements = new Object[16];
+		this.marks = new int[16];
+		this.size = 0;
+	}
+
+	/**
+	 * Returns <code>true</code> if the stack has no elements
+	 * @return <code>true</code> if the stack is empty
+	 */
+	boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Returns the number of elements in the stack
+	 * @return The number of elements
+	 */
+	int size() {
+		return size;
+	}
+
+	/**
+	 * Pushes the element with the mark 0
+	 * @param element The element to be pushed
+	 */
+	void push(T element) {
+		this.push(element, 0);
+	}
+
+	/**
+	 * Pushes the element with the given mark
+	 * @param element The element to be pushed
+	 * @param mark The mark of the element
+	 */
+	void push(T element, int mark) {
+		if(size == elements.length) {
+			elements = Arrays.copyOf(elements, size << 1);
+			marks = Arrays.copyOf(marks, size << 1);
+		}
+		elements[size] = element;
+		marks[size] = mark;
+		size++;
+	}
+
+	/**
+	 * Returns the element at the top of the stack without removing it
+	 * @return The top element
+	 */
+	@SuppressWarnings("unchecked")
+	T peek() {
+		return (T) elements[size-1];
+	}
+
+	/**
+	 * Returns the mark of the element at the top of the stack
+	 * @return The mark of the top element
+	 */
+	int peekMark() {
+		return marks[size-1];
+	}
+
+	/**
+	 * Changes the mark of the element at the top of the stack
+	 * @param mark The new mark
+	 */
+	void setMark(int mark) {
+		marks[size-1] = mark;
+	}
+
+	/**
+	 * Removes and returns the element at the top of the stack
+	 * @return The top element
+	 */
+	@SuppressWarnings("unchecked")
+	T pop() {
+		size--;
+		T element = (T) elements[size];
+		elements[size] = null;
+		return element;
+	}
+
+	/**
+	 * Moves the given number of elements from the top of this stack, along with their marks,
+	 * to the top of the other stack. The elements keep their relative order
+	 * @param other The stack to which the elements are moved
+	 * @param count The number of elements to be moved
+	 */
+	void moveTopTo(NodeStack<T> other, int count) {
+		int from = size - count;
+		for(int i = from; i < size; i++) {
+			@SuppressWarnings("unchecked")
+			T element = (T) elements[i];
+			other.push(element, marks[i]);
+		}
+		Arrays.fill(elements, from, size, null);
+		size = from;
+	}
+
+	/**
+	 * Removes all the elements, keeping the arrays for reuse
+	 */
+	void clear() {
+		Arrays.fill(elements, 0, size, null);
+		size = 0;
+	}
+}
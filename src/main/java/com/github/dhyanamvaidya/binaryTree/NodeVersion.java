@@ -0,0 +1,37 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+/**
+ * The state of a BinaryTree node saved before it was modified while snapshots were outstanding,
+ * see TreeSnapshot. The saved states of a node are chained from the newest to the oldest; a
+ * state is seen by the snapshots whose versions are greater than the version of the next
+ * (older) state and not greater than its own version
+ *
+ * @param <V> The type of values held in the Tree
+ */
+final class NodeVersion<V> {
+
+	final long version;
+	final V value;
+	final BinaryTree<V> leftChild;
+	final BinaryTree<V> rightChild;
+	final NodeVersion<V> next;
+
+	/**
+	 * Saves the given state of a node
+	 * @param version The version of the newest snapshot which sees this state
+	 * @param value The value of the node
+	 * @param leftChild The left child of the node
+	 * @param rightChild The right child of the node
+	 * @param next The older saved state of the node, or null
+	 */
+	NodeVersion(long version, V value, BinaryTree<V> leftChild, BinaryTree<V> rightChild, NodeVersion<V> next) {
+		this.version = version;
+		this.value = value;
+		this.leftChild = leftChild;
+		this.rightChild = rightChild;
+		this.next = next;
+	}
+}
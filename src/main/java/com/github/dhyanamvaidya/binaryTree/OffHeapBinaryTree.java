@@ -0,0 +1,384 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * A BinaryTree of long values kept outside of the Java heap, so that trees of up to
+ * Integer.MAX_VALUE nodes add nothing to the work of the garbage collector. Every node is a
+ * fixed-width record of 16 bytes: its value followed by the handles of its left and right
+ * children, see IndexedBinaryTree. The value may as well be the offset of a bigger value
+ * kept elsewhere.
+ *
+ * The records are either held by direct ByteBuffers, see allocate, or mapped from a file,
+ * see create and open. A file starts with a header of 16 bytes (magic, version, number of
+ * nodes) followed by the records in the order of their handles, little-endian. Every change
+ * is written to the mapped file directly, so a tree created in a file is reopened by open
+ * without reading anything but its header. A ByteBuffer can not exceed 2GB, so the records
+ * are held in segments of at most 2^26 records; the segment of the last records grows as
+ * nodes are added. Like ArrayBinaryTree, the tree grows by adding leaves and nodes can not
+ * be removed. The memory of the direct buffers and of the mappings is released once the tree
+ * is garbage collected
+ */
+public class OffHeapBinaryTree extends IndexedBinaryTree implements Closeable {
+
+	private static final int MAGIC = 0x4254524F;
+	private static final int VERSION = 1;
+	private static final int HEADER_SIZE = 16;
+	private static final int SIZE_OFFSET = 8;
+
+	private static final int RECORD_SIZE = 16;
+	private static final int VALUE = 0;
+	private static final int LEFT = 8;
+	private static final int RIGHT = 12;
+
+	/** The log2 of the largest number of records in a segment, a segment of 1GB */
+	static final int SEGMENT_SHIFT = 26;
+	private static final int MIN_SEGMENT_RECORDS = 64;
+
+	private final int segmentShift;
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private ByteBuffer[] segments;
+	private int size;
+	private boolean closed;
+
+	/**
+	 * Creates a tree over the given storage
+	 * @param segmentShift The log2 of the largest number of records in a segment
+	 * @param channel The channel of the file of the tree, or null for direct buffers
+	 * @param header The mapped header of the file, or null for direct buffers
+	 */
+	private OffHeapBinaryTree(int segmentShift, FileChannel channel, MappedByteBuffer header) {
+		this.segmentShift = segmentShift;
+		this.channel = channel;
+		this.header = header;
+		this.segments = new ByteBuffer[0];
+		this.size = 0;
+		this.closed = false;
+	}
+
+	/**
+	 * Creates a tree with a single root node holding the given value, in direct ByteBuffers
+	 * @param rootValue The value of the root
+	 * @return The new tree
+	 */
+	public static OffHeapBinaryTree allocate(long rootValue) {
+		return allocate(rootValue, SEGMENT_SHIFT);
+	}
+
+	/**
+	 * Creates a tree in direct ByteBuffers with the given size of segments
+	 * @param rootValue The value of the root
+	 * @param segmentShift The log2 of the largest number of records in a segment
+	 * @return The new tree
+	 */
+	static OffHeapBinaryTree allocate(long rootValue, int segmentShift) {
+		OffHeapBinaryTree tree = new OffHeapBinaryTree(segmentShift, null, null);
+		tree.addNode(rootValue);
+		return tree;
+	}
+
+	/**
+	 * Creates a tree with a single root node holding the given value in the given file,
+	 * replacing its content
+	 * @param file The file of the tree
+	 * @param rootValue The value of the root
+	 * @return The new tree, to be closed once done with
+	 * @throws IOException If the file can not be created or mapped
+	 */
+	public static OffHeapBinaryTree create(Path file, long rootValue) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+				StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			MappedByteBuffer header = map(channel, 0, HEADER_SIZE);
+			header.putInt(0, MAGIC);
+			header.putInt(4, VERSION);
+			header.putInt(SIZE_OFFSET, 0);
+			OffHeapBinaryTree tree = new OffHeapBinaryTree(SEGMENT_SHIFT, channel, header);
+			tree.addNode(rootValue);
+			return tree;
+		}
+		catch(IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Opens a tree created by create(Path, long). Only the header is read, the records are
+	 * mapped and read when the nodes are accessed
+	 * @param file The file of the tree
+	 * @return The tree, to be closed once done with
+	 * @throws IOException If the file can not be mapped or does not hold a tree
+	 */
+	public static OffHeapBinaryTree open(Path file) throws IOException {
+		FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			long length = channel.size();
+			if(length < HEADER_SIZE)
+				throw new IOException("Not an OffHeapBinaryTree file");
+			MappedByteBuffer header = map(channel, 0, HEADER_SIZE);
+			if(header.getInt(0) != MAGIC)
+				throw new IOException("Not an OffHeapBinaryTree file");
+			int version = header.getInt(4);
+			if(version != VERSION)
+				throw new IOException("Unsupported OffHeapBinaryTree file version " + version);
+			int size = header.getInt(SIZE_OFFSET);
+			if(size < 1 || HEADER_SIZE + (long) size * RECORD_SIZE > length)
+				throw new IOException("Truncated OffHeapBinaryTree file");
+			OffHeapBinaryTree tree = new OffHeapBinaryTree(SEGMENT_SHIFT, channel, header);
+			int segmentCount = ((size - 1) >>> SEGMENT_SHIFT) + 1;
+			tree.segments = new ByteBuffer[segmentCount];
+			for(int i = 0; i < segmentCount; i++) {
+				long start = HEADER_SIZE + ((long) i << SEGMENT_SHIFT) * RECORD_SIZE;
+				long records = Math.min((length - start) / RECORD_SIZE, 1L << SEGMENT_SHIFT);
+				tree.segments[i] = map(channel, start, records * RECORD_SIZE);
+			}
+			tree.size = size;
+			return tree;
+		}
+		catch(IOException | RuntimeException e) {
+			channel.close();
+			throw e;
+		}
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public int getLeftChild(int node) {
+		this.checkNode(node);
+		return this.segment(node).getInt(this.offset(node) + LEFT);
+	}
+
+	@Override
+	public int getRightChild(int node) {
+		this.checkNode(node);
+		return this.segment(node).getInt(this.offset(node) + RIGHT);
+	}
+
+	/**
+	 * Gets the value of the given node
+	 * @param node The handle of the node
+	 * @return The value
+	 */
+	public long getValue(int node) {
+		this.checkNode(node);
+		return this.segment(node).getLong(this.offset(node) + VALUE);
+	}
+
+	/**
+	 * Sets the value of the given node
+	 * @param node The handle of the node
+	 * @param value The value to be set
+	 */
+	public void setValue(int node, long value) {
+		this.checkNode(node);
+		this.segment(node).putLong(this.offset(node) + VALUE, value);
+	}
+
+	/**
+	 * Adds a new leaf holding the given value as the left child of the given node
+	 * @param node The handle of the parent node
+	 * @param value The value of the new node
+	 * @return The handle of the new node
+	 * @throws IllegalArgumentException If the node already has a left child
+	 * @throws UncheckedIOException If the file of the tree can not be extended
+	 */
+	public int addLeftChild(int node, long value) {
+		if(this.getLeftChild(node) != NIL)
+			throw new IllegalArgumentException("Node " + node + " already has a left child");
+		int child = this.addNode(value);
+		this.segment(node).putInt(this.offset(node) + LEFT, child);
+		return child;
+	}
+
+	/**
+	 * Adds a new leaf holding the given value as the right child of the given node
+	 * @param node The handle of the parent node
+	 * @param value The value of the new node
+	 * @return The handle of the new node
+	 * @throws IllegalArgumentException If the node already has a right child
+	 * @throws UncheckedIOException If the file of the tree can not be extended
+	 */
+	public int addRightChild(int node, long value) {
+		if(this.getRightChild(node) != NIL)
+			throw new IllegalArgumentException("Node " + node + " already has a right child");
+		int child = this.addNode(value);
+		this.segment(node).putInt(this.offset(node) + RIGHT, child);
+		return child;
+	}
+
+	/**
+	 * Passes the values of the tree to the action in inOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void inOrderTraversal(LongConsumer action) {
+		this.forEachNode(TraversalOrder.IN_ORDER, node -> action.accept(this.getValue(node)));
+	}
+
+	/**
+	 * Passes the values of the tree to the action in preOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void preOrderTraversal(LongConsumer action) {
+		this.forEachNode(TraversalOrder.PRE_ORDER, node -> action.accept(this.getValue(node)));
+	}
+
+	/**
+	 * Passes the values of the tree to the action in postOrder
+	 * @param action The action to be performed on each value
+	 */
+	public void postOrderTraversal(LongConsumer action) {
+		this.forEachNode(TraversalOrder.POST_ORDER, node -> action.accept(this.getValue(node)));
+	}
+
+	/**
+	 * Writes the changes made to a tree kept in a file to the storage device holding it.
+	 * Does nothing for a tree kept in direct buffers
+	 */
+	public void force() {
+		if(channel == null || closed)
+			return;
+		for(ByteBuffer segment : segments)
+			((MappedByteBuffer) segment).force();
+		header.force();
+	}
+
+	/**
+	 * Forces the changes of a tree kept in a file and closes the file. The nodes can not be
+	 * accessed anymore
+	 * @throws IOException If the file can not be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		if(closed)
+			return;
+		this.force();
+		closed = true;
+		segments = null;
+		if(channel != null)
+			channel.close();
+	}
+
+	/**
+	 * Checks that the tree is open and that the given handle is one of its nodes
+	 * @param node The handle of the node
+	 * @throws IllegalStateException If the tree has been closed
+	 * @throws IndexOutOfBoundsException If there is no such node
+	 */
+	@Override
+	protected void checkNode(int node) {
+		if(closed)
+			throw new IllegalStateException("The OffHeapBinaryTree has been closed");
+		super.checkNode(node);
+	}
+
+	/**
+	 * Helper method which appends a record without children, growing its segment if needed
+	 * @param value The value of the node
+	 * @return The handle of the node
+	 */
+	private int addNode(long value) {
+		if(closed)
+			throw new IllegalStateException("The OffHeapBinaryTree has been closed");
+		if(size == Integer.MAX_VALUE)
+			throw new IllegalStateException("An OffHeapBinaryTree can not hold more than " + size + " nodes");
+		int node = size;
+		this.ensureCapacity(node);
+		ByteBuffer segment = this.segment(node);
+		int offset = this.offset(node);
+		segment.putLong(offset + VALUE, value);
+		segment.putInt(offset + LEFT, NIL);
+		segment.putInt(offset + RIGHT, NIL);
+		size++;
+		if(header != null)
+			header.putInt(SIZE_OFFSET, size);
+		return node;
+	}
+
+	/**
+	 * Helper method which makes sure that the segment of the given node has room for its record,
+	 * doubling the segment if needed. A mapped segment is mapped again with the bigger size,
+	 * which extends the file
+	 * @param node The handle of the node
+	 */
+	private void ensureCapacity(int node) {
+		int index = node >>> segmentShift;
+		if(index == segments.length)
+			segments = Arrays.copyOf(segments, index + 1);
+		ByteBuffer segment = segments[index];
+		int records = (node & ((1 << segmentShift) - 1)) + 1;
+		if(segment != null && segment.capacity() >= records * RECORD_SIZE)
+			return;
+		int capacity = (segment == null) ? MIN_SEGMENT_RECORDS : (segment.capacity() / RECORD_SIZE) << 1;
+		capacity = Math.min(Math.max(capacity, records), 1 << segmentShift);
+		if(channel == null) {
+			ByteBuffer grown = ByteBuffer.allocateDirect(capacity * RECORD_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			if(segment != null) {
+				ByteBuffer old = segment.duplicate();
+				old.clear();
+				grown.put(old);
+				grown.clear();
+			}
+			segments[index] = grown;
+		}
+		else {
+			long start = HEADER_SIZE + ((long) index << segmentShift) * RECORD_SIZE;
+			try {
+				segments[index] = map(channel, start, (long) capacity * RECORD_SIZE);
+			}
+			catch(IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		}
+	}
+
+	/**
+	 * Helper method which returns the segment holding the record of the given node
+	 * @param node The handle of the node
+	 * @return The segment of the node
+	 */
+	private ByteBuffer segment(int node) {
+		return segments[node >>> segmentShift];
+	}
+
+	/**
+	 * Helper method which returns the offset of the record of the given node in its segment
+	 * @param node The handle of the node
+	 * @return The offset of the record
+	 */
+	private int offset(int node) {
+		return (node & ((1 << segmentShift) - 1)) * RECORD_SIZE;
+	}
+
+	/**
+	 * Helper method which maps a region of the file for reading and writing, little-endian
+	 * @param channel The channel of the file
+	 * @param position The position of the region
+	 * @param size The size of the region
+	 * @return The mapped region
+	 * @throws IOException If the region can not be mapped
+	 */
+	private static MappedByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+		MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, size);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		return buffer;
+	}
+}
@@ -0,0 +1,277 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Order Statistic Tree is a BinaryTree in which every node additionally keeps
+ * track of the number of nodes in the subtree rooted at it.
+ * The counts are kept up to date by setLeftChild, setRightChild, removeLeftChild,
+ * removeRightChild and clear, so that:
+ *  -- size() is O(1)
+ *  -- getKthSmallestNode, getKthLargestNode, rankOf and select are O(height)
+ *
+ * All the nodes of an OrderStatisticTree must themselves be OrderStatisticTree nodes.
+ * Like the rank queries of BinaryTree, rankOf and select only make sense when the
+ * tree is a BinarySearchTree.
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public class OrderStatisticTree<V> extends BinaryTree<V> {
+
+	private int count;
+
+	/**
+	 * Creates an OrderStatisticTree node with the given value
+	 * @param value The value to put in this node
+	 */
+	public OrderStatisticTree(V value) {
+		super(value);
+		this.count = 1;
+	}
+
+	/**
+	 * Creates an OrderStatisticTree node and sets its left and right children with the given nodes
+	 * @param value The value to put in this node
+	 * @param leftChild The left child node, which must not have a parent
+	 * @param rightChild The right child node, which must not have a parent
+	 * @throws IllegalArgumentException If a child already has a parent, or if both children are the same node
+	 */
+	public OrderStatisticTree(V value, OrderStatisticTree<V> leftChild, OrderStatisticTree<V> rightChild) {
+		this(value);
+		this.setLeftChild(leftChild);
+		this.setRightChild(rightChild);
+	}
+
+	/**
+	 * Builds an OrderStatisticTree with the same shape and values as the given BinaryTree, in O(n)
+	 * @param tree The BinaryTree to be copied
+	 * @return The root of the new OrderStatisticTree, or NULL if tree is NULL
+	 */
+	public static <V> OrderStatisticTree<V> of(BinaryTree<V> tree) {
+		if(tree == null)
+			return null;
+		/* In postOrder the children of a node are built just before it, so linking them updates it alone */
+		NodeStack<OrderStatisticTree<V>> built = new NodeStack<OrderStatisticTree<V>>();
+		Iterator<BinaryTree<V>> iterator = tree.iterator(TraversalOrder.POST_ORDER);
+		while(iterator.hasNext()) {
+			BinaryTree<V> node = iterator.next();
+			OrderStatisticTree<V> copy = new OrderStatisticTree<V>(node.getValue());
+			if(node.getRightChild() != null)
+				copy.linkRightChild(built.pop());
+			if(node.getLeftChild() != null)
+				copy.linkLeftChild(built.pop());
+			built.push(copy);
+		}
+		return built.pop();
+	}
+
+	/**
+	 * Gets the parent of this node, or NULL if this node is a root
+	 * @return The parent node
+	 */
+	@Override
+	public OrderStatisticTree<V> getParent() {
+		return cast(this.parent);
+	}
+
+	/**
+	 * Sets the node supplied as the left child of this node, see BinaryTree.setLeftChild
+	 * @param leftChild The leftChild to be set, it must be an OrderStatisticTree
+	 * @throws IllegalArgumentException If leftChild is not an OrderStatisticTree
+	 */
+	@Override
+	public void setLeftChild(BinaryTree<V> leftChild) {
+		super.setLeftChild(cast(leftChild));
+	}
+
+	/**
+	 * Sets the node supplied as the right child of this node, see BinaryTree.setRightChild
+	 * @param rightChild The rightChild to be set, it must be an OrderStatisticTree
+	 * @throws IllegalArgumentException If rightChild is not an OrderStatisticTree
+	 */
+	@Override
+	public void setRightChild(BinaryTree<V> rightChild) {
+		super.setRightChild(cast(rightChild));
+	}
+
+	/**
+	 * Updates the counts of this node and of all its ancestors after a child has been replaced
+	 * @param oldChild The child which has been removed, or null
+	 * @param newChild The child which has been linked, or null
+	 */
+	@Override
+	protected void childChanged(BinaryTree<V> oldChild, BinaryTree<V> newChild) {
+		int delta = countOf(cast(newChild)) - countOf(cast(oldChild));
+		if(delta == 0)
+			return;
+		for(BinaryTree<V> node = this; node instanceof OrderStatisticTree; node = node.parent)
+			((OrderStatisticTree<V>) node).count += delta;
+	}
+
+	/**
+	 * Returns the number of nodes including the root in the tree rooted at this node in O(1)
+	 * @return The number of total nodes in this subtree
+	 */
+	@Override
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Returns the count of this node, which is always known
+	 * @return The number of total nodes in this subtree
+	 */
+	@Override
+	protected int cachedSize() {
+		return count;
+	}
+
+	/**
+	 * Rebalances the tree rooted at this node, see BinaryTree.rebalance, then counts the nodes
+	 * of the reshaped subtrees again. The count of this node, and so of its ancestors, is unchanged
+	 */
+	@Override
+	public void rebalance() {
+		super.rebalance();
+		for(Iterator<BinaryTree<V>> iterator = this.iterator(TraversalOrder.POST_ORDER); iterator.hasNext();) {
+			OrderStatisticTree<V> node = cast(iterator.next());
+			node.count = 1 + countOf(cast(node.leftChild)) + countOf(cast(node.rightChild));
+		}
+	}
+
+	/**
+	 * Returns the Kth Smallest element present in the tree rooted at this node or NULL
+	 * if not present, in O(height)
+	 * @param k The Kth smallest element to be returned
+	 * @return The Kth smallest element
+	 */
+	@Override
+	public OrderStatisticTree<V> getKthSmallestNode(int k) {
+		if(k < 1 || k > this.count)
+			return null;
+		OrderStatisticTree<V> node = this;
+		while(true) {
+			int leftCount = countOf(cast(node.leftChild));
+			if(k <= leftCount)
+				node = cast(node.leftChild);
+			else if(k == leftCount+1)
+				return node;
+			else {
+				k -= leftCount+1;
+				node = cast(node.rightChild);
+			}
+		}
+	}
+
+	/**
+	 * Returns the Kth Largest element present in the tree rooted at this node or NULL
+	 * if not present, in O(height)
+	 * @param k The Kth largest element to be returned
+	 * @return The Kth largest element
+	 */
+	@Override
+	public OrderStatisticTree<V> getKthLargestNode(int k) {
+		if(k < 1 || k > this.count)
+			return null;
+		return this.getKthSmallestNode(this.count - k + 1);
+	}
+
+	/**
+	 * Returns the (1 based) inOrder rank of the given node within the tree rooted at this
+	 * node, in O(height). The rank of the node returned by getKthSmallestNode(k) is k
+	 * @param node The node whose rank is to be returned
+	 * @return The rank of the node, or -1 if the node is not in this tree
+	 */
+	@SuppressWarnings("unchecked")
+	public int rankOf(BinaryTree<V> node) {
+		if(!(node instanceof OrderStatisticTree))
+			return -1;
+		OrderStatisticTree<V> current = (OrderStatisticTree<V>) node;
+		int rank = countOf(cast(current.leftChild)) + 1;
+		while(current != this) {
+			OrderStatisticTree<V> parent = cast(current.parent);
+			if(parent == null)
+				return -1;
+			if(parent.rightChild == current)
+				rank += countOf(cast(parent.leftChild)) + 1;
+			current = parent;
+		}
+		return rank;
+	}
+
+	/**
+	 * Returns the node of the given (1 based) inOrder rank, which is the same as getKthSmallestNode(k)
+	 * @param k The rank of the node to be returned
+	 * @return The node of rank k, or NULL if not present
+	 */
+	public OrderStatisticTree<V> select(int k) {
+		return this.getKthSmallestNode(k);
+	}
+
+	/**
+	 * Returns the nodes whose ranks lie between from and to (both inclusive) in inOrder.
+	 * The first node is found in O(height) and the rest are visited by following the
+	 * parent links, so the whole query is O(height + number of nodes returned)
+	 * @param from The rank of the first node to be returned
+	 * @param to The rank of the last node to be returned
+	 * @return The List of nodes in the given range of ranks, clipped to the size of this tree
+	 */
+	public List<OrderStatisticTree<V>> select(int from, int to) {
+		if(from < 1)
+			from = 1;
+		if(to > this.count)
+			to = this.count;
+		List<OrderStatisticTree<V>> list = new ArrayList<OrderStatisticTree<V>>(to < from ? 0 : to-from+1);
+		OrderStatisticTree<V> node = this.getKthSmallestNode(from);
+		for(int rank = from; rank <= to; rank++) {
+			list.add(node);
+			node = node.successorWithin(this);
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the next node in inOrder, without leaving the tree rooted at root
+	 * @param root The root of the tree being walked
+	 * @return The inOrder successor of this node or NULL if this node is the last one
+	 */
+	private OrderStatisticTree<V> successorWithin(OrderStatisticTree<V> root) {
+		OrderStatisticTree<V> node = cast(this.rightChild);
+		if(node != null) {
+			while(node.leftChild != null)
+				node = cast(node.leftChild);
+			return node;
+		}
+		node = this;
+		while(node != root && node.parent != null && node.parent.rightChild == node)
+			node = cast(node.parent);
+		return node == root ? null : cast(node.parent);
+	}
+
+	/**
+	 * Helper method which returns the count of the given node, or 0 for a null node
+	 * @param node The node whose count is to be returned
+	 * @return The number of nodes in the subtree rooted at node
+	 */
+	private static int countOf(OrderStatisticTree<?> node) {
+		return node == null ? 0 : node.count;
+	}
+
+	/**
+	 * Helper method which casts a BinaryTree node to an OrderStatisticTree node
+	 * @param node The node to be cast
+	 * @return The node as an OrderStatisticTree
+	 * @throws IllegalArgumentException If the node is not an OrderStatisticTree
+	 */
+	@SuppressWarnings("unchecked")
+	private static <V> OrderStatisticTree<V> cast(BinaryTree<V> node) {
+		if(node == null || node instanceof OrderStatisticTree)
+			return (OrderStatisticTree<V>) node;
+		throw new IllegalArgumentException("Nodes of an OrderStatisticTree must be OrderStatisticTree nodes");
+	}
+}
@@ -0,0 +1,365 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Parallel versions of the aggregate operations of BinaryTree, which run on a ForkJoinPool.
+ * Each task walks its subtree with an explicit stack. Every time it has visited threshold
+ * nodes, all the subtrees pending on its stack but the next one are forked off as new tasks,
+ * so the work is split at subtree boundaries and small trees are handled by a single task.
+ * A degenerate tree has no pending subtrees to split off, so it is walked by a single task.
+ * The trees must not be structurally modified while an operation is running on them
+ */
+public class ParallelTreeOperations {
+
+	/** The number of nodes a task visits before it forks its pending subtrees by default */
+	public static final int DEFAULT_THRESHOLD = 1 << 14;
+
+	private final ForkJoinPool pool;
+	private final int threshold;
+
+	/**
+	 * Creates the operations running on the common ForkJoinPool with the default threshold
+	 */
+	public ParallelTreeOperations() {
+		this(ForkJoinPool.commonPool(), DEFAULT_THRESHOLD);
+	}
+
+	/**
+	 * Creates the operations running on the given ForkJoinPool with the given threshold
+	 * @param pool The pool on which the tasks are run
+	 * @param threshold The number of nodes a task visits before it forks its pending subtrees
+	 * @throws IllegalArgumentException If threshold is not positive
+	 */
+	public ParallelTreeOperations(ForkJoinPool pool, int threshold) {
+		if(pool == null)
+			throw new NullPointerException("pool");
+		if(threshold < 1)
+			throw new IllegalArgumentException("threshold must be positive: " + threshold);
+		this.pool = pool;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Returns the number of nodes in the given tree, same as tree.size()
+	 * @param tree The root of the tree
+	 * @return The number of nodes in the tree
+	 */
+	public <V> int size(BinaryTree<V> tree) {
+		return pool.invoke(sizeTask(tree));
+	}
+
+	/**
+	 * Returns the height of the given tree, same as tree.getHeight()
+	 * @param tree The root of the tree
+	 * @return The height of the tree
+	 */
+	public <V> int getHeight(BinaryTree<V> tree) {
+		return pool.invoke(heightTask(tree, 0));
+	}
+
+	/**
+	 * Returns the leaves of the given tree from left to right, same as tree.getLeaves()
+	 * @param tree The root of the tree
+	 * @return The List containing the leaves of the tree
+	 */
+	public <V> List<BinaryTree<V>> getLeaves(BinaryTree<V> tree) {
+		return pool.invoke(leavesTask(tree));
+	}
+
+	/**
+	 * Returns <code>true</code> if the given tree contains the given node (not an equal node),
+	 * same as tree.contains(node). The tasks stop as soon as one of them finds the node
+	 * @param tree The root of the tree to be searched
+	 * @param node The node to be searched for
+	 * @return <code>true</code> if the node is found
+	 */
+	public <V> boolean contains(BinaryTree<V> tree, final BinaryTree<V> node) {
+		if(tree == node)
+			return true;
+		if(node == null)
+			return false;
+		final AtomicBoolean found = new AtomicBoolean(false);
+		pool.invoke(containsTask(tree, node, found));
+		return found.get();
+	}
+
+	/**
+	 * Returns <code>true</code> if the given tree equals the given object, same as tree.equals(obj).
+	 * The tasks stop as soon as one of them finds a difference
+	 * @param tree The root of the tree to be compared
+	 * @param obj The object to be compared with
+	 * @return <code>true</code> if the trees are equal
+	 */
+	public boolean equals(BinaryTree<?> tree, Object obj) {
+		if(tree == null)
+			return obj == null;
+		if(!(obj instanceof BinaryTree))
+			return false;
+		AtomicBoolean different = new AtomicBoolean(false);
+		pool.invoke(new EqualsTask(tree, (BinaryTree<?>) obj, different));
+		return !different.get();
+	}
+
+	private <V> WalkTask<V, Integer> sizeTask(BinaryTree<V> tree) {
+		return new WalkTask<V, Integer>(tree, 0) {
+			private int size = 0;
+
+			@Override
+			void visit(BinaryTree<V> node, int depth) {
+				size++;
+			}
+
+			@Override
+			Integer result() {
+				return size;
+			}
+
+			@Override
+			Integer combine(Integer result, Integer other) {
+				return result + other;
+			}
+
+			@Override
+			WalkTask<V, Integer> subtask(BinaryTree<V> root, int depth) {
+				return sizeTask(root);
+			}
+		};
+	}
+
+	private <V> WalkTask<V, Integer> heightTask(BinaryTree<V> tree, int rootDepth) {
+		return new WalkTask<V, Integer>(tree, rootDepth) {
+			private int height = -1;
+
+			@Override
+			void visit(BinaryTree<V> node, int depth) {
+				if(depth > height)
+					height = depth;
+			}
+
+			@Override
+			Integer result() {
+				return height;
+			}
+
+			@Override
+			Integer combine(Integer result, Integer other) {
+				return result > other ? result : other;
+			}
+
+			@Override
+			WalkTask<V, Integer> subtask(BinaryTree<V> root, int depth) {
+				return heightTask(root, depth);
+			}
+		};
+	}
+
+	private <V> WalkTask<V, List<BinaryTree<V>>> leavesTask(BinaryTree<V> tree) {
+		return new WalkTask<V, List<BinaryTree<V>>>(tree, 0) {
+			private final List<BinaryTree<V>> leaves = new ArrayList<BinaryTree<V>>();
+
+			@Override
+			void visit(BinaryTree<V> node, int depth) {
+				if(node.isLeaf())
+					leaves.add(node);
+			}
+
+			@Override
+			List<BinaryTree<V>> result() {
+				return leaves;
+			}
+
+			@Override
+			List<BinaryTree<V>> combine(List<BinaryTree<V>> result, List<BinaryTree<V>> other) {
+				result.addAll(other);
+				return result;
+			}
+
+			@Override
+			WalkTask<V, List<BinaryTree<V>>> subtask(BinaryTree<V> root, int depth) {
+				return leavesTask(root);
+			}
+		};
+	}
+
+	private <V> WalkTask<V, Void> containsTask(BinaryTree<V> tree, final BinaryTree<V> target, final AtomicBoolean found) {
+		return new WalkTask<V, Void>(tree, 0) {
+			@Override
+			void visit(BinaryTree<V> node, int depth) {
+				if(node == target)
+					found.set(true);
+			}
+
+			@Override
+			boolean isStopped() {
+				return found.get();
+			}
+
+			@Override
+			Void result() {
+				return null;
+			}
+
+			@Override
+			Void combine(Void result, Void other) {
+				return null;
+			}
+
+			@Override
+			WalkTask<V, Void> subtask(BinaryTree<V> root, int depth) {
+				return containsTask(root, target, found);
+			}
+		};
+	}
+
+	/**
+	 * Task which walks a subtree in preOrder, forking off all the subtrees pending on its stack
+	 * but the next one every time it has visited threshold nodes. The results of the forked
+	 * tasks are combined with its own result in preOrder
+	 *
+	 * @param <V> The type of values held in the Tree
+	 * @param <R> The type of the result
+	 */
+	private abstract class WalkTask<V, R> extends RecursiveTask<R> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BinaryTree<V> root;
+		private final int rootDepth;
+
+		WalkTask(BinaryTree<V> root, int rootDepth) {
+			this.root = root;
+			this.rootDepth = rootDepth;
+		}
+
+		/** Called for every node of the subtree, with its depth in the whole tree */
+		abstract void visit(BinaryTree<V> node, int depth);
+
+		/** Returns the result for the nodes visited by this task */
+		abstract R result();
+
+		/** Combines the result for some nodes with the result for the nodes following them */
+		abstract R combine(R result, R other);
+
+		/** Creates the task which walks the given subtree */
+		abstract WalkTask<V, R> subtask(BinaryTree<V> root, int depth);
+
+		/** Returns <code>true</code> if the walk can be stopped early */
+		boolean isStopped() {
+			return false;
+		}
+
+		@Override
+		protected R compute() {
+			List<WalkTask<V, R>> forked = new ArrayList<WalkTask<V, R>>();
+			NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+			if(root != null)
+				stack.push(root, rootDepth);
+			int visited = 0;
+			while(!stack.isEmpty() && !isStopped()) {
+				if(visited >= threshold && stack.size() > 1) {
+					/* The subtrees forked now come after the subtree kept on the stack, but
+					 * before the ones forked earlier, which were pending below it */
+					List<WalkTask<V, R>> round = new ArrayList<WalkTask<V, R>>(stack.size()-1);
+					BinaryTree<V> next = stack.peek();
+					int nextDepth = stack.peekMark();
+					stack.pop();
+					while(!stack.isEmpty()) {
+						int depth = stack.peekMark();
+						WalkTask<V, R> task = subtask(stack.pop(), depth);
+						task.fork();
+						round.add(task);
+					}
+					forked.addAll(0, round);
+					stack.push(next, nextDepth);
+					visited = 0;
+				}
+				int depth = stack.peekMark();
+				BinaryTree<V> node = stack.pop();
+				visit(node, depth);
+				visited++;
+				if(node.rightChild != null)
+					stack.push(node.rightChild, depth+1);
+				if(node.leftChild != null)
+					stack.push(node.leftChild, depth+1);
+			}
+			R result = result();
+			for(WalkTask<V, R> task : forked)
+				result = combine(result, task.join());
+			return result;
+		}
+	}
+
+	/**
+	 * Task which compares pairs of nodes, forking off all the pairs pending on its stack but
+	 * the next one every time it has compared threshold pairs. It records a difference in the shared flag, which
+	 * also stops the other tasks
+	 */
+	private class EqualsTask extends RecursiveTask<Void> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final BinaryTree<?> node;
+		private final BinaryTree<?> other;
+		private final AtomicBoolean different;
+
+		EqualsTask(BinaryTree<?> node, BinaryTree<?> other, AtomicBoolean different) {
+			this.node = node;
+			this.other = other;
+			this.different = different;
+		}
+
+		@Override
+		protected Void compute() {
+			List<EqualsTask> forked = new ArrayList<EqualsTask>();
+			/* The pairs of nodes still to be compared are pushed one after the other */
+			NodeStack<BinaryTree<?>> stack = new NodeStack<BinaryTree<?>>();
+			stack.push(node);
+			stack.push(other);
+			int compared = 0;
+			while(!stack.isEmpty() && !different.get()) {
+				if(compared >= threshold && stack.size() > 2) {
+					BinaryTree<?> nextSecond = stack.pop();
+					BinaryTree<?> nextFirst = stack.pop();
+					while(!stack.isEmpty()) {
+						BinaryTree<?> second = stack.pop();
+						EqualsTask task = new EqualsTask(stack.pop(), second, different);
+						task.fork();
+						forked.add(task);
+					}
+					stack.push(nextFirst);
+					stack.push(nextSecond);
+					compared = 0;
+				}
+				BinaryTree<?> second = stack.pop();
+				BinaryTree<?> first = stack.pop();
+				compared++;
+				if(first == second)
+					continue;
+				if(first == null || second == null || BinaryTree.cachedInformationDiffers(first, second)) {
+					different.set(true);
+					break;
+				}
+				Object value = first.getValue();
+				if(!(value == second.getValue() || (value != null && value.equals(second.getValue())))) {
+					different.set(true);
+					break;
+				}
+				stack.push(first.rightChild);
+				stack.push(second.rightChild);
+				stack.push(first.leftChild);
+				stack.push(second.leftChild);
+			}
+			for(EqualsTask task : forked)
+				task.join();
+			return null;
+		}
+	}
+}
@@ -0,0 +1,357 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Iterator;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * An immutable BinaryTree. An update does not modify the tree but returns a new root, which
+ * copies only the nodes on the path from the root to the updated node and shares all the
+ * other subtrees with the previous version. Keeping a version of the tree is therefore O(1),
+ * and an update takes O(depth) time and memory. Since subtrees are shared, the nodes have no
+ * parent link.
+ *
+ * The nodes of a tree are numbered in preOrder, the root being the node 0; every node keeps
+ * the size and the height of its subtree, so the node of a given number is reached in
+ * O(depth). The values should be immutable too, as the hash codes are computed when the
+ * nodes are built
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public final class PersistentBinaryTree<V> {
+
+	private final V value;
+	private final PersistentBinaryTree<V> leftChild;
+	private final PersistentBinaryTree<V> rightChild;
+	private final int size;
+	private final int height;
+	private final int hash;
+
+	/**
+	 * Creates a single node tree holding the given value
+	 * @param value The value to put in this node
+	 */
+	public PersistentBinaryTree(V value) {
+		this(value, null, null);
+	}
+
+	/**
+	 * Creates a tree holding the given value at its root, with the given subtrees as children.
+	 * The subtrees are shared, not copied
+	 * @param value The value to put in this node
+	 * @param leftChild The left subtree, or null
+	 * @param rightChild The right subtree, or null
+	 */
+	public PersistentBinaryTree(V value, PersistentBinaryTree<V> leftChild, PersistentBinaryTree<V> rightChild) {
+		this.value = value;
+		this.leftChild = leftChild;
+		this.rightChild = rightChild;
+		this.size = 1 + sizeOf(leftChild) + sizeOf(rightChild);
+		this.height = 1 + Math.max(heightOf(leftChild), heightOf(rightChild));
+		/* The same hash code as a BinaryTree of the same values and shape */
+		this.hash = BinaryTree.hash(value, (leftChild == null) ? 0 : leftChild.hash, (rightChild == null) ? 0 : rightChild.hash);
+	}
+
+	/**
+	 * Builds a PersistentBinaryTree with the same shape and values as the given BinaryTree
+	 * @param tree The BinaryTree to be copied
+	 * @return The new PersistentBinaryTree, or NULL if tree is NULL
+	 */
+	public static <V> PersistentBinaryTree<V> of(BinaryTree<V> tree) {
+		if(tree == null)
+			return null;
+		/* In postOrder the children of a node are built just before it, on top of the stack */
+		NodeStack<PersistentBinaryTree<V>> built = new NodeStack<PersistentBinaryTree<V>>();
+		Iterator<BinaryTree<V>> iterator = tree.iterator(TraversalOrder.POST_ORDER);
+		while(iterator.hasNext()) {
+			BinaryTree<V> node = iterator.next();
+			PersistentBinaryTree<V> right = (node.getRightChild() == null) ? null : built.pop();
+			PersistentBinaryTree<V> left = (node.getLeftChild() == null) ? null : built.pop();
+			built.push(new PersistentBinaryTree<V>(node.getValue(), left, right));
+		}
+		return built.pop();
+	}
+
+	/**
+	 * Builds a mutable BinaryTree with the same shape and values as this tree
+	 * @return The root of the new BinaryTree
+	 */
+	public BinaryTree<V> toBinaryTree() {
+		BinaryTree<V> root = new BinaryTree<V>(value);
+		/* The nodes of this tree and their copies are pushed one after the other */
+		NodeStack<Object> stack = new NodeStack<Object>();
+		stack.push(this);
+		stack.push(root);
+		while(!stack.isEmpty()) {
+			@SuppressWarnings("unchecked")
+			BinaryTree<V> copy = (BinaryTree<V>) stack.pop();
+			@SuppressWarnings("unchecked")
+			PersistentBinaryTree<V> node = (PersistentBinaryTree<V>) stack.pop();
+			if(node.leftChild != null) {
+				BinaryTree<V> child = new BinaryTree<V>(node.leftChild.value);
+				copy.linkLeftChild(child);
+				stack.push(node.leftChild);
+				stack.push(child);
+			}
+			if(node.rightChild != null) {
+				BinaryTree<V> child = new BinaryTree<V>(node.rightChild.value);
+				copy.linkRightChild(child);
+				stack.push(node.rightChild);
+				stack.push(child);
+			}
+		}
+		return root;
+	}
+
+	/**
+	 * Gets the value in the root of this tree
+	 * @return The value
+	 */
+	public V getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the left subtree of this tree
+	 * @return The left child, or NULL
+	 */
+	public PersistentBinaryTree<V> getLeftChild() {
+		return leftChild;
+	}
+
+	/**
+	 * Gets the right subtree of this tree
+	 * @return The right child, or NULL
+	 */
+	public PersistentBinaryTree<V> getRightChild() {
+		return rightChild;
+	}
+
+	/**
+	 * Returns <code>true</code> if the root of this tree has no children
+	 * @return <code>true</code> if this tree is a leaf
+	 */
+	public boolean isLeaf() {
+		return leftChild == null && rightChild == null;
+	}
+
+	/**
+	 * Returns the number of nodes of this tree, in O(1)
+	 * @return The number of nodes
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns the height of this tree, 0 for a single node, in O(1)
+	 * @return The height of this tree
+	 */
+	public int getHeight() {
+		return height;
+	}
+
+	/**
+	 * Returns the subtree rooted at the given node
+	 * @param node The number of the node in preOrder
+	 * @return The subtree rooted at the node
+	 * @throws IndexOutOfBoundsException If there is no such node
+	 */
+	public PersistentBinaryTree<V> get(int node) {
+		this.checkNode(node);
+		PersistentBinaryTree<V> current = this;
+		while(node > 0) {
+			node--;
+			int leftSize = sizeOf(current.leftChild);
+			if(node < leftSize)
+				current = current.leftChild;
+			else {
+				node -= leftSize;
+				current = current.rightChild;
+			}
+		}
+		return current;
+	}
+
+	/**
+	 * Returns the tree in which the given node holds the given value
+	 * @param node The number of the node in preOrder
+	 * @param value The new value of the node
+	 * @return The new root, sharing every subtree off the path to the node with this tree
+	 * @throws IndexOutOfBoundsException If there is no such node
+	 */
+	public PersistentBinaryTree<V> withValue(int node, V value) {
+		return this.replace(node, subtree -> new PersistentBinaryTree<V>(value, subtree.leftChild, subtree.rightChild));
+	}
+
+	/**
+	 * Returns the tree in which the given node has the given left subtree
+	 * @param node The number of the node in preOrder
+	 * @param leftChild The new left subtree of the node, or null to remove it
+	 * @return The new root, sharing every subtree off the path to the node with this tree
+	 * @throws IndexOutOfBoundsException If there is no such node
+	 */
+	public PersistentBinaryTree<V> withLeftChild(int node, PersistentBinaryTree<V> leftChild) {
+		return this.replace(node, subtree -> new PersistentBinaryTree<V>(subtree.value, leftChild, subtree.rightChild));
+	}
+
+	/**
+	 * Returns the tree in which the given node has the given right subtree
+	 * @param node The number of the node in preOrder
+	 * @param rightChild The new right subtree of the node, or null to remove it
+	 * @return The new root, sharing every subtree off the path to the node with this tree
+	 * @throws IndexOutOfBoundsException If there is no such node
+	 */
+	public PersistentBinaryTree<V> withRightChild(int node, PersistentBinaryTree<V> rightChild) {
+		return this.replace(node, subtree -> new PersistentBinaryTree<V>(subtree.value, subtree.leftChild, rightChild));
+	}
+
+	/**
+	 * Passes the values of this tree to the given action in an inOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void inOrderTraversal(Consumer<? super V> action) {
+		this.walk(TraversalOrder.IN_ORDER, node -> action.accept(node.value));
+	}
+
+	/**
+	 * Passes the values of this tree to the given action in a preOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void preOrderTraversal(Consumer<? super V> action) {
+		this.walk(TraversalOrder.PRE_ORDER, node -> action.accept(node.value));
+	}
+
+	/**
+	 * Passes the values of this tree to the given action in a postOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void postOrderTraversal(Consumer<? super V> action) {
+		this.walk(TraversalOrder.POST_ORDER, node -> action.accept(node.value));
+	}
+
+	/**
+	 * Passes the values of this tree to the given action in a levelOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void levelOrderTraversal(Consumer<? super V> action) {
+		this.walk(TraversalOrder.LEVEL_ORDER, node -> action.accept(node.value));
+	}
+
+	/**
+	 * Returns <code>true</code> if the given object is a PersistentBinaryTree with the same values
+	 * and shape as this tree. Shared subtrees are skipped, and subtrees of different sizes or
+	 * hash codes are told apart without walking them
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(Object obj) {
+		if(!(obj instanceof PersistentBinaryTree))
+			return false;
+		/* The pairs of nodes still to be compared are pushed one after the other */
+		NodeStack<PersistentBinaryTree<?>> stack = new NodeStack<PersistentBinaryTree<?>>();
+		stack.push(this);
+		stack.push((PersistentBinaryTree<?>) obj);
+		while(!stack.isEmpty()) {
+			PersistentBinaryTree<?> other = stack.pop();
+			PersistentBinaryTree<?> node = stack.pop();
+			if(node == other)
+				continue;
+			if(node == null || other == null || node.size != other.size || node.hash != other.hash)
+				return false;
+			if(node.value == null ? other.value != null : !node.value.equals(other.value))
+				return false;
+			stack.push(node.rightChild);
+			stack.push(other.rightChild);
+			stack.push(node.leftChild);
+			stack.push(other.leftChild);
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the hash code of this tree, which is the hash code of a BinaryTree of the same
+	 * values and shape. It is computed when the node is built
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+		return hash;
+	}
+
+	/**
+	 * Returns the description of this tree, in the same form as BinaryTree.toString
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return TreeWalker.toString(this, node -> node.leftChild, node -> node.rightChild,
+				(node, representation) -> representation.append(node.value));
+	}
+
+	/**
+	 * Helper method which replaces the subtree rooted at the given node and copies the path
+	 * from the root to it
+	 * @param node The number of the node in preOrder
+	 * @param change The function returning the new subtree from the old one
+	 * @return The new root, or this tree if the subtree is not changed
+	 */
+	private PersistentBinaryTree<V> replace(int node, UnaryOperator<PersistentBinaryTree<V>> change) {
+		this.checkNode(node);
+		/* The mark of a node on the path tells whether the path goes on to its left child */
+		NodeStack<PersistentBinaryTree<V>> path = new NodeStack<PersistentBinaryTree<V>>();
+		PersistentBinaryTree<V> current = this;
+		while(node > 0) {
+			node--;
+			int leftSize = sizeOf(current.leftChild);
+			if(node < leftSize) {
+				path.push(current, 1);
+				current = current.leftChild;
+			}
+			else {
+				path.push(current, 0);
+				node -= leftSize;
+				current = current.rightChild;
+			}
+		}
+		PersistentBinaryTree<V> copy = change.apply(current);
+		if(copy == current)
+			return this;
+		while(!path.isEmpty()) {
+			boolean left = path.peekMark() == 1;
+			PersistentBinaryTree<V> parent = path.pop();
+			copy = left ? new PersistentBinaryTree<V>(parent.value, copy, parent.rightChild)
+					: new PersistentBinaryTree<V>(parent.value, parent.leftChild, copy);
+		}
+		return copy;
+	}
+
+	/**
+	 * Walks this tree in the given order, passing every node to the action
+	 * @param order The order in which the nodes are visited
+	 * @param action The action to be performed on each node
+	 */
+	private void walk(TraversalOrder order, Consumer<? super PersistentBinaryTree<V>> action) {
+		TreeWalker.walk(this, order, node -> node.leftChild, node -> node.rightChild, action);
+	}
+
+	/**
+	 * Helper method which throws an IndexOutOfBoundsException if there is no such node in this tree
+	 * @param node The number of the node in preOrder
+	 */
+	private void checkNode(int node) {
+		if(node < 0 || node >= size)
+			throw new IndexOutOfBoundsException("No node " + node + " in a tree of " + size + " nodes");
+	}
+
+	private static int sizeOf(PersistentBinaryTree<?> tree) {
+		return (tree == null) ? 0 : tree.size;
+	}
+
+	private static int heightOf(PersistentBinaryTree<?> tree) {
+		return (tree == null) ? -1 : tree.height;
+	}
+}
@@ -0,0 +1,433 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * The structure shared by the BinaryTrees of primitive values: IntBinaryTree, LongBinaryTree
+ * and DoubleBinaryTree. Every node keeps its value unboxed in a field of the subclass, so a
+ * node is a single object and walking the tree does not touch any boxed value. The children
+ * are handled the same way as in BinaryTree: every node has at most one parent, linking a node
+ * which already has a parent throws an IllegalArgumentException, and a child whose linking would
+ * make a cycle is ignored. All the walks are iterative, so trees of any depth are supported.
+ *
+ * This class holds the links, the walks, the printing traversals, the bulk loading and the
+ * parsing of the three trees; the subclasses only hold the typed value with its accessors
+ * and the traversals passing it to a primitive consumer
+ *
+ * @param <T> The type of the nodes of the Tree
+ */
+public abstract class PrimitiveBinaryTree<T extends PrimitiveBinaryTree<T>> {
+
+	protected T leftChild;
+	protected T rightChild;
+	protected T parent;
+
+	/**
+	 * Only IntBinaryTree, LongBinaryTree and DoubleBinaryTree extend this class
+	 */
+	PrimitiveBinaryTree() {
+	}
+
+	/**
+	 * Returns this node with its own type
+	 * @return This node
+	 */
+	abstract T self();
+
+	/**
+	 * Appends the value of this node to the given StringBuilder
+	 * @param builder The StringBuilder to append to
+	 */
+	abstract void appendValue(StringBuilder builder);
+
+	/**
+	 * Gets the left child of this node
+	 * @return The left child
+	 */
+	public T getLeftChild() {
+		return leftChild;
+	}
+
+	/**
+	 * Sets the node supplied as the left child of this node. The node must not have a parent,
+	 * unless it already is the left child of this node: a node is moved by removing it from its
+	 * parent first. The node is ignored if it is this node or one of its ancestors
+	 * @param leftChild The leftChild to be set
+	 * @throws IllegalArgumentException If the node already has another parent
+	 */
+	public void setLeftChild(T leftChild) {
+		if(this.wouldMakeCycle(leftChild))
+			return;
+		if(leftChild != null && leftChild != this.leftChild && leftChild.parent != null)
+			throw new IllegalArgumentException("The node already has a parent, it has to be removed from it first");
+		this.link(leftChild, true);
+	}
+
+	/**
+	 * Gets the right child of this node
+	 * @return The right child
+	 */
+	public T getRightChild() {
+		return rightChild;
+	}
+
+	/**
+	 * Sets the node supplied as the right child of this node. The node must not have a parent,
+	 * unless it already is the right child of this node: a node is moved by removing it from its
+	 * parent first. The node is ignored if it is this node or one of its ancestors
+	 * @param rightChild The rightChild to be set
+	 * @throws IllegalArgumentException If the node already has another parent
+	 */
+	public void setRightChild(T rightChild) {
+		if(this.wouldMakeCycle(rightChild))
+			return;
+		if(rightChild != null && rightChild != this.rightChild && rightChild.parent != null)
+			throw new IllegalArgumentException("The node already has a parent, it has to be removed from it first");
+		this.link(rightChild, false);
+	}
+
+	/**
+	 * Removes and returns the left child of this node, as a complete subtree
+	 * @return The left child subtree that is removed
+	 * @throws NoSuchElementException If there is no such child
+	 */
+	public T removeLeftChild() throws NoSuchElementException {
+		T child = this.leftChild;
+		if(child == null)
+			throw new NoSuchElementException("There is no left child");
+		this.link(null, true);
+		return child;
+	}
+
+	/**
+	 * Removes and returns the right child of this node, as a complete subtree
+	 * @return The right child subtree that is removed
+	 * @throws NoSuchElementException If there is no such child
+	 */
+	public T removeRightChild() throws NoSuchElementException {
+		T child = this.rightChild;
+		if(child == null)
+			throw new NoSuchElementException("There is no right child");
+		this.link(null, false);
+		return child;
+	}
+
+	/**
+	 * Gets the parent of this node, or NULL if this node is a root
+	 * @return The parent node
+	 */
+	public T getParent() {
+		return parent;
+	}
+
+	/**
+	 * Returns <code>true</code> if this node has no parent
+	 * @return <code>true</code> if the node is a root
+	 */
+	public boolean isRoot() {
+		return parent == null;
+	}
+
+	/**
+	 * Returns <code>true</code> if this node has no children
+	 * @return <code>true</code> if the node is a leaf
+	 */
+	public boolean isLeaf() {
+		return leftChild == null && rightChild == null;
+	}
+
+	/**
+	 * Returns the number of children of this node, 0, 1 or 2
+	 * @return The number of children
+	 */
+	public int getNumberOfChildren() {
+		return (leftChild == null ? 0 : 1) + (rightChild == null ? 0 : 1);
+	}
+
+	/**
+	 * Helper method which tells whether linking the given node as a child of this node
+	 * would make a cycle, that is whether it is this node or one of its ancestors
+	 * @param child The node to be linked
+	 * @return <code>true</code> if the node can not be linked
+	 */
+	private boolean wouldMakeCycle(T child) {
+		for(PrimitiveBinaryTree<T> node = this; node != null; node = node.parent)
+			if(node == child)
+				return true;
+		return false;
+	}
+
+	/**
+	 * Helper method which replaces a child of this node, keeping the parent links up to date
+	 * @param child The new child, or null
+	 * @param left <code>true</code> to replace the left child, <code>false</code> for the right one
+	 */
+	final void link(T child, boolean left) {
+		T oldChild = left ? this.leftChild : this.rightChild;
+		if(oldChild == child)
+			return;
+		if(child != null && child.parent != null)
+			child.parent.link(null, child.parent.leftChild == child);
+		if(oldChild != null)
+			oldChild.parent = null;
+		if(left)
+			this.leftChild = child;
+		else
+			this.rightChild = child;
+		if(child != null)
+			child.parent = this.self();
+	}
+
+	/**
+	 * Links new nodes into a perfectly balanced tree whose inOrder traversal returns them in
+	 * their order, see BinaryTree.linkBalanced; the subclasses build their fromSorted with it
+	 * @param nodes The array to be filled with the nodes, of the number of values
+	 * @param node Creates the node of the given index in inOrder
+	 * @return The root of the tree, or NULL if there are no nodes
+	 */
+	static <T extends PrimitiveBinaryTree<T>> T linkBalanced(T[] nodes, IntFunction<T> node) {
+		if(nodes.length == 0)
+			return null;
+		for(int i = 0; i < nodes.length; i++)
+			nodes[i] = node.apply(i);
+		/* The ranges still to be linked, each one pushed as its first index marked with its last index */
+		IndexStack ranges = new IndexStack();
+		ranges.push(0, nodes.length - 1);
+		while(!ranges.isEmpty()) {
+			int last = ranges.peekMark();
+			int first = ranges.pop();
+			int middle = (first + last) >>> 1;
+			if(first < middle) {
+				nodes[middle].link(nodes[(first + middle - 1) >>> 1], true);
+				ranges.push(first, middle - 1);
+			}
+			if(middle < last) {
+				nodes[middle].link(nodes[(middle + 1 + last) >>> 1], false);
+				ranges.push(middle + 1, last);
+			}
+		}
+		return nodes[(nodes.length - 1) >>> 1];
+	}
+
+	/**
+	 * Creates the factory of the nodes built by the parse methods of a subclass
+	 * @param type The name of the type of the values with its article, for the errors
+	 * @param node Creates the node of a value from its text
+	 * @return The factory
+	 */
+	static <T extends PrimitiveBinaryTree<T>> TreeParser.NodeFactory<T> nodeFactory(final String type, final Function<String, T> node) {
+		return new TreeParser.NodeFactory<T>() {
+			@Override
+			public T create(String value, long offset) {
+				try {
+					return node.apply(value);
+				}
+				catch(NumberFormatException e) {
+					throw new TreeParseException("Not " + type + " '" + value + "'", offset);
+				}
+			}
+
+			@Override
+			public void link(T parent, T child, boolean left) {
+				parent.link(child, left);
+			}
+		};
+	}
+
+	/**
+	 * Parses a description into the nodes of the given factory, see BinaryTree.parse(String)
+	 * @param treeDescription The description to be parsed
+	 * @param nodes The factory of the nodes
+	 * @return The root of the parsed tree
+	 * @throws TreeParseException If the description is not well formed or a value is not valid
+	 */
+	static <T extends PrimitiveBinaryTree<T>> T parse(CharSequence treeDescription, TreeParser.NodeFactory<T> nodes) {
+		try {
+			return TreeParser.of(treeDescription).parse(nodes);
+		}
+		catch(IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * Parses a description read from the given Reader into the nodes of the given factory
+	 * @param treeDescription The Reader of the description to be parsed
+	 * @param nodes The factory of the nodes
+	 * @return The root of the parsed tree
+	 * @throws IOException If the Reader can not be read
+	 * @throws TreeParseException If the description is not well formed or a value is not valid
+	 */
+	static <T extends PrimitiveBinaryTree<T>> T parse(Reader treeDescription, TreeParser.NodeFactory<T> nodes) throws IOException {
+		return TreeParser.of(treeDescription).parse(nodes);
+	}
+
+	/**
+	 * Prints the values of the tree rooted at this node in inOrder
+	 */
+	public void inOrderTraversal() {
+		this.print(TraversalOrder.IN_ORDER);
+	}
+
+	/**
+	 * Prints the values of the tree rooted at this node in preOrder
+	 */
+	public void preOrderTraversal() {
+		this.print(TraversalOrder.PRE_ORDER);
+	}
+
+	/**
+	 * Prints the values of the tree rooted at this node in postOrder
+	 */
+	public void postOrderTraversal() {
+		this.print(TraversalOrder.POST_ORDER);
+	}
+
+	/**
+	 * Helper method which prints the values of the tree rooted at this node, one per line
+	 * @param order The order in which the values are printed
+	 */
+	private void print(TraversalOrder order) {
+		final StringBuilder line = new StringBuilder();
+		this.walk(order, new Consumer<T>() {
+			@Override
+			public void accept(T node) {
+				line.setLength(0);
+				node.appendValue(line);
+				System.out.println(line);
+			}
+		});
+	}
+
+	/**
+	 * Returns the number of nodes including the root in the tree rooted at this node
+	 * @return The number of total nodes in this subtree
+	 */
+	public int size() {
+		int size = 0;
+		NodeStack<T> stack = new NodeStack<T>();
+		stack.push(this.self());
+		while(!stack.isEmpty()) {
+			T node = stack.pop();
+			size++;
+			if(node.rightChild != null)
+				stack.push(node.rightChild);
+			if(node.leftChild != null)
+				stack.push(node.leftChild);
+		}
+		return size;
+	}
+
+	/**
+	 * Returns the height of the tree rooted at this node, 0 for a single node,
+	 * see BinaryTree.getHeight
+	 * @return The height of this subtree
+	 */
+	public int getHeight() {
+		/* The depth of every node is kept as its mark on the stack */
+		int height = 0;
+		NodeStack<T> stack = new NodeStack<T>();
+		stack.push(this.self(), 0);
+		while(!stack.isEmpty()) {
+			int depth = stack.peekMark();
+			T node = stack.pop();
+			if(depth > height)
+				height = depth;
+			if(node.rightChild != null)
+				stack.push(node.rightChild, depth+1);
+			if(node.leftChild != null)
+				stack.push(node.leftChild, depth+1);
+		}
+		return height;
+	}
+
+	/**
+	 * Returns the LinkedList containing only the leaves of the tree rooted at this node, in preOrder
+	 * @return The LinkedList containing the leaves of this subtree
+	 */
+	public LinkedList<T> getLeaves() {
+		final LinkedList<T> list = new LinkedList<T>();
+		this.walk(TraversalOrder.PRE_ORDER, new Consumer<T>() {
+			@Override
+			public void accept(T node) {
+				if(node.isLeaf())
+					list.add(node);
+			}
+		});
+		return list;
+	}
+
+	/**
+	 * Returns the Kth Smallest node of the tree rooted at this node, that is its Kth node in
+	 * inOrder, or NULL if not present. It is the Kth smallest value only if the tree is a
+	 * BinarySearchTree. The walk stops at the Kth node, so it takes O(height + k)
+	 * @param k The Kth smallest element to be returned
+	 * @return The Kth smallest element
+	 */
+	public T getKthSmallestNode(int k) {
+		return this.getKthNode(k, true);
+	}
+
+	/**
+	 * Returns the Kth Largest node of the tree rooted at this node, that is its Kth node in
+	 * reverse inOrder, or NULL if not present, see getKthSmallestNode
+	 * @param k The Kth largest element to be returned
+	 * @return The Kth largest element
+	 */
+	public T getKthLargestNode(int k) {
+		return this.getKthNode(k, false);
+	}
+
+	/**
+	 * Helper method which walks the tree in inOrder or reverse inOrder until the Kth node
+	 * @param k The rank of the node to be returned
+	 * @param smallest <code>true</code> for inOrder, <code>false</code> for reverse inOrder
+	 * @return The Kth node, or NULL if not present
+	 */
+	private T getKthNode(int k, boolean smallest) {
+		if(k < 1)
+			return null;
+		NodeStack<T> stack = new NodeStack<T>();
+		T node = this.self();
+		while(node != null || !stack.isEmpty()) {
+			while(node != null) {
+				stack.push(node);
+				node = smallest ? node.leftChild : node.rightChild;
+			}
+			node = stack.pop();
+			if(--k == 0)
+				return node;
+			node = smallest ? node.rightChild : node.leftChild;
+		}
+		return null;
+	}
+
+	/**
+	 * Walks the tree rooted at this node in the given order, passing every node to the action
+	 * @param order The order in which the nodes are visited
+	 * @param action The action to be performed on each node
+	 */
+	final void walk(TraversalOrder order, Consumer<? super T> action) {
+		TreeWalker.walk(this.self(), order, node -> node.leftChild, node -> node.rightChild, action);
+	}
+
+	/**
+	 * Returns the description of the tree rooted at this node, in the same form as BinaryTree.toString
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return TreeWalker.toString(this.self(), node -> node.leftChild, node -> node.rightChild,
+				(node, representation) -> node.appendValue(representation));
+	}
+}
@@ -0,0 +1,24 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+/**
+ * The orders in which the nodes of a BinaryTree can be visited by a traversal: three
+ * depth first orders and the breadth first LEVEL_ORDER.
+ * For example, for the Tree "one(two(six seven) three(four five))":
+ *  -- PRE_ORDER visits one, two, six, seven, three, four, five
+ *  -- IN_ORDER visits six, two, seven, one, four, three, five
+ *  -- POST_ORDER visits six, seven, two, four, five, three, one
+ *  -- LEVEL_ORDER visits one, two, three, six, seven, four, five
+ */
+public enum TraversalOrder {
+	/** The node is visited before its left and right subtrees */
+	PRE_ORDER,
+	/** The node is visited after its left subtree and before its right subtree */
+	IN_ORDER,
+	/** The node is visited after its left and right subtrees */
+	POST_ORDER,
+	/** The nodes are visited level by level from the root, each level from left to right */
+	LEVEL_ORDER
+}
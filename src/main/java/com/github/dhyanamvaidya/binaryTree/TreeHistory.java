@@ -0,0 +1,142 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * The snapshots taken of the BinaryTree rooted at a node and the states its nodes saved for
+ * them, see TreeSnapshot. A history belongs to a single tree: it is the observer held by the
+ * root of the snapshots, and by the subtrees removed from that tree while snapshots of it are
+ * outstanding, see TreeObserver. It is open while a snapshot is outstanding; the nodes of the
+ * tree are marked as observed when the first one is taken. The versions of the snapshots only grow
+ * within a history. All the methods are synchronized, so that writers of different trees never
+ * share any state
+ *
+ * @param <V> The type of values held in the Tree
+ */
+final class TreeHistory<V> extends TreeObserver<V> {
+
+	private final BinaryTree<V> root;
+	private long clock;
+	/* The outstanding snapshots by version */
+	private final TreeMap<Long, TreeSnapshot<V>> outstanding;
+	/* The saved states of the nodes, newest first */
+	private final Map<BinaryTree<V>, NodeVersion<V>> versions;
+
+	/**
+	 * Creates the history of the snapshots of the tree rooted at the given node
+	 * @param root The root of the snapshots
+	 */
+	TreeHistory(BinaryTree<V> root) {
+		this.root = root;
+		this.outstanding = new TreeMap<Long, TreeSnapshot<V>>();
+		this.versions = new IdentityHashMap<BinaryTree<V>, NodeVersion<V>>();
+	}
+
+	@Override
+	BinaryTree<V> getRoot() {
+		return root;
+	}
+
+	/**
+	 * Returns <code>true</code> if a snapshot of this history is outstanding
+	 * @return <code>true</code> if the modified nodes have to save their states
+	 */
+	@Override
+	synchronized boolean isOpen() {
+		return !outstanding.isEmpty();
+	}
+
+	@Override
+	boolean followsRemovedSubtrees() {
+		return true;
+	}
+
+	/**
+	 * Registers a new snapshot as the newest one
+	 * @param snapshot The snapshot
+	 * @return The version of the snapshot
+	 */
+	synchronized long open(TreeSnapshot<V> snapshot) {
+		long version = ++clock;
+		outstanding.put(version, snapshot);
+		return version;
+	}
+
+	/**
+	 * Saves the current value and children of the given node for the newest outstanding
+	 * snapshot, unless they are already saved
+	 * @param node The node about to be modified
+	 */
+	@Override
+	synchronized void beforeChange(BinaryTree<V> node) {
+		if(outstanding.isEmpty())
+			return;
+		Map.Entry<Long, TreeSnapshot<V>> newest = outstanding.lastEntry();
+		NodeVersion<V> saved = versions.get(node);
+		if(saved != null && saved.version >= newest.getKey())
+			return;
+		versions.put(node, new NodeVersion<V>(newest.getKey(), node.value, node.leftChild, node.rightChild, saved));
+		newest.getValue().retain(node);
+	}
+
+	/**
+	 * Returns the state of the given node seen by the snapshot of the given version
+	 * @param node A node of the tree
+	 * @param version The version of the snapshot
+	 * @return The saved state, or NULL if the snapshot sees the current state
+	 */
+	synchronized NodeVersion<V> versionAt(BinaryTree<V> node, long version) {
+		NodeVersion<V> seen = null;
+		for(NodeVersion<V> saved = versions.get(node); saved != null && saved.version >= version; saved = saved.next)
+			seen = saved;
+		return seen;
+	}
+
+	/**
+	 * Removes the given snapshot and drops the states saved for it which no older outstanding
+	 * snapshot sees
+	 * @param version The version of the snapshot
+	 * @param savedNodes The nodes which saved a state seen by the snapshot
+	 */
+	synchronized void release(long version, Set<BinaryTree<V>> savedNodes) {
+		outstanding.remove(version);
+		if(outstanding.isEmpty()) {
+			versions.clear();
+			return;
+		}
+		for(BinaryTree<V> node : savedNodes)
+			this.prune(node);
+	}
+
+	/**
+	 * Helper method which drops the saved states of the given node which no outstanding
+	 * snapshot sees any more. Every state kept is retained by the newest snapshot seeing it,
+	 * so that it is pruned in turn when that snapshot is released
+	 * @param node The node
+	 */
+	private void prune(BinaryTree<V> node) {
+		NodeStack<NodeVersion<V>> stack = new NodeStack<NodeVersion<V>>();
+		for(NodeVersion<V> saved = versions.get(node); saved != null; saved = saved.next)
+			stack.push(saved);
+		/* From the oldest state on, a state is seen by the snapshots after the previous state kept */
+		NodeVersion<V> kept = null;
+		while(!stack.isEmpty()) {
+			NodeVersion<V> saved = stack.pop();
+			Map.Entry<Long, TreeSnapshot<V>> seenBy = outstanding.floorEntry(saved.version);
+			if(seenBy != null && (kept == null || seenBy.getKey() > kept.version)) {
+				kept = new NodeVersion<V>(saved.version, saved.value, saved.leftChild, saved.rightChild, kept);
+				seenBy.getValue().retain(node);
+			}
+		}
+		if(kept == null)
+			versions.remove(node);
+		else
+			versions.put(node, kept);
+	}
+}
@@ -0,0 +1,203 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Hash-consing of trees: an interner keeps a single instance of every distinct subtree it has
+ * seen, so that trees with repeated subtrees are stored as directed acyclic graphs in which the
+ * equal subtrees are shared. The shared instances are PersistentBinaryTree nodes, since a
+ * BinaryTree node has a single parent and can not be shared; they are immutable, so sharing
+ * them is safe.
+ *
+ * The trees are interned bottom-up: the children of a node are interned before it, so two nodes
+ * are equal when their values are equal and their children are the same instances, which the
+ * hash code of the node and PersistentBinaryTree.equals check in O(1). Interning a tree of n
+ * nodes takes O(n) time; two trees interned by the same interner are equal if and only if they
+ * are the same instance.
+ *
+ * The interner counts the nodes of the trees it interned and the distinct nodes it keeps, whose
+ * ratio is the compression ratio. It holds its nodes until it is cleared. A shared subtree is
+ * mutated through a private copy made by unshare, which can be interned again afterwards. Like
+ * the trees, an interner is not thread-safe
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public final class TreeInterner<V> {
+
+	/* Every distinct node maps to itself */
+	private final Map<PersistentBinaryTree<V>, PersistentBinaryTree<V>> nodes;
+	private long internedNodes;
+
+	/**
+	 * Creates an empty interner
+	 */
+	public TreeInterner() {
+		this.nodes = new HashMap<PersistentBinaryTree<V>, PersistentBinaryTree<V>>();
+		this.internedNodes = 0;
+	}
+
+	/**
+	 * Interns a copy of the given BinaryTree, sharing every subtree equal to an already
+	 * interned one
+	 * @param tree The BinaryTree to be interned
+	 * @return The interned tree, or NULL if tree is NULL
+	 */
+	public PersistentBinaryTree<V> intern(BinaryTree<V> tree) {
+		if(tree == null)
+			return null;
+		/* In postOrder the children of a node are interned just before it, on top of the stack */
+		NodeStack<PersistentBinaryTree<V>> interned = new NodeStack<PersistentBinaryTree<V>>();
+		Iterator<BinaryTree<V>> iterator = tree.iterator(TraversalOrder.POST_ORDER);
+		while(iterator.hasNext()) {
+			BinaryTree<V> node = iterator.next();
+			PersistentBinaryTree<V> right = (node.getRightChild() == null) ? null : interned.pop();
+			PersistentBinaryTree<V> left = (node.getLeftChild() == null) ? null : interned.pop();
+			interned.push(this.canonical(new PersistentBinaryTree<V>(node.getValue(), left, right)));
+		}
+		PersistentBinaryTree<V> root = interned.pop();
+		internedNodes += root.size();
+		return root;
+	}
+
+	/**
+	 * Interns the given PersistentBinaryTree, sharing every subtree equal to an already
+	 * interned one. The subtrees equal to interned ones are replaced without being walked
+	 * @param tree The PersistentBinaryTree to be interned
+	 * @return The interned tree, or NULL if tree is NULL
+	 */
+	public PersistentBinaryTree<V> intern(PersistentBinaryTree<V> tree) {
+		if(tree == null)
+			return null;
+		internedNodes += tree.size();
+		/* The nodes shared by the given tree are only interned once */
+		Map<PersistentBinaryTree<V>, PersistentBinaryTree<V>> done = new IdentityHashMap<PersistentBinaryTree<V>, PersistentBinaryTree<V>>();
+		/* Mark 0: the children are next, 1: the node is next */
+		NodeStack<PersistentBinaryTree<V>> stack = new NodeStack<PersistentBinaryTree<V>>();
+		stack.push(tree, 0);
+		while(!stack.isEmpty()) {
+			PersistentBinaryTree<V> node = stack.peek();
+			if(done.containsKey(node)) {
+				stack.pop();
+				continue;
+			}
+			/* A subtree equal to a kept one, found by a single comparison, is not walked */
+			PersistentBinaryTree<V> kept = nodes.get(node);
+			if(kept != null) {
+				stack.pop();
+				done.put(node, kept);
+				continue;
+			}
+			if(stack.peekMark() == 0) {
+				stack.setMark(1);
+				if(node.getRightChild() != null)
+					stack.push(node.getRightChild(), 0);
+				if(node.getLeftChild() != null)
+					stack.push(node.getLeftChild(), 0);
+				continue;
+			}
+			stack.pop();
+			PersistentBinaryTree<V> left = this.internedOf(node.getLeftChild(), done);
+			PersistentBinaryTree<V> right = this.internedOf(node.getRightChild(), done);
+			if(left == node.getLeftChild() && right == node.getRightChild())
+				done.put(node, this.canonical(node));
+			else
+				done.put(node, this.canonical(new PersistentBinaryTree<V>(node.getValue(), left, right)));
+		}
+		return this.internedOf(tree, done);
+	}
+
+	/**
+	 * Returns <code>true</code> if the given tree is the instance kept by this interner for its
+	 * values and shape, so that all its subtrees are interned too
+	 * @param tree The tree to be checked
+	 * @return <code>true</code> if the tree is interned
+	 */
+	public boolean isInterned(PersistentBinaryTree<V> tree) {
+		return tree != null && nodes.get(tree) == tree;
+	}
+
+	/**
+	 * Returns a mutable copy of the given tree, which shares no node with it nor with any
+	 * other tree, so that it can be modified. The copy can be interned again afterwards
+	 * @param tree The tree to be copied
+	 * @return The root of the new BinaryTree, or NULL if tree is NULL
+	 */
+	public BinaryTree<V> unshare(PersistentBinaryTree<V> tree) {
+		return (tree == null) ? null : tree.toBinaryTree();
+	}
+
+	/**
+	 * Returns the total number of nodes of the trees interned so far, counting every copy of
+	 * a repeated subtree
+	 * @return The number of interned nodes
+	 */
+	public long getInternedNodes() {
+		return internedNodes;
+	}
+
+	/**
+	 * Returns the number of distinct nodes kept by this interner
+	 * @return The number of distinct nodes
+	 */
+	public int getDistinctNodes() {
+		return nodes.size();
+	}
+
+	/**
+	 * Returns the number of interned nodes per distinct node kept: 1 when no subtree is
+	 * repeated, or when nothing has been interned
+	 * @return The compression ratio
+	 */
+	public double getCompressionRatio() {
+		return nodes.isEmpty() ? 1.0 : (double) internedNodes / nodes.size();
+	}
+
+	/**
+	 * Drops all the nodes kept by this interner and resets its counts. The trees interned so
+	 * far stay valid, but they are no longer shared with the trees interned afterwards
+	 */
+	public void clear() {
+		nodes.clear();
+		internedNodes = 0;
+	}
+
+	/**
+	 * Returns the compression report of this interner
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return String.format("%d nodes interned as %d distinct nodes, compression ratio %.2f",
+				internedNodes, nodes.size(), this.getCompressionRatio());
+	}
+
+	/**
+	 * Helper method which returns the kept instance equal to the given node, keeping the node
+	 * if there is none. The children of the node must be interned already
+	 * @param node The node to be interned
+	 * @return The interned node
+	 */
+	private PersistentBinaryTree<V> canonical(PersistentBinaryTree<V> node) {
+		PersistentBinaryTree<V> kept = nodes.putIfAbsent(node, node);
+		return (kept == null) ? node : kept;
+	}
+
+	/**
+	 * Helper method which returns the interned instance of a node of the tree being interned
+	 * @param node The node, or null
+	 * @param done The interned instances of the nodes interned by this call
+	 * @return The interned node, or null
+	 */
+	private PersistentBinaryTree<V> internedOf(PersistentBinaryTree<V> node, Map<PersistentBinaryTree<V>, PersistentBinaryTree<V>> done) {
+		if(node == null)
+			return null;
+		PersistentBinaryTree<V> interned = done.get(node);
+		return (interned == null) ? node : interned;
+	}
+}
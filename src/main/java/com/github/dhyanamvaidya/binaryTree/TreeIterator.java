@@ -0,0 +1,133 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Pull based Iterator over the nodes of a BinaryTree in a given TraversalOrder.
+ * It uses an explicit array backed stack instead of recursion, so it works on trees
+ * of any depth, and it allocates nothing per node once the stack is big enough.
+ * The LEVEL_ORDER iterator uses an array backed queue (see NodeQueue) in the same way.
+ * The tree must not be structurally modified while it is being iterated over
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public class TreeIterator<V> implements Iterator<BinaryTree<V>> {
+
+	/* Marks kept along with the nodes on the stack */
+	private static final int ENTERED = 0;
+	private static final int LEFT_DONE = 1;
+	private static final int RIGHT_DONE = 2;
+
+	private final TraversalOrder order;
+	private final NodeStack<BinaryTree<V>> stack;
+	private final NodeQueue<BinaryTree<V>> queue;
+
+	/**
+	 * Creates an Iterator over the tree rooted at the given node
+	 * @param root The root of the tree to be iterated over, may be null for an empty iteration
+	 * @param order The order in which the nodes are to be returned
+	 */
+	public TreeIterator(BinaryTree<V> root, TraversalOrder order) {
+		if(order == null)
+			throw new NullPointerException("order");
+		this.order = order;
+		if(order == TraversalOrder.LEVEL_ORDER) {
+			this.stack = null;
+			this.queue = new NodeQueue<BinaryTree<V>>();
+			if(root != null)
+				this.queue.add(root, 0);
+		}
+		else {
+			this.stack = new NodeStack<BinaryTree<V>>();
+			this.queue = null;
+			if(root != null)
+				this.stack.push(root, ENTERED);
+		}
+	}
+
+	/**
+	 * Returns <code>true</code> if there are more nodes to be visited
+	 * @return <code>true</code> if the iteration has more nodes
+	 */
+	@Override
+	public boolean hasNext() {
+		return (queue != null) ? !queue.isEmpty() : !stack.isEmpty();
+	}
+
+	/**
+	 * Returns the next node in the TraversalOrder of this Iterator
+	 * @return The next node
+	 * @throws NoSuchElementException If there are no more nodes
+	 */
+	@Override
+	public BinaryTree<V> next() {
+		if(!this.hasNext())
+			throw new NoSuchElementException();
+		switch(order) {
+		case PRE_ORDER:
+			return nextPreOrder();
+		case IN_ORDER:
+			return nextInOrder();
+		case POST_ORDER:
+			return nextPostOrder();
+		default:
+			return nextLevelOrder();
+		}
+	}
+
+	private BinaryTree<V> nextPreOrder() {
+		BinaryTree<V> node = stack.pop();
+		if(node.rightChild != null)
+			stack.push(node.rightChild, ENTERED);
+		if(node.leftChild != null)
+			stack.push(node.leftChild, ENTERED);
+		return node;
+	}
+
+	private BinaryTree<V> nextInOrder() {
+		BinaryTree<V> node = stack.peek();
+		while(stack.peekMark() == ENTERED) {
+			stack.setMark(LEFT_DONE);
+			if(node.leftChild != null) {
+				node = node.leftChild;
+				stack.push(node, ENTERED);
+			}
+		}
+		stack.pop();
+		if(node.rightChild != null)
+			stack.push(node.rightChild, ENTERED);
+		return node;
+	}
+
+	private BinaryTree<V> nextPostOrder() {
+		while(true) {
+			BinaryTree<V> node = stack.peek();
+			int mark = stack.peekMark();
+			if(mark == ENTERED) {
+				stack.setMark(LEFT_DONE);
+				if(node.leftChild != null)
+					stack.push(node.leftChild, ENTERED);
+			}
+			else if(mark == LEFT_DONE) {
+				stack.setMark(RIGHT_DONE);
+				if(node.rightChild != null)
+					stack.push(node.rightChild, ENTERED);
+			}
+			else
+				return stack.pop();
+		}
+	}
+
+	private BinaryTree<V> nextLevelOrder() {
+		BinaryTree<V> node = queue.remove();
+		if(node.leftChild != null)
+			queue.add(node.leftChild, 0);
+		if(node.rightChild != null)
+			queue.add(node.rightChild, 0);
+		return node;
+	}
+}
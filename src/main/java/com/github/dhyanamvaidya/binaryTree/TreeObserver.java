@@ -0,0 +1,53 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+/**
+ * Something kept about the BinaryTree rooted at a node which has to hear about the changes of
+ * the tree: the history of its snapshots or an index of its nodes. An observer is held by the
+ * root of its tree, so a modified node finds the observers of its tree by walking up to its
+ * root. When an observer opens, every node of its tree is marked as observed, and so are the
+ * subtrees linked into the tree while it is open; only the modifications of marked nodes walk
+ * up, the other trees are not slowed down. A marked node finding no open observer drops its mark
+ *
+ * @param <V> The type of values held in the Tree
+ */
+abstract class TreeObserver<V> {
+
+	/**
+	 * Gets the root of the observed tree, the node holding this observer
+	 * @return The root node
+	 */
+	abstract BinaryTree<V> getRoot();
+
+	/**
+	 * Returns <code>true</code> if this observer still has to hear about the changes
+	 * @return <code>true</code> if this observer is open
+	 */
+	abstract boolean isOpen();
+
+	/**
+	 * Called before the value or a child of a node of the observed tree changes. Does nothing
+	 * by default
+	 * @param node The node about to be modified
+	 */
+	void beforeChange(BinaryTree<V> node) {
+	}
+
+	/**
+	 * Called after a child of a node of the observed tree has been replaced, or the tree
+	 * has been reshaped. Does nothing by default
+	 */
+	void shapeChanged() {
+	}
+
+	/**
+	 * Returns <code>true</code> if the subtrees removed from the observed tree keep this
+	 * observer, so that their later modifications are still observed
+	 * @return <code>true</code> if the removed subtrees are still observed
+	 */
+	boolean followsRemovedSubtrees() {
+		return false;
+	}
+}
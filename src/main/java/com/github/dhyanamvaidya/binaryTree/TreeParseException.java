@@ -0,0 +1,34 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+/**
+ * Thrown by BinaryTree.parse when the tree description is not well formed.
+ * The message and getOffset() tell the offset of the character at which the error was found
+ */
+public class TreeParseException extends IllegalArgumentException {
+
+	private static final long serialVersionUID = 1L;
+
+	private final long offset;
+
+	/**
+	 * Creates the exception for an error found at the given offset
+	 * @param message The description of the error
+	 * @param offset The offset of the character at which the error was found
+	 */
+	public TreeParseException(String message, long offset) {
+		super(message + " at offset " + offset);
+		this.offset = offset;
+	}
+
+	/**
+	 * Gets the offset of the character at which the error was found, counted in chars
+	 * from the start of the tree description
+	 * @return The offset of the error
+	 */
+	public long getOffset() {
+		return offset;
+	}
+}
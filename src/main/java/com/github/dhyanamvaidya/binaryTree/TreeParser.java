@@ -0,0 +1,284 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single pass parser of the tree descriptions accepted by BinaryTree.parse.
+ * It reads the description one character at a time through a cursor, never copies
+ * anything but the values themselves, and keeps the nodes whose children are still
+ * being read on an explicit stack, so that descriptions of any depth can be parsed.
+ * The characters come from the read() method, implemented for each kind of source
+ */
+abstract class TreeParser {
+
+	private static final int EOF = -1;
+	private static final int NONE = -2;
+	
+	/** The largest part of a file mapped at once, a MappedByteBuffer can not exceed 2GB */
+	static final long MAPPING_SIZE = 1 << 30;
+	/** The smallest part of a file mapped at once, the length of the longest UTF-8 character */
+	static final long MIN_MAPPING_SIZE = 4;
+
+	private final StringBuilder token = new StringBuilder();
+	private int next = NONE;
+	private long offset = 0;
+
+	/**
+	 * Reads the next character of the description
+	 * @return The next character, or -1 at the end of the description
+	 * @throws IOException If the source can not be read
+	 */
+	abstract int read() throws IOException;
+
+	/**
+	 * Creates a parser reading the given CharSequence
+	 * @param treeDescription The description to be parsed
+	 * @return The parser
+	 */
+	static TreeParser of(final CharSequence treeDescription) {
+		return new TreeParser() {
+			private int position = 0;
+
+			@Override
+			int read() {
+				return position < treeDescription.length() ? treeDescription.charAt(position++) : EOF;
+			}
+		};
+	}
+
+	/**
+	 * Creates a parser reading the given Reader through its own buffer
+	 * @param reader The Reader of the description to be parsed
+	 * @return The parser
+	 */
+	static TreeParser of(final Reader reader) {
+		return new TreeParser() {
+			private final char[] buffer = new char[8192];
+			private int position = 0;
+			private int limit = 0;
+
+			@Override
+			int read() throws IOException {
+				if(position == limit) {
+					limit = reader.read(buffer, 0, buffer.length);
+					position = 0;
+					if(limit <= 0) {
+						limit = 0;
+						return EOF;
+					}
+				}
+				return buffer[position++];
+			}
+		};
+	}
+
+	/**
+	 * Creates a parser reading the UTF-8 description in the given file directly from the
+	 * mapped bytes of the file, a chunk of at most chunkSize bytes being mapped at a time.
+	 * The bytes are decoded into a small buffer, so the text of the file is never held on heap
+	 * @param channel The channel of the file to be parsed
+	 * @param chunkSize The maximum number of bytes mapped at a time, at least MIN_MAPPING_SIZE
+	 * @return The parser
+	 * @throws IllegalArgumentException If chunkSize is below MIN_MAPPING_SIZE or above 2^31-1
+	 * @throws IOException If the size of the file can not be read
+	 */
+	static TreeParser of(final FileChannel channel, final long chunkSize) throws IOException {
+		/* A chunk must hold any character, or the remapping at the end of a chunk makes no progress */
+		if(chunkSize < MIN_MAPPING_SIZE || chunkSize > Integer.MAX_VALUE)
+			throw new IllegalArgumentException("chunkSize must be between " + MIN_MAPPING_SIZE
+					+ " and " + Integer.MAX_VALUE + ": " + chunkSize);
+		final long size = channel.size();
+		return new TreeParser() {
+			private final CharsetDecoder decoder = StandardCharsets.UTF_8.newDecoder()
+					.onMalformedInput(CodingErrorAction.REPORT)
+					.onUnmappableCharacter(CodingErrorAction.REPORT);
+			/* Empty until the first fill, position and limit 0 */
+			private final CharBuffer chars = CharBuffer.wrap(new char[8192], 0, 0);
+			private ByteBuffer bytes = null;
+			private long start = 0;
+			private boolean flushed = false;
+
+			@Override
+			int read() throws IOException {
+				if(!chars.hasRemaining() && !this.fill())
+					return EOF;
+				return chars.get();
+			}
+
+			/**
+			 * Decodes the next characters into the buffer, mapping the next chunk of the file
+			 * when the current one is used up. A character whose bytes are split between two
+			 * chunks is decoded from the next one, which starts at its first byte
+			 * @return <code>false</code> if the end of the file has been reached
+			 */
+			private boolean fill() throws IOException {
+				if(flushed)
+					return false;
+				chars.clear();
+				while(true) {
+					if(bytes == null || (bytes.remaining() < 4 && start + bytes.limit() < size)) {
+						long from = bytes == null ? 0 : start + bytes.position();
+						bytes = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(chunkSize, size - from));
+						start = from;
+					}
+					boolean lastChunk = start + bytes.limit() == size;
+					CoderResult result = decoder.decode(bytes, chars, lastChunk);
+					if(result.isError())
+						result.throwException();
+					if(lastChunk && !bytes.hasRemaining() && !flushed && result.isUnderflow())
+						flushed = decoder.flush(chars).isUnderflow();
+					if(chars.position() > 0 || (lastChunk && flushed)) {
+						chars.flip();
+						return chars.hasRemaining();
+					}
+				}
+			}
+		};
+	}
+
+	/**
+	 * Creates the nodes of the parsed tree and links them together, so that the same parser
+	 * builds the trees of any node type
+	 * @param <T> The type of the nodes
+	 */
+	interface NodeFactory<T> {
+
+		/**
+		 * Creates a node
+		 * @param value The text of the value of the node
+		 * @param offset The offset of the end of the value, for the errors
+		 * @return The node
+		 * @throws TreeParseException If the value is not valid for this kind of node
+		 */
+		T create(String value, long offset);
+
+		/**
+		 * Links a node as a child of another one
+		 * @param parent The parent node
+		 * @param child The child node
+		 * @param left <code>true</code> for the left child, <code>false</code> for the right one
+		 */
+		void link(T parent, T child, boolean left);
+	}
+
+	/** The factory of the BinaryTree&lt;String&gt; nodes built by BinaryTree.parse */
+	private static final NodeFactory<BinaryTree<String>> BINARY_TREES = new NodeFactory<BinaryTree<String>>() {
+		@Override
+		public BinaryTree<String> create(String value, long offset) {
+			return new BinaryTree<String>(value);
+		}
+
+		@Override
+		public void link(BinaryTree<String> parent, BinaryTree<String> child, boolean left) {
+			if(left)
+				parent.linkLeftChild(child);
+			else
+				parent.linkRightChild(child);
+		}
+	};
+
+	/**
+	 * Parses the whole description
+	 * @return The root of the parsed tree
+	 * @throws IOException If the source can not be read
+	 * @throws TreeParseException If the description is not well formed
+	 */
+	BinaryTree<String> parse() throws IOException {
+		return this.parse(BINARY_TREES);
+	}
+
+	/**
+	 * Parses the whole description into nodes created by the given factory
+	 * @param factory The factory of the nodes
+	 * @return The root of the parsed tree
+	 * @throws IOException If the source can not be read
+	 * @throws TreeParseException If the description is not well formed
+	 */
+	<T> T parse(NodeFactory<T> factory) throws IOException {
+		/* The mark of a node on the stack is the number of its children read so far */
+		NodeStack<T> stack = new NodeStack<T>();
+		T root = this.readNode(factory, stack, true);
+		while(!stack.isEmpty()) {
+			this.skipWhitespace();
+			int c = this.peek();
+			if(c == ')') {
+				this.consume();
+				stack.pop();
+			}
+			else if(c == EOF)
+				throw new TreeParseException("Missing ')'", offset);
+			else {
+				int children = stack.peekMark();
+				if(children == 2)
+					throw new TreeParseException("More than two children", offset);
+				T parent = stack.peek();
+				stack.setMark(children+1);
+				T child = this.readNode(factory, stack, false);
+				factory.link(parent, child, children == 0);
+			}
+		}
+		this.skipWhitespace();
+		if(this.peek() != EOF)
+			throw new TreeParseException("Unexpected '" + (char) this.peek() + "'", offset);
+		return root;
+	}
+
+	/**
+	 * Reads the value of a node and, when it is followed by an opening parenthesis,
+	 * consumes it and pushes the node so that its children are read next. The value of the
+	 * root runs up to its opening parenthesis or to the end of the description and may
+	 * contain whitespace, as the first versions of parse accepted: "a b" is a single node
+	 * whose value is "a b". The values of the children end at the first whitespace
+	 * @param factory The factory of the nodes
+	 * @param stack The stack of nodes whose children are being read
+	 * @param root <code>true</code> for the root of the tree
+	 * @return The node read
+	 * @throws IOException If the source can not be read
+	 */
+	private <T> T readNode(NodeFactory<T> factory, NodeStack<T> stack, boolean root) throws IOException {
+		this.skipWhitespace();
+		token.setLength(0);
+		int c = this.peek();
+		while(c != EOF && c != '(' && c != ')' && (root || !Character.isWhitespace(c))) {
+			token.append((char) c);
+			this.consume();
+			c = this.peek();
+		}
+		while(token.length() > 0 && Character.isWhitespace(token.charAt(token.length()-1)))
+			token.setLength(token.length()-1);
+		T node = factory.create(token.toString(), offset);
+		this.skipWhitespace();
+		if(this.peek() == '(') {
+			this.consume();
+			stack.push(node, 0);
+		}
+		return node;
+	}
+
+	private void skipWhitespace() throws IOException {
+		while(this.peek() != EOF && Character.isWhitespace(this.peek()))
+			this.consume();
+	}
+
+	private int peek() throws IOException {
+		if(next == NONE)
+			next = this.read();
+		return next;
+	}
+
+	private void consume() {
+		next = NONE;
+		offset++;
+	}
+}
@@ -0,0 +1,250 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.util.Iterator;
+
+/**
+ * Writes BinaryTrees in a compact binary format and reads them back. Unlike toString(),
+ * the format keeps every node, including single children and null values.
+ *
+ * The format is a header (the magic number "BTRE" and a version byte) followed by blocks
+ * of at most BLOCK_SIZE nodes in preOrder, and an empty block at the end. A block is
+ *  -- the number of nodes in it, as a variable length integer
+ *  -- 4 structure bits per node (has a left child, has a right child, has a null value),
+ *  	2 nodes per byte
+ *  -- the non null values of its nodes, written by the ValueCodec
+ * Writing goes through a fixed size buffer and both writing and reading handle a block of
+ * nodes at a time, so trees of any size and depth are streamed with bounded memory. Reading
+ * stops right after the tree, so several trees can be read back from the same stream
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public class TreeSerializer<V> {
+
+	/** The number of nodes in a block */
+	public static final int BLOCK_SIZE = 4096;
+
+	private static final int MAGIC = 0x42545245;
+	private static final int VERSION = 1;
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private static final int HAS_LEFT = 1;
+	private static final int HAS_RIGHT = 2;
+	private static final int NULL_VALUE = 4;
+
+	private final ValueCodec<V> codec;
+
+	/**
+	 * Creates a serializer writing the values with the given codec
+	 * @param codec The codec of the values, see ValueCodecs
+	 */
+	public TreeSerializer(ValueCodec<V> codec) {
+		if(codec == null)
+			throw new NullPointerException("codec");
+		this.codec = codec;
+	}
+
+	/**
+	 * Writes the tree rooted at the given node to the given stream. The stream is flushed
+	 * but not closed
+	 * @param tree The root of the tree to be written, may be null
+	 * @param out The stream to which the tree is written
+	 * @throws IOException If the stream throws an IOException
+	 */
+	public void write(BinaryTree<V> tree, OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+		data.writeInt(MAGIC);
+		data.writeByte(VERSION);
+		@SuppressWarnings("unchecked")
+		BinaryTree<V>[] block = (BinaryTree<V>[]) new BinaryTree<?>[BLOCK_SIZE];
+		Iterator<BinaryTree<V>> iterator = new TreeIterator<V>(tree, TraversalOrder.PRE_ORDER);
+		int count;
+		do {
+			count = 0;
+			while(count < BLOCK_SIZE && iterator.hasNext())
+				block[count++] = iterator.next();
+			ValueCodecs.writeVarInt(count, data);
+			for(int i = 0; i < count; i += 2) {
+				int bits = structureOf(block[i]);
+				if(i+1 < count)
+					bits |= structureOf(block[i+1]) << 4;
+				data.writeByte(bits);
+			}
+			for(int i = 0; i < count; i++) {
+				if(block[i].getValue() != null)
+					codec.write(block[i].getValue(), data);
+				block[i] = null;
+			}
+		} while(count > 0);
+		data.flush();
+	}
+
+	/**
+	 * Writes the tree rooted at the given node to the given channel. The channel is not closed
+	 * @param tree The root of the tree to be written, may be null
+	 * @param out The channel to which the tree is written
+	 * @throws IOException If the channel throws an IOException
+	 */
+	public void write(BinaryTree<V> tree, WritableByteChannel out) throws IOException {
+		this.write(tree, Channels.newOutputStream(out));
+	}
+
+	/**
+	 * Reads a tree written by write. Only the bytes of the tree are read, so more trees or
+	 * other data may follow it in the stream. The stream is read as it is: an unbuffered
+	 * stream, such as a FileInputStream, should be wrapped in a BufferedInputStream, through
+	 * which the data following the tree is then read. The stream is not closed
+	 * @param in The stream from which the tree is read
+	 * @return The root of the tree read, or NULL if an empty tree was written
+	 * @throws IOException If the stream throws an IOException or does not hold a tree
+	 */
+	public BinaryTree<V> read(InputStream in) throws IOException {
+		return this.read((DataInput) new DataInputStream(in));
+	}
+
+	/**
+	 * Reads a tree written by write from the given channel. The channel is not closed. A
+	 * SeekableByteChannel, such as a FileChannel, is read through a buffer and then
+	 * positioned right after the tree; any other channel is read as it is, so that
+	 * nothing beyond the tree is read from it
+	 * @param in The channel from which the tree is read
+	 * @return The root of the tree read, or NULL if an empty tree was written
+	 * @throws IOException If the channel throws an IOException or does not hold a tree
+	 */
+	public BinaryTree<V> read(ReadableByteChannel in) throws IOException {
+		if(!(in instanceof SeekableByteChannel))
+			return this.read(Channels.newInputStream(in));
+		SeekableByteChannel channel = (SeekableByteChannel) in;
+		long start = channel.position();
+		CountingInputStream counted = new CountingInputStream(
+				new BufferedInputStream(Channels.newInputStream(channel), BUFFER_SIZE));
+		BinaryTree<V> tree = this.read((DataInput) new DataInputStream(counted));
+		channel.position(start + counted.count);
+		return tree;
+	}
+
+	/**
+	 * Reads a tree written by write from the given input, reading nothing beyond the tree
+	 * @param data The input from which the tree is read
+	 * @return The root of the tree read, or NULL if an empty tree was written
+	 * @throws IOException If the input throws an IOException or does not hold a tree
+	 */
+	public BinaryTree<V> read(DataInput data) throws IOException {
+		if(data.readInt() != MAGIC)
+			throw new IOException("Not a BinaryTree stream");
+		int version = data.readUnsignedByte();
+		if(version != VERSION)
+			throw new IOException("Unsupported BinaryTree stream version " + version);
+
+		byte[] structure = new byte[BLOCK_SIZE];
+		BinaryTree<V> root = null;
+		/* The mark of a node on the stack tells which of its children are still to be read */
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		int count;
+		while((count = ValueCodecs.readVarInt(data)) != 0) {
+			if(count < 0 || count > BLOCK_SIZE || (root != null && stack.isEmpty()))
+				throw new IOException("Corrupted BinaryTree stream");
+			for(int i = 0; i < count; i += 2) {
+				int bits = data.readUnsignedByte();
+				structure[i] = (byte) (bits & 0xF);
+				if(i+1 < count)
+					structure[i+1] = (byte) (bits >>> 4);
+			}
+			for(int i = 0; i < count; i++) {
+				if(root != null && stack.isEmpty())
+					throw new IOException("Corrupted BinaryTree stream");
+				int bits = structure[i];
+				BinaryTree<V> node = new BinaryTree<V>((bits & NULL_VALUE) != 0 ? null : codec.read(data));
+				if(root == null)
+					root = node;
+				else {
+					BinaryTree<V> parent = stack.peek();
+					int pending = stack.peekMark();
+					if((pending & HAS_LEFT) != 0) {
+						parent.linkLeftChild(node);
+						pending &= ~HAS_LEFT;
+					}
+					else {
+						parent.linkRightChild(node);
+						pending &= ~HAS_RIGHT;
+					}
+					if(pending == 0)
+						stack.pop();
+					else
+						stack.setMark(pending);
+				}
+				if((bits & (HAS_LEFT | HAS_RIGHT)) != 0)
+					stack.push(node, bits & (HAS_LEFT | HAS_RIGHT));
+			}
+		}
+		if(!stack.isEmpty())
+			throw new IOException("Truncated BinaryTree stream");
+		return root;
+	}
+
+	private static int structureOf(BinaryTree<?> node) {
+		int bits = 0;
+		if(node.leftChild != null)
+			bits |= HAS_LEFT;
+		if(node.rightChild != null)
+			bits |= HAS_RIGHT;
+		if(node.getValue() == null)
+			bits |= NULL_VALUE;
+		return bits;
+	}
+
+	/**
+	 * Stream counting the bytes read through it
+	 */
+	private static final class CountingInputStream extends FilterInputStream {
+
+		private long count;
+
+		CountingInputStream(InputStream in) {
+			super(in);
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = in.read();
+			if(b >= 0)
+				count++;
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int read = in.read(b, off, len);
+			if(read > 0)
+				count += read;
+			return read;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			long skipped = in.skip(n);
+			count += skipped;
+			return skipped;
+		}
+
+		@Override
+		public boolean markSupported() {
+			return false;
+		}
+	}
+}
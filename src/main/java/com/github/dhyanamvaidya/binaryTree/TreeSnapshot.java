@@ -0,0 +1,412 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Consumer;
+
+/**
+ * A point-in-time view of the BinaryTree rooted at a node, taken by BinaryTree.snapshot.
+ * The tree can keep being modified: while a snapshot is outstanding, the first modification of
+ * a node saves its previous value and children, and the snapshot reads these saved states
+ * instead of the current ones. Writers never wait for a snapshot, they only copy the state of
+ * the nodes they modify, once per node and snapshot.
+ *
+ * The snapshots of a tree and the states saved for them are kept in the history of the tree,
+ * held by its root, see TreeHistory; a modified node finds the histories of its tree by walking
+ * up to its root, in O(depth), and only while a snapshot of its tree is outstanding, see
+ * TreeObserver. The modifications of the other trees neither walk, save nor retain anything.
+ *
+ * A snapshot must be released, by release or close, when it is no longer needed: the states
+ * saved for it are then dropped at once, unless an older outstanding snapshot still sees them.
+ * The nodes returned by a snapshot are the live nodes of the tree; their values and children
+ * as of the snapshot are read with getValue, getLeftChild and getRightChild of the snapshot.
+ *
+ * Every read looks up the state saved for the node and reads the current one if there is none.
+ * A snapshot of a ConcurrentBinaryTree does it under an optimistic read of the lock of the tree,
+ * retried under the read lock if a writer ran meanwhile, so it can be read by any thread while
+ * other threads write the tree. Like the tree, a snapshot of any other BinaryTree is not
+ * thread-safe: it has to be read by the thread writing the tree
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public final class TreeSnapshot<V> implements AutoCloseable {
+
+	private final BinaryTree<V> root;
+	private final TreeHistory<V> history;
+	private final long version;
+	/* The lock of a ConcurrentBinaryTree, held by the writers while they save and modify a node */
+	private final StampedLock lock;
+	/* The nodes which saved a state seen by this snapshot, guarded by the history */
+	private Set<BinaryTree<V>> savedNodes;
+
+	private static final int VALUE = 0;
+	private static final int LEFT = 1;
+	private static final int RIGHT = 2;
+
+	/**
+	 * Takes a snapshot of the tree rooted at the given node, see BinaryTree.snapshot
+	 * @param root The root of the tree
+	 * @param history The history of the snapshots of the tree
+	 * @param lock The lock of the tree if it is a ConcurrentBinaryTree, or null
+	 */
+	TreeSnapshot(BinaryTree<V> root, TreeHistory<V> history, StampedLock lock) {
+		this.root = root;
+		this.history = history;
+		this.lock = lock;
+		this.savedNodes = Collections.newSetFromMap(new IdentityHashMap<BinaryTree<V>, Boolean>());
+		this.version = history.open(this);
+	}
+
+	/**
+	 * Records that the given node saved a state seen by this snapshot, so that it is pruned
+	 * when this snapshot is released. It is called by the history, which holds its lock
+	 * @param node The node
+	 */
+	void retain(BinaryTree<V> node) {
+		savedNodes.add(node);
+	}
+
+	/**
+	 * Returns the number of nodes which saved a state seen by this snapshot since it was taken,
+	 * the nodes of its tree which have been modified
+	 * @return The number of saved nodes
+	 */
+	public int getSavedNodes() {
+		this.checkOutstanding();
+		synchronized(history) {
+			return savedNodes.size();
+		}
+	}
+
+	/**
+	 * Releases this snapshot and drops the states saved for it which no older outstanding
+	 * snapshot sees. Releasing a snapshot twice has no effect
+	 */
+	public void release() {
+		synchronized(history) {
+			if(savedNodes == null)
+				return;
+			Set<BinaryTree<V>> nodes = savedNodes;
+			savedNodes = null;
+			history.release(version, nodes);
+		}
+	}
+
+	/**
+	 * Releases this snapshot, see release
+	 */
+	@Override
+	public void close() {
+		this.release();
+	}
+
+	/**
+	 * Returns <code>true</code> if this snapshot has been released
+	 * @return <code>true</code> if this snapshot can no longer be read
+	 */
+	public boolean isReleased() {
+		return savedNodes == null;
+	}
+
+	/**
+	 * Gets the root of the tree this snapshot was taken of
+	 * @return The root node
+	 */
+	public BinaryTree<V> getRoot() {
+		this.checkOutstanding();
+		return root;
+	}
+
+	/**
+	 * Gets the value the given node had when this snapshot was taken
+	 * @param node A node of the tree as of this snapshot
+	 * @return The value of the node
+	 */
+	@SuppressWarnings("unchecked")
+	public V getValue(BinaryTree<V> node) {
+		this.checkOutstanding();
+		return (V) this.read(node, VALUE);
+	}
+
+	/**
+	 * Gets the left child the given node had when this snapshot was taken
+	 * @param node A node of the tree as of this snapshot
+	 * @return The left child of the node
+	 */
+	public BinaryTree<V> getLeftChild(BinaryTree<V> node) {
+		this.checkOutstanding();
+		return this.left(node);
+	}
+
+	/**
+	 * Gets the right child the given node had when this snapshot was taken
+	 * @param node A node of the tree as of this snapshot
+	 * @return The right child of the node
+	 */
+	public BinaryTree<V> getRightChild(BinaryTree<V> node) {
+		this.checkOutstanding();
+		return this.right(node);
+	}
+
+	/**
+	 * Returns the number of nodes of the tree as of this snapshot
+	 * @return The number of nodes
+	 */
+	public int size() {
+		int[] size = new int[1];
+		this.walk(TraversalOrder.PRE_ORDER, node -> size[0]++);
+		return size[0];
+	}
+
+	/**
+	 * Returns the height of the tree as of this snapshot, see BinaryTree.getHeight
+	 * @return The height of the tree
+	 */
+	public int getHeight() {
+		this.checkOutstanding();
+		/* The depth of every node is kept as its mark on the stack */
+		int height = 0;
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(root, 0);
+		while(!stack.isEmpty()) {
+			int depth = stack.peekMark();
+			BinaryTree<V> node = stack.pop();
+			if(depth > height)
+				height = depth;
+			BinaryTree<V> left = this.left(node);
+			BinaryTree<V> right = this.right(node);
+			if(right != null)
+				stack.push(right, depth+1);
+			if(left != null)
+				stack.push(left, depth+1);
+		}
+		return height;
+	}
+
+	/**
+	 * Returns the leaves of the tree as of this snapshot, from left to right
+	 * @return The LinkedList containing the leaves
+	 */
+	public LinkedList<BinaryTree<V>> getLeaves() {
+		this.checkOutstanding();
+		LinkedList<BinaryTree<V>> list = new LinkedList<BinaryTree<V>>();
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(root);
+		while(!stack.isEmpty()) {
+			BinaryTree<V> node = stack.pop();
+			BinaryTree<V> left = this.left(node);
+			BinaryTree<V> right = this.right(node);
+			if(left == null && right == null)
+				list.add(node);
+			if(right != null)
+				stack.push(right);
+			if(left != null)
+				stack.push(left);
+		}
+		return list;
+	}
+
+	/**
+	 * Returns the Kth node in inOrder of the tree as of this snapshot, or NULL if not present,
+	 * see BinaryTree.getKthSmallestNode
+	 * @param k The Kth smallest element to be returned
+	 * @return The Kth smallest element
+	 */
+	public BinaryTree<V> getKthSmallestNode(int k) {
+		return this.getKthNode(k, true);
+	}
+
+	/**
+	 * Returns the Kth node in reverse inOrder of the tree as of this snapshot, or NULL if not
+	 * present, see BinaryTree.getKthLargestNode
+	 * @param k The Kth largest element to be returned
+	 * @return The Kth largest element
+	 */
+	public BinaryTree<V> getKthLargestNode(int k) {
+		return this.getKthNode(k, false);
+	}
+
+	/**
+	 * Passes the values of the tree as of this snapshot to the given action in an inOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void inOrderTraversal(Consumer<? super V> action) {
+		this.walk(TraversalOrder.IN_ORDER, node -> action.accept(this.getValue(node)));
+	}
+
+	/**
+	 * Passes the values of the tree as of this snapshot to the given action in a preOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void preOrderTraversal(Consumer<? super V> action) {
+		this.walk(TraversalOrder.PRE_ORDER, node -> action.accept(this.getValue(node)));
+	}
+
+	/**
+	 * Passes the values of the tree as of this snapshot to the given action in a postOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void postOrderTraversal(Consumer<? super V> action) {
+		this.walk(TraversalOrder.POST_ORDER, node -> action.accept(this.getValue(node)));
+	}
+
+	/**
+	 * Passes the values of the tree as of this snapshot to the given action in a levelOrder traversal
+	 * @param action The action to be performed on each value
+	 */
+	public void levelOrderTraversal(Consumer<? super V> action) {
+		this.walk(TraversalOrder.LEVEL_ORDER, node -> action.accept(this.getValue(node)));
+	}
+
+	/**
+	 * Builds a new BinaryTree with the values and shape of the tree as of this snapshot
+	 * @return The root of the copy
+	 */
+	public BinaryTree<V> toBinaryTree() {
+		BinaryTree<V> copy = new BinaryTree<V>(this.getValue(root));
+		/* The nodes and their copies are pushed one after the other */
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		stack.push(root);
+		stack.push(copy);
+		while(!stack.isEmpty()) {
+			BinaryTree<V> parent = stack.pop();
+			BinaryTree<V> node = stack.pop();
+			BinaryTree<V> left = this.left(node);
+			BinaryTree<V> right = this.right(node);
+			if(left != null) {
+				BinaryTree<V> child = new BinaryTree<V>(this.getValue(left));
+				parent.linkLeftChild(child);
+				stack.push(left);
+				stack.push(child);
+			}
+			if(right != null) {
+				BinaryTree<V> child = new BinaryTree<V>(this.getValue(right));
+				parent.linkRightChild(child);
+				stack.push(right);
+				stack.push(child);
+			}
+		}
+		return copy;
+	}
+
+	/**
+	 * Returns the description of the tree as of this snapshot, in the same form as BinaryTree.toString
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		if(this.isReleased())
+			return "released snapshot";
+		return TreeWalker.toString(root, this::left, this::right,
+				(node, representation) -> representation.append(this.getValue(node)));
+	}
+
+	/**
+	 * Helper method which returns the left child of the node as of this snapshot
+	 * @param node A node of the tree as of this snapshot
+	 * @return The left child of the node
+	 */
+	@SuppressWarnings("unchecked")
+	private BinaryTree<V> left(BinaryTree<V> node) {
+		return (BinaryTree<V>) this.read(node, LEFT);
+	}
+
+	/**
+	 * Helper method which returns the right child of the node as of this snapshot
+	 * @param node A node of the tree as of this snapshot
+	 * @return The right child of the node
+	 */
+	@SuppressWarnings("unchecked")
+	private BinaryTree<V> right(BinaryTree<V> node) {
+		return (BinaryTree<V>) this.read(node, RIGHT);
+	}
+
+	/**
+	 * Helper method which reads a field of the node as of this snapshot. For a
+	 * ConcurrentBinaryTree, the saved state and the current field are read under an optimistic
+	 * read of its lock, so that a writer can not save and modify the node in between
+	 * @param node A node of the tree as of this snapshot
+	 * @param field VALUE, LEFT or RIGHT
+	 * @return The value or the child of the node
+	 */
+	private Object read(BinaryTree<V> node, int field) {
+		if(lock == null)
+			return this.field(node, field);
+		long stamp = lock.tryOptimisticRead();
+		Object result = this.field(node, field);
+		if(!lock.validate(stamp)) {
+			stamp = lock.readLock();
+			try {
+				result = this.field(node, field);
+			}
+			finally {
+				lock.unlockRead(stamp);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Helper method to read which returns a field of the state saved for this snapshot, or of
+	 * the current state of the node if none is saved
+	 * @param node A node of the tree as of this snapshot
+	 * @param field VALUE, LEFT or RIGHT
+	 * @return The value or the child of the node
+	 */
+	private Object field(BinaryTree<V> node, int field) {
+		NodeVersion<V> saved = history.versionAt(node, version);
+		if(saved == null)
+			return (field == VALUE) ? node.value : (field == LEFT) ? node.leftChild : node.rightChild;
+		return (field == VALUE) ? saved.value : (field == LEFT) ? saved.leftChild : saved.rightChild;
+	}
+
+	/**
+	 * Helper method which walks the tree in inOrder or reverse inOrder until the Kth node
+	 * @param k The rank of the node to be returned
+	 * @param smallest <code>true</code> for inOrder, <code>false</code> for reverse inOrder
+	 * @return The Kth node, or NULL if not present
+	 */
+	private BinaryTree<V> getKthNode(int k, boolean smallest) {
+		this.checkOutstanding();
+		if(k < 1)
+			return null;
+		NodeStack<BinaryTree<V>> stack = new NodeStack<BinaryTree<V>>();
+		BinaryTree<V> node = root;
+		while(node != null || !stack.isEmpty()) {
+			while(node != null) {
+				stack.push(node);
+				node = smallest ? this.left(node) : this.right(node);
+			}
+			node = stack.pop();
+			if(--k == 0)
+				return node;
+			node = smallest ? this.right(node) : this.left(node);
+		}
+		return null;
+	}
+
+	/**
+	 * Helper method which walks the tree as of this snapshot in the given order, passing every
+	 * node to the action
+	 * @param order The order in which the nodes are visited
+	 * @param action The action to be performed on each node
+	 */
+	private void walk(TraversalOrder order, Consumer<BinaryTree<V>> action) {
+		this.checkOutstanding();
+		TreeWalker.walk(root, order, this::left, this::right, action);
+	}
+
+	/**
+	 * Helper method which throws an IllegalStateException if this snapshot has been released
+	 */
+	private void checkOutstanding() {
+		if(this.isReleased())
+			throw new IllegalStateException("The snapshot has been released");
+	}
+}
@@ -0,0 +1,109 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the nodes of a BinaryTree in preOrder which splits at subtree boundaries,
+ * so that parallel streams over a tree can share the work between threads.
+ * Like TreeIterator it uses an explicit stack and works on trees of any depth.
+ * The size of the tree is not known in advance, so the estimated size is halved on every split.
+ * The tree must not be structurally modified while it is being traversed
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public class TreeSpliterator<V> implements Spliterator<BinaryTree<V>> {
+
+	/* Marks kept along with the nodes on the stack */
+	private static final int SUBTREE = 0;
+	private static final int NODE_ONLY = 1;
+
+	private final NodeStack<BinaryTree<V>> stack;
+	private long estimate;
+
+	/**
+	 * Creates a Spliterator over the tree rooted at the given node
+	 * @param root The root of the tree to be traversed, may be null for an empty tree
+	 */
+	public TreeSpliterator(BinaryTree<V> root) {
+		this(root == null ? 0 : Long.MAX_VALUE);
+		if(root != null)
+			this.stack.push(root, SUBTREE);
+	}
+
+	private TreeSpliterator(long estimate) {
+		this.stack = new NodeStack<BinaryTree<V>>();
+		this.estimate = estimate;
+	}
+
+	@Override
+	public boolean tryAdvance(Consumer<? super BinaryTree<V>> action) {
+		if(stack.isEmpty())
+			return false;
+		action.accept(this.pop());
+		return true;
+	}
+
+	@Override
+	public void forEachRemaining(Consumer<? super BinaryTree<V>> action) {
+		while(!stack.isEmpty())
+			action.accept(this.pop());
+	}
+
+	/**
+	 * Helper method which removes the next node from the stack, pushing its children if its
+	 * subtree has to be traversed
+	 * @return The next node in preOrder
+	 */
+	private BinaryTree<V> pop() {
+		int mark = stack.peekMark();
+		BinaryTree<V> node = stack.pop();
+		if(mark == SUBTREE) {
+			if(node.rightChild != null)
+				stack.push(node.rightChild, SUBTREE);
+			if(node.leftChild != null)
+				stack.push(node.leftChild, SUBTREE);
+		}
+		return node;
+	}
+
+	/**
+	 * Splits off the nodes which come first in preOrder. When more than one subtree is
+	 * pending, the half of them to be traversed first is split off; when a single subtree
+	 * is pending, its root and left subtree are split off and its right subtree is kept
+	 * @return The Spliterator over the first part of the nodes, or NULL if this one can not be split
+	 */
+	@Override
+	public Spliterator<BinaryTree<V>> trySplit() {
+		int pending = stack.size();
+		if(pending == 1 && (stack.peekMark() == NODE_ONLY || stack.peek().isLeaf()))
+			pending = 0;
+		if(pending == 0)
+			return null;
+		estimate >>>= 1;
+		TreeSpliterator<V> prefix = new TreeSpliterator<V>(estimate);
+		if(pending > 1) {
+			stack.moveTopTo(prefix.stack, pending / 2);
+			return prefix;
+		}
+		BinaryTree<V> node = stack.pop();
+		if(node.rightChild != null && node.leftChild != null)
+			prefix.stack.push(node.leftChild, SUBTREE);
+		prefix.stack.push(node, NODE_ONLY);
+		stack.push(node.rightChild != null ? node.rightChild : node.leftChild, SUBTREE);
+		return prefix;
+	}
+
+	@Override
+	public long estimateSize() {
+		return stack.isEmpty() ? 0 : Math.max(estimate, 1);
+	}
+
+	@Override
+	public int characteristics() {
+		return Spliterator.ORDERED | Spliterator.DISTINCT | Spliterator.NONNULL;
+	}
+}
@@ -0,0 +1,31 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+/**
+ * Callbacks of a depth first walk over a BinaryTree, see BinaryTree.traverse(TreeVisitor).
+ * Every node is entered before any node of its subtrees (preOrder) and left after all the
+ * nodes of its subtrees (postOrder). Both callbacks do nothing by default, so a visitor
+ * only needs to implement the ones it is interested in
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public interface TreeVisitor<V> {
+
+	/**
+	 * Called when the walk reaches a node, before its children are visited
+	 * @param node The node being entered
+	 * @param depth The depth of the node, the node on which the walk started has depth 0
+	 */
+	default void enter(BinaryTree<? extends V> node, int depth) {
+	}
+
+	/**
+	 * Called when the walk leaves a node, after its children are visited
+	 * @param node The node being left
+	 * @param depth The depth of the node, the node on which the walk started has depth 0
+	 */
+	default void leave(BinaryTree<? extends V> node, int depth) {
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * The explicit stack walk and description shared by the trees whose nodes are not plain
+ * BinaryTree fields, given functions which return the children of a node and append its value.
+ * Neither method recurses, so trees of any depth are supported. IndexedBinaryTree keeps its own
+ * walk over int handles, which would otherwise be boxed for every node
+ */
+final class TreeWalker {
+
+	/**
+	 * Walks the tree rooted at the given node in the given order, passing every node to the action
+	 * @param root The root of the tree
+	 * @param order The order in which the nodes are visited
+	 * @param left The function returning the left child of a node, or NULL
+	 * @param right The function returning the right child of a node, or NULL
+	 * @param action The action to be performed on each node
+	 */
+	static <T> void walk(T root, TraversalOrder order, UnaryOperator<T> left, UnaryOperator<T> right,
+			Consumer<? super T> action) {
+		if(order == TraversalOrder.LEVEL_ORDER) {
+			NodeQueue<T> queue = new NodeQueue<T>();
+			queue.add(root, 0);
+			while(!queue.isEmpty()) {
+				T node = queue.remove();
+				action.accept(node);
+				T child = left.apply(node);
+				if(child != null)
+					queue.add(child, 0);
+				child = right.apply(node);
+				if(child != null)
+					queue.add(child, 0);
+			}
+			return;
+		}
+		/* The mark of a node tells which of its children have been pushed already */
+		NodeStack<T> stack = new NodeStack<T>();
+		stack.push(root, 0);
+		while(!stack.isEmpty()) {
+			T node = stack.peek();
+			int mark = stack.peekMark();
+			if(mark == 0) {
+				if(order == TraversalOrder.PRE_ORDER)
+					action.accept(node);
+				stack.setMark(1);
+				T child = left.apply(node);
+				if(child != null)
+					stack.push(child, 0);
+			}
+			else if(mark == 1) {
+				if(order == TraversalOrder.IN_ORDER)
+					action.accept(node);
+				stack.setMark(2);
+				T child = right.apply(node);
+				if(child != null)
+					stack.push(child, 0);
+			}
+			else {
+				stack.pop();
+				if(order == TraversalOrder.POST_ORDER)
+					action.accept(node);
+			}
+		}
+	}
+
+	/**
+	 * Returns the description of the tree rooted at the given node, in the same form as
+	 * BinaryTree.toString
+	 * @param root The root of the tree
+	 * @param left The function returning the left child of a node, or NULL
+	 * @param right The function returning the right child of a node, or NULL
+	 * @param value The action appending the value of a node to the description
+	 * @return The description of the tree
+	 */
+	static <T> String toString(T root, UnaryOperator<T> left, UnaryOperator<T> right,
+			BiConsumer<? super T, StringBuilder> value) {
+		StringBuilder representation = new StringBuilder();
+		/* Mark 0: the value is next, 1: the closing parenthesis is next, 2: a space and the value are next */
+		NodeStack<T> stack = new NodeStack<T>();
+		stack.push(root, 0);
+		while(!stack.isEmpty()) {
+			T node = stack.peek();
+			int mark = stack.peekMark();
+			if(mark == 1) {
+				representation.append(')');
+				stack.pop();
+				continue;
+			}
+			if(mark == 2)
+				representation.append(' ');
+			value.accept(node, representation);
+			T leftChild = left.apply(node);
+			T rightChild = right.apply(node);
+			if(leftChild != null && rightChild != null) {
+				representation.append('(');
+				stack.setMark(1);
+				stack.push(rightChild, 2);
+				stack.push(leftChild, 0);
+			}
+			else
+				stack.pop();
+		}
+		return representation.toString();
+	}
+
+	private TreeWalker() {
+	}
+}
@@ -0,0 +1,34 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Writes and reads the values of the nodes for the binary format of TreeSerializer.
+ * The codec is only called for non null values. See ValueCodecs for the codecs of the
+ * common value types
+ *
+ * @param <V> The type of values held in the Tree
+ */
+public interface ValueCodec<V> {
+
+	/**
+	 * Writes the given value
+	 * @param value The value to be written, never null
+	 * @param out The output to which the value is written
+	 * @throws IOException If the output throws an IOException
+	 */
+	void write(V value, DataOutput out) throws IOException;
+
+	/**
+	 * Reads a value written by write(V, DataOutput)
+	 * @param in The input from which the value is read
+	 * @return The value read
+	 * @throws IOException If the input throws an IOException
+	 */
+	V read(DataInput in) throws IOException;
+}
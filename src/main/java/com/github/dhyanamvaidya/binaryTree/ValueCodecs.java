@@ -0,0 +1,159 @@
+/**
+ *
+ */
+package main.java.com.github.dhyanamvaidya.binaryTree;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * ValueCodecs for the common value types, along with the helpers they use to write
+ * variable length integers
+ */
+public final class ValueCodecs {
+
+	/** The number of bytes of a String read at first, before its length is known to be in the input */
+	private static final int CHUNK_SIZE = 8192;
+
+	/** Writes a String as its length in bytes followed by its UTF-8 bytes */
+	public static final ValueCodec<String> STRING = new ValueCodec<String>() {
+		@Override
+		public void write(String value, DataOutput out) throws IOException {
+			byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+			writeVarInt(bytes.length, out);
+			out.write(bytes);
+		}
+
+		@Override
+		public String read(DataInput in) throws IOException {
+			return new String(readBytes(readVarInt(in), in), StandardCharsets.UTF_8);
+		}
+	};
+
+	/** Writes an Integer as a zig-zag encoded variable length integer */
+	public static final ValueCodec<Integer> INTEGER = new ValueCodec<Integer>() {
+		@Override
+		public void write(Integer value, DataOutput out) throws IOException {
+			writeVarLong(zigZag(value), out);
+		}
+
+		@Override
+		public Integer read(DataInput in) throws IOException {
+			return (int) unZigZag(readVarLong(in));
+		}
+	};
+
+	/** Writes a Long as a zig-zag encoded variable length integer */
+	public static final ValueCodec<Long> LONG = new ValueCodec<Long>() {
+		@Override
+		public void write(Long value, DataOutput out) throws IOException {
+			writeVarLong(zigZag(value), out);
+		}
+
+		@Override
+		public Long read(DataInput in) throws IOException {
+			return unZigZag(readVarLong(in));
+		}
+	};
+
+	/** Writes a Double as its 8 bytes */
+	public static final ValueCodec<Double> DOUBLE = new ValueCodec<Double>() {
+		@Override
+		public void write(Double value, DataOutput out) throws IOException {
+			out.writeDouble(value);
+		}
+
+		@Override
+		public Double read(DataInput in) throws IOException {
+			return in.readDouble();
+		}
+	};
+
+	private ValueCodecs() {
+	}
+
+	/**
+	 * Writes a non negative int in 7 bit groups, the high bit of each byte telling whether
+	 * another byte follows
+	 * @param value The value to be written
+	 * @param out The output to which the value is written
+	 * @throws IOException If the output throws an IOException
+	 */
+	public static void writeVarInt(int value, DataOutput out) throws IOException {
+		writeVarLong(value & 0xFFFFFFFFL, out);
+	}
+
+	/**
+	 * Reads an int written by writeVarInt
+	 * @param in The input from which the value is read
+	 * @return The value read
+	 * @throws IOException If the input throws an IOException
+	 */
+	public static int readVarInt(DataInput in) throws IOException {
+		return (int) readVarLong(in);
+	}
+
+	/**
+	 * Writes a long in 7 bit groups, the high bit of each byte telling whether another byte follows
+	 * @param value The value to be written, taken as unsigned
+	 * @param out The output to which the value is written
+	 * @throws IOException If the output throws an IOException
+	 */
+	public static void writeVarLong(long value, DataOutput out) throws IOException {
+		while((value & ~0x7FL) != 0) {
+			out.writeByte((int) (value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.writeByte((int) value);
+	}
+
+	/**
+	 * Reads a long written by writeVarLong
+	 * @param in The input from which the value is read
+	 * @return The value read
+	 * @throws IOException If the input throws an IOException
+	 */
+	public static long readVarLong(DataInput in) throws IOException {
+		long value = 0;
+		for(int shift = 0; shift < 64; shift += 7) {
+			int b = in.readUnsignedByte();
+			value |= (long) (b & 0x7F) << shift;
+			if((b & 0x80) == 0)
+				return value;
+		}
+		throw new IOException("Malformed variable length integer");
+	}
+
+	/**
+	 * Reads the given number of bytes. The array grows as the bytes arrive, so a corrupted
+	 * length makes the input run out of bytes instead of allocating the whole length upfront
+	 * @param length The number of bytes to be read
+	 * @param in The input from which the bytes are read
+	 * @return The bytes read
+	 * @throws IOException If the length is negative, or the input ends or throws an IOException
+	 */
+	private static byte[] readBytes(int length, DataInput in) throws IOException {
+		if(length < 0)
+			throw new IOException("Negative length " + length);
+		byte[] bytes = new byte[Math.min(length, CHUNK_SIZE)];
+		int read = 0;
+		while(true) {
+			in.readFully(bytes, read, bytes.length - read);
+			read = bytes.length;
+			if(read == length)
+				return bytes;
+			bytes = Arrays.copyOf(bytes, (int) Math.min(length, 2L * read));
+		}
+	}
+
+	private static long zigZag(long value) {
+		return (value << 1) ^ (value >> 63);
+	}
+
+	private static long unZigZag(long value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+}
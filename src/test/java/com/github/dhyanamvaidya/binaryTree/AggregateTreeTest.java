@@ -0,0 +1,160 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.Comparator;
+import java.util.Iterator;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.AggregateTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.Aggregators;
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the AggregateTree
+ */
+public class AggregateTreeTest {
+
+	AggregateTree<Integer, Long> root;
+
+	@Before
+	public void setUp() throws Exception {
+		Integer[] values = new Integer[15];
+		for(int i = 0; i < values.length; i++)
+			values[i] = 2*(i+1);
+		root = AggregateTree.of(BinaryTree.fromSorted(values), Aggregators.INTEGER_SUM, Comparator.<Integer>naturalOrder());
+	}
+
+	@Test
+	public void testOf() {
+		assertEquals(15, root.size());
+		assertEquals(Integer.valueOf(16), root.getValue());
+		assertEquals(Long.valueOf(240), root.getAggregate());
+		assertEquals(Long.valueOf(56), root.getLeftChild().getAggregate());
+		assertNull(AggregateTree.of(null, Aggregators.INTEGER_SUM, Comparator.<Integer>naturalOrder()));
+	}
+
+	@Test
+	public void testRangeAggregate() {
+		for(int lo = 0; lo <= 31; lo++)
+			for(int hi = 0; hi <= 31; hi++)
+				assertEquals("[" + lo + ", " + hi + "]", Long.valueOf(bruteForce(root, lo, hi)), root.rangeAggregate(lo, hi));
+		assertEquals(Long.valueOf(0), root.rangeAggregate(20, 10));
+		assertEquals(Long.valueOf(0), root.rangeAggregate(31, 40));
+	}
+
+	@Test
+	public void testAggregateAfterUpdates() {
+		AggregateTree<Integer, Long> leftSubTree = root.getLeftChild();
+		root.removeLeftChild();
+		assertEquals(Long.valueOf(184), root.getAggregate());
+		assertEquals(Long.valueOf(56), leftSubTree.getAggregate());
+
+		AggregateTree<Integer, Long> leaf = root.getRightChild().getLeftChild().getLeftChild();
+		assertEquals(Integer.valueOf(18), leaf.getValue());
+		leaf.setValue(100);
+		assertEquals(Long.valueOf(266), root.getAggregate());
+
+		leaf.setLeftChild(leftSubTree);
+		assertEquals(Long.valueOf(322), root.getAggregate());
+		assertEquals(Long.valueOf(156), leaf.getAggregate());
+
+		root.getRightChild().clear();
+		assertEquals(Long.valueOf(16), root.getAggregate());
+		assertEquals(Long.valueOf(0), root.getRightChild().getAggregate());
+	}
+
+	@Test
+	public void testRangeAggregateAfterUpdates() {
+		AggregateTree<Integer, Long> node = root.getRightChild().getRightChild();
+		assertEquals(Integer.valueOf(28), node.getValue());
+		node.removeRightChild();
+		node.getLeftChild().setValue(25);
+		for(int lo = 0; lo <= 31; lo++)
+			for(int hi = lo; hi <= 31; hi++)
+				assertEquals(Long.valueOf(bruteForce(root, lo, hi)), root.rangeAggregate(lo, hi));
+	}
+
+	@Test
+	public void testSetRemovedChild() {
+		AggregateTree<Integer, Long> other = root.newNode(1);
+		other.setRightChild(root.removeRightChild());
+		assertNull(root.getRightChild());
+		assertEquals(Long.valueOf(72), root.getAggregate());
+		assertEquals(Long.valueOf(169), other.getAggregate());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetChildWithParent() {
+		root.newNode(1).setRightChild(root.getRightChild());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetChildRejectsPlainNodes() {
+		root.setLeftChild(new BinaryTree<Integer>(1));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetChildRejectsOtherAggregators() {
+		root.setLeftChild(new AggregateTree<Integer, Integer>(1, Aggregators.COUNT));
+	}
+
+	@Test
+	public void testRebalance() {
+		AggregateTree<Integer, Long> node = new AggregateTree<Integer, Long>(1, Aggregators.INTEGER_SUM);
+		AggregateTree<Integer, Long> degenerate = node;
+		for(int i = 2; i <= 20; i++) {
+			AggregateTree<Integer, Long> child = degenerate.newNode(i);
+			node.setRightChild(child);
+			node = child;
+		}
+		degenerate.rebalance();
+		assertEquals(4, degenerate.getHeight());
+		assertEquals(Long.valueOf(210), degenerate.getAggregate());
+		for(Iterator<BinaryTree<Integer>> iterator = degenerate.iterator(TraversalOrder.POST_ORDER); iterator.hasNext();) {
+			@SuppressWarnings("unchecked")
+			AggregateTree<Integer, Long> subTree = (AggregateTree<Integer, Long>) iterator.next();
+			assertEquals(Long.valueOf(bruteForce(subTree, Integer.MIN_VALUE, Integer.MAX_VALUE)), subTree.getAggregate());
+		}
+		assertEquals(Long.valueOf(5+6+7+8+9+10), degenerate.rangeAggregate(5, 10));
+	}
+
+	@Test
+	public void testMinMaxAndCount() {
+		BinaryTree<String> tree = BinaryTree.parse("m(f(c k) t(p x))");
+		AggregateTree<String, String> min = AggregateTree.of(tree, Aggregators.<String>min(Comparator.naturalOrder()), Comparator.<String>naturalOrder());
+		AggregateTree<String, String> max = AggregateTree.of(tree, Aggregators.<String>max(Comparator.naturalOrder()), Comparator.<String>naturalOrder());
+		AggregateTree<String, Integer> count = AggregateTree.of(tree, Aggregators.COUNT, Comparator.<String>naturalOrder());
+		assertEquals("c", min.getAggregate());
+		assertEquals("x", max.getAggregate());
+		assertEquals(Integer.valueOf(7), count.getAggregate());
+		assertEquals("k", min.rangeAggregate("g", "z"));
+		assertEquals("p", max.rangeAggregate("a", "s"));
+		assertEquals(Integer.valueOf(3), count.rangeAggregate("k", "p"));
+		assertNull(min.rangeAggregate("n", "o"));
+
+		min.getLeftChild().getLeftChild().setValue("a");
+		assertEquals("a", min.getAggregate());
+		min.getLeftChild().getLeftChild().setValue(null);
+		assertEquals("f", min.getAggregate());
+	}
+
+	/**
+	 * Sums the values between lo and hi of the given tree by visiting all its nodes
+	 */
+	private static long bruteForce(BinaryTree<Integer> tree, int lo, int hi) {
+		long sum = 0;
+		for(Iterator<BinaryTree<Integer>> iterator = tree.iterator(TraversalOrder.IN_ORDER); iterator.hasNext();) {
+			Integer value = iterator.next().getValue();
+			if(value != null && value >= lo && value <= hi)
+				sum += value;
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,197 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.AncestorIndex;
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the AncestorIndex
+ */
+public class AncestorIndexTest {
+
+	BinaryTree<String> root;
+	AncestorIndex<String> index;
+
+	@Before
+	public void setUp() throws Exception {
+		root = BinaryTree.parse("a(b(d(h i) e(j)) c(f(k) g(l(m))))");
+		index = root.ancestorIndex();
+	}
+
+	@After
+	public void tearDown() throws Exception {
+		index.close();
+	}
+
+	@Test
+	public void testDepth() {
+		assertEquals(13, index.size());
+		assertSame(root, index.getRoot());
+		for(BinaryTree<String> node : nodes(root))
+			assertEquals(node.getValue(), node.getDepth(), index.getDepth(node));
+	}
+
+	@Test
+	public void testAgainstParentLinks() {
+		for(BinaryTree<String> first : nodes(root))
+			for(BinaryTree<String> second : nodes(root)) {
+				BinaryTree<String> ancestor = slowAncestor(first, second);
+				assertSame(ancestor, index.lowestCommonAncestor(first, second));
+				assertEquals(first.getDepth() + second.getDepth() - 2*ancestor.getDepth(), index.distance(first, second));
+				assertEquals(ancestor == first, index.isAncestor(first, second));
+			}
+	}
+
+	@Test
+	public void testQueries() {
+		BinaryTree<String> h = root.getLeftChild().getLeftChild().getLeftChild();
+		BinaryTree<String> j = root.getLeftChild().getRightChild().getLeftChild();
+		BinaryTree<String> m = root.getRightChild().getRightChild().getLeftChild().getLeftChild();
+		assertEquals("b", index.lowestCommonAncestor(h, j).getValue());
+		assertEquals(4, index.distance(h, j));
+		assertSame(root, index.lowestCommonAncestor(h, m));
+		assertEquals(7, index.distance(h, m));
+		assertEquals(0, index.distance(m, m));
+		assertTrue(index.isAncestor(root, m));
+		assertFalse(index.isAncestor(m, root));
+		assertTrue(index.contains(m));
+		assertFalse(index.contains(new BinaryTree<String>("x")));
+	}
+
+	@Test
+	public void testSubtreeIndex() {
+		BinaryTree<String> c = root.getRightChild();
+		BinaryTree<String> m = c.getRightChild().getLeftChild().getLeftChild();
+		try(AncestorIndex<String> subIndex = c.ancestorIndex()) {
+			assertEquals(6, subIndex.size());
+			assertEquals(3, subIndex.getDepth(m));
+			assertFalse(subIndex.contains(root));
+			/* Overlapping indexes keep their own numbers */
+			assertTrue(index.isValid());
+			assertEquals(4, index.getDepth(m));
+			assertEquals(3, subIndex.getDepth(m));
+			assertEquals(0, index.getRebuilds());
+			assertEquals(0, subIndex.getRebuilds());
+
+			/* A link below c changes both trees */
+			m.setLeftChild(new BinaryTree<String>("n"));
+			assertFalse(index.isValid());
+			assertFalse(subIndex.isValid());
+			assertEquals(5, index.getDepth(m.getLeftChild()));
+			assertEquals(4, subIndex.getDepth(m.getLeftChild()));
+			/* A link above c only changes the tree of the root */
+			root.getLeftChild().removeRightChild();
+			assertFalse(index.isValid());
+			assertTrue(subIndex.isValid());
+			assertEquals(1, subIndex.getRebuilds());
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosed() {
+		AncestorIndex<String> other = root.ancestorIndex();
+		other.close();
+		other.close();
+		assertTrue(other.isClosed());
+		assertTrue(index.isValid());
+		other.getDepth(root);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForeignNode() {
+		index.getDepth(new BinaryTree<String>("x"));
+	}
+
+	@Test
+	public void testInvalidatedByLinks() {
+		assertTrue(index.isValid());
+		BinaryTree<String> c = root.getRightChild();
+		c.setValue("z");
+		assertTrue(index.isValid());
+
+		BinaryTree<String> subTree = root.getLeftChild().removeLeftChild();
+		assertFalse(index.isValid());
+		assertEquals(10, index.size());
+		assertTrue(index.isValid());
+		assertEquals(1, index.getRebuilds());
+		assertFalse(index.contains(subTree));
+		assertFalse(index.contains(subTree.getLeftChild()));
+
+		BinaryTree<String> m = c.getRightChild().getLeftChild().getLeftChild();
+		m.setRightChild(subTree);
+		assertEquals(13, index.size());
+		assertEquals(5, index.getDepth(subTree));
+		assertSame(m, index.lowestCommonAncestor(subTree.getRightChild(), m));
+		for(BinaryTree<String> first : nodes(root))
+			for(BinaryTree<String> second : nodes(root))
+				assertSame(slowAncestor(first, second), index.lowestCommonAncestor(first, second));
+	}
+
+	@Test
+	public void testInvalidatedByRebalance() {
+		BinaryTree<String> node = new BinaryTree<String>("0");
+		BinaryTree<String> degenerate = node;
+		for(int i = 1; i < 10; i++) {
+			BinaryTree<String> child = new BinaryTree<String>(Integer.toString(i));
+			node.setLeftChild(child);
+			node = child;
+		}
+		AncestorIndex<String> vineIndex = degenerate.ancestorIndex();
+		assertEquals(9, vineIndex.getDepth(node));
+		vineIndex.close();
+		vineIndex = degenerate.ancestorIndex();
+		assertTrue(vineIndex.isValid());
+		degenerate.rebalance();
+		assertFalse(vineIndex.isValid());
+		for(BinaryTree<String> first : nodes(degenerate)) {
+			assertEquals(first.getDepth(), vineIndex.getDepth(first));
+			for(BinaryTree<String> second : nodes(degenerate))
+				assertSame(slowAncestor(first, second), vineIndex.lowestCommonAncestor(first, second));
+		}
+		vineIndex.close();
+	}
+
+	@Test
+	public void testSingleNode() {
+		BinaryTree<String> single = new BinaryTree<String>("x");
+		AncestorIndex<String> singleIndex = single.ancestorIndex();
+		assertEquals(1, singleIndex.size());
+		assertSame(single, singleIndex.lowestCommonAncestor(single, single));
+		assertEquals(0, singleIndex.getDepth(single));
+		singleIndex.close();
+	}
+
+	/**
+	 * Returns the nodes of the given tree in preOrder
+	 */
+	private static List<BinaryTree<String>> nodes(BinaryTree<String> tree) {
+		List<BinaryTree<String>> nodes = new ArrayList<BinaryTree<String>>();
+		for(Iterator<BinaryTree<String>> iterator = tree.iterator(TraversalOrder.PRE_ORDER); iterator.hasNext();)
+			nodes.add(iterator.next());
+		return nodes;
+	}
+
+	/**
+	 * Finds the lowest common ancestor of two nodes by following their parent links
+	 */
+	private static BinaryTree<String> slowAncestor(BinaryTree<String> first, BinaryTree<String> second) {
+		for(BinaryTree<String> node = first; node != null; node = node.getParent())
+			for(BinaryTree<String> other = second; other != null; other = other.getParent())
+				if(node == other)
+					return node;
+		return null;
+	}
+}
@@ -0,0 +1,117 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.ArrayBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.IndexedBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.LevelStatistics;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the ArrayBinaryTree and the walks it shares with the other IndexedBinaryTrees
+ */
+public class ArrayBinaryTreeTest {
+
+	BinaryTree<String> linked;
+	ArrayBinaryTree<String> root;
+
+	@Before
+	public void setUp() throws Exception {
+		linked = BinaryTree.parse("one(two three(four(six seven) five))");
+		root = ArrayBinaryTree.of(linked);
+	}
+
+	@Test
+	public void testOf() {
+		assertEquals(7, root.size());
+		assertEquals("one", root.getValue(root.getRoot()));
+		/* preOrder layout */
+		String[] expected = {"one", "two", "three", "four", "six", "seven", "five"};
+		for(int i = 0; i < expected.length; i++)
+			assertEquals(expected[i], root.getValue(i));
+		assertEquals(1, root.getLeftChild(0));
+		assertEquals(2, root.getRightChild(0));
+		assertEquals(IndexedBinaryTree.NIL, root.getLeftChild(1));
+		assertNull(ArrayBinaryTree.of(null));
+	}
+
+	@Test
+	public void testToBinaryTree() {
+		assertEquals(linked, root.toBinaryTree());
+		root.setValue(6, "5");
+		assertEquals(BinaryTree.parse("one(two three(four(six seven) 5))"), root.toBinaryTree());
+	}
+
+	@Test
+	public void testSizeAndHeight() {
+		assertEquals(3, root.getHeight());
+		assertEquals(2, root.getHeight(2));
+		assertEquals(0, root.getHeight(1));
+		assertEquals(5, root.size(2));
+		assertEquals(1, root.size(6));
+	}
+
+	@Test
+	public void testTraversals() {
+		final StringBuilder builder = new StringBuilder();
+		root.inOrderTraversal(value -> builder.append(value).append(' '));
+		assertEquals("two one six four seven three five ", builder.toString());
+		builder.setLength(0);
+		root.preOrderTraversal(value -> builder.append(value).append(' '));
+		assertEquals("one two three four six seven five ", builder.toString());
+		builder.setLength(0);
+		root.postOrderTraversal(value -> builder.append(value).append(' '));
+		assertEquals("two six seven four five three one ", builder.toString());
+		builder.setLength(0);
+		root.forEachNode(3, TraversalOrder.IN_ORDER, node -> builder.append(node));
+		assertEquals("435", builder.toString());
+		builder.setLength(0);
+		root.forEachNode(TraversalOrder.LEVEL_ORDER, node -> builder.append(node));
+		assertEquals("0123645", builder.toString());
+	}
+
+	@Test
+	public void testGetLevelStatistics() {
+		LevelStatistics statistics = root.getLevelStatistics();
+		assertEquals("widths=[1, 2, 2, 2] leaves=[0, 1, 1, 2]", statistics.toString());
+		assertEquals(linked.getLevelStatistics().toString(), statistics.toString());
+	}
+
+	@Test
+	public void testGetLeaves() {
+		assertArrayEquals(new int[] {1, 4, 5, 6}, root.getLeaves());
+		assertArrayEquals(new int[] {4, 5}, root.getLeaves(3));
+	}
+
+	@Test
+	public void testAddChildren() {
+		ArrayBinaryTree<Integer> tree = new ArrayBinaryTree<Integer>(0, 1);
+		int node = tree.getRoot();
+		for(int i = 1; i < 100000; i++)
+			node = (i % 2 == 0) ? tree.addLeftChild(node, i) : tree.addRightChild(node, i);
+		assertEquals(100000, tree.size());
+		assertEquals(99999, tree.getHeight());
+		assertEquals(Integer.valueOf(99999), tree.getValue(tree.getLeaves()[0]));
+		final long[] sum = {0};
+		tree.postOrderTraversal(value -> sum[0] += value);
+		assertEquals(99999L * 100000 / 2, sum[0]);
+		assertEquals(99999, tree.toBinaryTree().getHeight());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testAddExistingChild() {
+		root.addLeftChild(0, "x");
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testMissingNode() {
+		root.getLeftChild(7);
+	}
+}
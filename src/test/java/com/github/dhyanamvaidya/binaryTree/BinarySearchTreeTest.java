@@ -0,0 +1,205 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinarySearchTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the BinarySearchTree
+ */
+public class BinarySearchTreeTest {
+
+	BinarySearchTree<Integer> root;
+
+	@Before
+	public void setUp() throws Exception {
+		root = new BinarySearchTree<Integer>();
+		for(int i = 1; i <= 1000; i++)
+			assertTrue(root.insert(i));
+	}
+
+	@Test
+	public void testInsertSorted() {
+		assertEquals(1000, root.size());
+		assertFalse(root.insert(500));
+		assertEquals(1000, root.size());
+		assertTrue(root.getHeight() <= 1.45 * Math.log(1002) / Math.log(2));
+		assertAvl(root, Comparator.<Integer>naturalOrder());
+		int expected = 1;
+		for(Iterator<BinaryTree<Integer>> it = root.iterator(TraversalOrder.IN_ORDER); it.hasNext(); expected++)
+			assertEquals(Integer.valueOf(expected), it.next().getValue());
+	}
+
+	@Test
+	public void testFind() {
+		assertEquals(Integer.valueOf(777), root.find(777).getValue());
+		assertNull(root.find(0));
+		assertNull(root.find(1001));
+		assertNull(root.find(null));
+		BinarySearchTree<Integer> subTree = (BinarySearchTree<Integer>) root.getLeftChild();
+		assertNull(subTree.find(1000));
+	}
+
+	@Test
+	public void testDelete() {
+		for(int i = 2; i <= 1000; i += 2)
+			assertTrue(root.delete(i));
+		assertFalse(root.delete(2));
+		assertEquals(500, root.size());
+		assertNull(root.find(400));
+		assertEquals(Integer.valueOf(401), root.find(401).getValue());
+		assertAvl(root, Comparator.<Integer>naturalOrder());
+		for(int i = 1; i <= 1000; i += 2)
+			assertTrue(root.delete(i));
+		assertTrue(root.isEmpty());
+		assertEquals(0, root.size());
+		assertEquals(-1, root.getHeight());
+		assertNull(root.getLeftChild());
+		assertNull(root.getRightChild());
+		assertTrue(root.insert(7));
+		assertEquals(1, root.size());
+	}
+
+	@Test
+	public void testRandomOperations() {
+		Random random = new Random(42);
+		BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+		TreeSet<Integer> expected = new TreeSet<Integer>();
+		for(int i = 0; i < 20000; i++) {
+			Integer key = random.nextInt(2000);
+			if(random.nextBoolean())
+				assertEquals(expected.add(key), tree.insert(key));
+			else
+				assertEquals(expected.remove(key), tree.delete(key));
+			if(i % 1000 == 0)
+				assertAvl(tree, Comparator.<Integer>naturalOrder());
+		}
+		assertAvl(tree, Comparator.<Integer>naturalOrder());
+		assertEquals(expected.size(), tree.size());
+		for(int key = -1; key <= 2001; key++) {
+			assertEquals(expected.floor(key), tree.floor(key));
+			assertEquals(expected.ceiling(key), tree.ceiling(key));
+		}
+	}
+
+	@Test
+	public void testFloorAndCeiling() {
+		BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+		assertNull(tree.floor(5));
+		assertNull(tree.ceiling(5));
+		for(int i = 10; i <= 100; i += 10)
+			tree.insert(i);
+		assertEquals(Integer.valueOf(50), tree.floor(55));
+		assertEquals(Integer.valueOf(60), tree.ceiling(55));
+		assertEquals(Integer.valueOf(50), tree.floor(50));
+		assertEquals(Integer.valueOf(50), tree.ceiling(50));
+		assertNull(tree.floor(9));
+		assertNull(tree.ceiling(101));
+	}
+
+	@Test
+	public void testComparator() {
+		BinarySearchTree<String> tree = new BinarySearchTree<String>(Comparator.reverseOrder());
+		List<String> keys = new ArrayList<String>();
+		for(char c = 'a'; c <= 'z'; c++)
+			keys.add(String.valueOf(c));
+		Collections.shuffle(keys, new Random(7));
+		for(String key : keys)
+			tree.insert(key);
+		assertEquals("z", tree.getKthSmallestNode(1).getValue());
+		assertEquals("l", tree.floor("l"));
+		assertTrue(tree.delete("l"));
+		assertEquals("m", tree.floor("l"));
+		assertEquals("k", tree.ceiling("l"));
+		assertAvl(tree, Comparator.<String>reverseOrder());
+	}
+
+	@Test
+	public void testFromSorted() {
+		List<Integer> keys = new ArrayList<Integer>();
+		for(int i = 0; i < 10000; i += 2)
+			keys.add(i);
+		BinarySearchTree<Integer> tree = BinarySearchTree.fromSorted(keys);
+		assertEquals(5000, tree.size());
+		assertEquals(12, tree.getHeight());
+		assertAvl(tree, Comparator.<Integer>naturalOrder());
+		assertEquals(Integer.valueOf(4000), tree.find(4000).getValue());
+		assertTrue(tree.insert(4001));
+		assertTrue(tree.delete(0));
+		assertAvl(tree, Comparator.<Integer>naturalOrder());
+		assertTrue(BinarySearchTree.fromSorted(new ArrayList<String>()).isEmpty());
+		tree.rebalance();
+		assertEquals(5000, tree.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFromUnsorted() {
+		BinarySearchTree.fromSorted(Arrays.asList(1, 3, 3));
+	}
+
+	@Test
+	public void testClear() {
+		root.clear();
+		assertTrue(root.isEmpty());
+		assertEquals(-1, root.getHeight());
+		assertTrue(root.insert(3));
+		assertEquals(0, root.getHeight());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testInsertOnSubTree() {
+		((BinarySearchTree<Integer>) root.getLeftChild()).insert(0);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSetLeftChild() {
+		root.setLeftChild(null);
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void testSetValue() {
+		root.setValue(0);
+	}
+
+	/**
+	 * Checks the order of the keys, the parent links, the kept heights and the balance of every node
+	 */
+	private static <K> void assertAvl(BinarySearchTree<K> tree, Comparator<? super K> comparator) {
+		assertNull(tree.getParent());
+		if(tree.isEmpty())
+			return;
+		K previous = null;
+		for(Iterator<BinaryTree<K>> it = tree.iterator(TraversalOrder.IN_ORDER); it.hasNext();) {
+			BinaryTree<K> node = it.next();
+			if(previous != null)
+				assertTrue(comparator.compare(previous, node.getValue()) < 0);
+			previous = node.getValue();
+			int leftHeight = node.getLeftChild() == null ? -1 : node.getLeftChild().getHeight();
+			int rightHeight = node.getRightChild() == null ? -1 : node.getRightChild().getHeight();
+			assertEquals(Math.max(leftHeight, rightHeight) + 1, node.getHeight());
+			assertTrue(Math.abs(leftHeight - rightHeight) <= 1);
+			if(node.getLeftChild() != null)
+				assertSame(node, node.getLeftChild().getParent());
+			if(node.getRightChild() != null)
+				assertSame(node, node.getRightChild().getParent());
+		}
+		assertTrue(tree.isBalanced());
+	}
+}
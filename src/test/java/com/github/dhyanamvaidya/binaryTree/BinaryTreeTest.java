@@ -6,10 +6,27 @@ package test.java.com.github.dhyanamvaidya.binaryTree;
 import static org.junit.Assert.*;
 import static org.hamcrest.CoreMatchers.*;
 
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.NoSuchElementException;
+import java.util.List;
+import java.util.Spliterator;
 
 import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.LevelStatistics;
+import main.java.com.github.dhyanamvaidya.binaryTree.OrderStatisticTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeParseException;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeSnapshot;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeVisitor;
 
 import org.junit.Before;
 import org.junit.Test;
@@ -275,6 +292,183 @@ public class BinaryTreeTest {
         assertFalse(y.equals(z));
 	}
 	
+	@Test
+	public void testHashCode() {
+		assertEquals(a1.hashCode(), a2.hashCode());
+		assertEquals(b1.hashCode(), b2.hashCode());
+		assertThat(a1.hashCode(), is(not(BinaryTree.parse("a(b(d e) c(f x))").hashCode())));
+		assertThat(a1.hashCode(), is(not(BinaryTree.parse("a(c(f g) b(d e))").hashCode())));
+		assertThat(new BinaryTree<String>("a", null, new BinaryTree<String>("b")).hashCode(),
+				is(not(new BinaryTree<String>("a", new BinaryTree<String>("b"), null).hashCode())));
+		new BinaryTree<String>(null).hashCode();
+	}
+	
+	@Test
+	public void testHashCodeAfterUpdates() {
+		int hash = a1.hashCode();
+		g1.setValue("x");
+		assertThat(a1.hashCode(), is(not(hash)));
+		g2.setValue("x");
+		assertEquals(a2.hashCode(), a1.hashCode());
+		
+		f1.setLeftChild(new BinaryTree<String>("y"));
+		assertThat(a1.hashCode(), is(not(a2.hashCode())));
+		f1.removeLeftChild();
+		assertEquals(a2.hashCode(), a1.hashCode());
+		
+		c1.clear();
+		c2.clear();
+		assertEquals(a2.hashCode(), a1.hashCode());
+		assertEquals(new BinaryTree<String>("a", a1.removeLeftChild(), new BinaryTree<String>(null)).hashCode(), a2.hashCode());
+	}
+	
+	@Test
+	public void testSetChildWithParent() {
+		BinaryTree<String> root = new BinaryTree<String>("x");
+		root.setLeftChild(a1.removeLeftChild());
+		assertEquals(b1, root.getLeftChild());
+		assertSame(root, b1.getParent());
+		assertNull(a1.getLeftChild());
+		assertEquals(4, root.size());
+		assertEquals(4, a1.size());
+		/* Setting the same child again changes nothing */
+		root.setLeftChild(b1);
+		assertEquals(4, root.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetChildWithOtherParent() {
+		new BinaryTree<String>("x").setLeftChild(b1);
+	}
+
+	@Test
+	public void testParentedChildRejected() {
+		/* A node with a parent is rejected everywhere a child is linked, and left where it was */
+		BinaryTree<String> x = new BinaryTree<String>("x");
+		try {
+			x.setRightChild(b1);
+			fail("IllegalArgumentException expected");
+		}
+		catch (IllegalArgumentException e) { }
+		try {
+			new BinaryTree<String>("y", null, b1);
+			fail("IllegalArgumentException expected");
+		}
+		catch (IllegalArgumentException e) { }
+		assertSame(a1, b1.getParent());
+		assertNull(x.getRightChild());
+		x.setRightChild(a1.removeLeftChild());
+		assertSame(x, b1.getParent());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMoveChildToOtherSide() {
+		a1.setRightChild(b1);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSharedChild() {
+		BinaryTree<String> leaf = new BinaryTree<String>("y");
+		new BinaryTree<String>("x", leaf, leaf);
+	}
+	
+	@Test
+	public void testEqualsWithCachedHashes() {
+		assertEquals(a1.hashCode(), a2.hashCode());
+		assertTrue(a1.equals(a2));
+		g2.setValue("x");
+		a2.hashCode();
+		assertFalse(a1.equals(a2));
+		assertFalse(a2.equals(a1));
+		g1.setValue("x");
+		assertTrue(a1.equals(a2));
+		
+		/* Cached sizes */
+		BinaryTree<String> ost1 = OrderStatisticTree.of(BinaryTree.parse("a(b c)"));
+		BinaryTree<String> ost2 = OrderStatisticTree.of(BinaryTree.parse("a(b c(d))"));
+		assertFalse(ost1.equals(ost2));
+		assertTrue(ost1.equals(BinaryTree.parse("a(b c)")));
+		
+		/* Cached heights: the roots are told apart before their values are compared */
+		BinaryTree<Object> low = new BinaryTree<Object>(new Incomparable(),
+				new BinaryTree<Object>("l"), new BinaryTree<Object>("r"));
+		BinaryTree<Object> high = new BinaryTree<Object>(new Incomparable(),
+				new BinaryTree<Object>("l", new BinaryTree<Object>("ll"), null), new BinaryTree<Object>("r"));
+		assertTrue(low.isBalanced(true));
+		assertTrue(high.isBalanced(true));
+		assertFalse(low.equals(high));
+		assertFalse(high.equals(low));
+	}
+	
+	/**
+	 * Value which fails the test when it is compared
+	 */
+	private static final class Incomparable {
+		@Override
+		public boolean equals(Object obj) {
+			throw new AssertionError("The values should not be compared");
+		}
+
+		@Override
+		public int hashCode() {
+			return 0;
+		}
+	}
+	
+	@Test
+	public void testParentLinks() {
+		assertNull(a1.getParent());
+		assertTrue(a1.isRoot());
+		assertEquals(b1, d1.getParent());
+		assertFalse(d1.isRoot());
+		assertSame(a1, d1.getRoot());
+		assertEquals(2, d1.getDepth());
+		assertEquals(0, a1.getDepth());
+		assertTrue(a1.isAncestorOf(d1));
+		assertTrue(d1.isAncestorOf(d1));
+		assertFalse(c1.isAncestorOf(d1));
+		Iterator<BinaryTree<String>> ancestors = d1.ancestors();
+		assertSame(b1, ancestors.next());
+		assertSame(a1, ancestors.next());
+		assertFalse(ancestors.hasNext());
+		
+		b1.removeLeftChild();
+		assertNull(d1.getParent());
+		a1.clear();
+		assertNull(b1.getParent());
+		assertNull(c1.getParent());
+	}
+	
+	@Test
+	public void testSetChildIgnoresCycles() {
+		d1.setLeftChild(a1);
+		assertNull(d1.getLeftChild());
+		d1.setRightChild(b1);
+		assertNull(d1.getRightChild());
+		d1.setRightChild(d1);
+		assertNull(d1.getRightChild());
+		assertEquals(7, a1.size());
+		
+		/* Moving a node down within its own tree is not a cycle */
+		b1.setLeftChild(c1.removeRightChild());
+		assertSame(b1, g1.getParent());
+		assertNull(c1.getRightChild());
+		assertEquals(6, a1.size());
+	}
+	
+	@Test
+	public void testBuildTopDown() {
+		BinaryTree<Integer> root = new BinaryTree<Integer>(0);
+		BinaryTree<Integer> node = root;
+		for(int i = 1; i < 200000; i++) {
+			BinaryTree<Integer> child = new BinaryTree<Integer>(i);
+			node.setLeftChild(child);
+			node = child;
+		}
+		assertEquals(199999, node.getDepth());
+		assertSame(root, node.getRoot());
+	}
+	
 	@Test
     public void testToString() {
 		assertEquals("a(b(d e) c(f g))", a1.toString());
@@ -285,8 +479,113 @@ public class BinaryTreeTest {
 		BinaryTree<String> root = BinaryTree.parse("a(b(d e) c(f g))");
 		assertEquals(root, a1);
 		
+		root = BinaryTree.parse("  a ( b(d) c )  ");
+		assertEquals("a", root.getValue());
+		assertEquals("d", root.getLeftChild().getLeftChild().getValue());
+		assertNull(root.getLeftChild().getRightChild());
+		assertEquals("c", root.getRightChild().getValue());
+		assertTrue(root.getRightChild().isLeaf());
+		assertEquals("x", BinaryTree.parse("x").getValue());
     }
 	
+	@Test
+    public void testParseCharSequenceAndReader() throws IOException {
+		assertEquals(a1, BinaryTree.parse(new StringBuilder("a(b(d e) c(f g))")));
+		assertEquals(a1, BinaryTree.parse(CharBuffer.wrap("a(b(d e) c(f g))")));
+		assertEquals(a1, BinaryTree.parse(new StringReader("a(b(d e) c(f g))")));
+	}
+	
+	@Test
+    public void testParseFile() throws IOException {
+		Path file = Files.createTempFile("tree", ".txt");
+		try {
+			Files.write(file, "a(b(d e) c(f g))\n".getBytes(StandardCharsets.UTF_8));
+			assertEquals(a1, BinaryTree.parse(file));
+			Files.write(file, "\u00e9t\u00e9(\u20ac \ud83c\udf33)".getBytes(StandardCharsets.UTF_8));
+			assertEquals(BinaryTree.parse("\u00e9t\u00e9(\u20ac \ud83c\udf33)"), BinaryTree.parse(file));
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+    public void testParseFileInChunks() throws IOException {
+		/* Values of 1 to 4 byte characters, so that every chunk size splits some of them */
+		String description = "\u00e9t\u00e9(\u20ac(abc \ud83c\udf33\ud83c\udf33) x\u00e9\u20ac\ud83c\udf33y( z  \u00e9 ))\n";
+		BinaryTree<String> expected = BinaryTree.parse(description);
+		Path file = Files.createTempFile("tree", ".txt");
+		try {
+			Files.write(file, description.getBytes(StandardCharsets.UTF_8));
+			int length = description.getBytes(StandardCharsets.UTF_8).length;
+			for(int chunkSize = 4; chunkSize <= length + 1; chunkSize++)
+				assertEquals("chunk size " + chunkSize, expected, BinaryTree.parse(file, chunkSize));
+			Files.write(file, "a(b(d e) c(f g)".getBytes(StandardCharsets.UTF_8));
+			try {
+				BinaryTree.parse(file, 5);
+				fail("Expected a TreeParseException");
+			}
+			catch(TreeParseException e) {
+				assertEquals(15, e.getOffset());
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test(expected = IllegalArgumentException.class)
+    public void testParseFileChunkTooSmall() throws IOException {
+		Path file = Files.createTempFile("tree", ".txt");
+		try {
+			Files.write(file, "a(b c)".getBytes(StandardCharsets.UTF_8));
+			BinaryTree.parse(file, 3);
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+	
+	@Test
+    public void testParseDeepDescription() {
+		StringBuilder description = new StringBuilder();
+		for(int i = 0; i < 100000; i++)
+			description.append("n(");
+		description.append("leaf");
+		for(int i = 0; i < 100000; i++)
+			description.append(')');
+		BinaryTree<String> root = BinaryTree.parse(description);
+		assertEquals(100001, root.size());
+		assertEquals(100000, root.getHeight());
+	}
+	
+	@Test
+    public void testParseRootWithWhitespace() {
+		/* As in the first versions of parse, the root value runs up to its parenthesis */
+		BinaryTree<String> single = BinaryTree.parse("  a b ");
+		assertEquals("a b", single.getValue());
+		assertTrue(single.isLeaf());
+		BinaryTree<String> root = BinaryTree.parse("a b(c d)");
+		assertEquals("a b", root.getValue());
+		assertEquals("c", root.getLeftChild().getValue());
+		assertEquals("d", root.getRightChild().getValue());
+	}
+	
+	@Test
+    public void testParseErrors() {
+		String[] descriptions = {"a(b c", "a(b c d)", "a(b) c", "a)"};
+		long[] offsets = {5, 6, 5, 1};
+		for(int i = 0; i < descriptions.length; i++) {
+			try {
+				BinaryTree.parse(descriptions[i]);
+				fail("TreeParseException expected for " + descriptions[i]);
+			}
+			catch (TreeParseException e) {
+				assertEquals(offsets[i], e.getOffset());
+			}
+		}
+	}
+	
 	@Test
     public void testSize() {
 		assertEquals(7, a1.size());
@@ -318,6 +617,34 @@ public class BinaryTreeTest {
 		assertFalse(list.contains(a1));
 	}
 	
+	@Test
+    public void testLeaves() {
+		BinaryTree<String> root = BinaryTree.parse("one(two three(four(six seven) five))");
+		List<String> values = new ArrayList<String>();
+		root.leaves().forEach(leaf -> values.add(leaf.getValue()));
+		assertEquals("[two, six, seven, five]", values.toString());
+		assertEquals(4, root.countLeaves());
+		assertEquals(2, root.getRightChild().getLeftChild().countLeaves());
+		assertEquals(1, new BinaryTree<String>("x").countLeaves());
+		values.clear();
+		root.getRightChild().forEachLeaf(leaf -> values.add(leaf.getValue()));
+		assertEquals("[six, seven, five]", values.toString());
+		assertEquals("seven", root.getRightChild().getLeftChild().leaves().skip(1).findFirst().get().getValue());
+		
+		/* Single children on both sides */
+		root = BinaryTree.parse("a(b(c) d)");
+		root.getRightChild().setRightChild(new BinaryTree<String>("e"));
+		values.clear();
+		root.forEachLeaf(leaf -> values.add(leaf.getValue()));
+		assertEquals("[c, e]", values.toString());
+		
+		BinaryTree<Integer> node = new BinaryTree<Integer>(0);
+		for(int i = 1; i < 100000; i++)
+			node = (i % 2 == 0) ? new BinaryTree<Integer>(i, node, null) : new BinaryTree<Integer>(i, null, node);
+		assertEquals(1, node.countLeaves());
+		assertEquals(Integer.valueOf(0), node.leaves().findFirst().get().getValue());
+	}
+	
 	@Test
     public void testIsSymmetric() {
 		BinaryTree<String> lc = new BinaryTree<String>("y");
@@ -338,6 +665,37 @@ public class BinaryTreeTest {
         assertFalse(root.isBalanced());
 	}
 
+	@Test
+    public void testIsBalancedChecksEverySubtree() {
+		/* In the second tree the root is balanced but the subtree c is not */
+		BinaryTree<String> root = BinaryTree.parse("a(b(c(d e) f) g(h i))");
+		assertTrue(root.isBalanced());
+		root = BinaryTree.parse("a(b(c(d(e)) f) g(h(i) j))");
+		assertFalse(root.isBalanced());
+		assertEquals("c", root.findUnbalancedNode().getValue());
+		assertFalse(root.isBalanced(true));
+		assertNull(a1.findUnbalancedNode());
+	}
+
+	@Test
+    public void testIsBalancedWithCachedHeights() {
+		BinaryTree<String> root = BinaryTree.parse("10(5(2(1 3) 8(6 9)) 15(12(11 13) 18(16 20)))");
+		assertTrue(root.isBalanced(true));
+		assertEquals(3, root.getHeight());
+		BinaryTree<String> leaf = root.getKthSmallestNode(1);
+		leaf.setLeftChild(new BinaryTree<String>("0"));
+		assertTrue(root.isBalanced(true));
+		assertEquals(4, root.getHeight());
+		leaf.getLeftChild().setLeftChild(new BinaryTree<String>("-1"));
+		assertEquals("1", root.findUnbalancedNode(true).getValue());
+		assertEquals(5, root.getHeight());
+		assertEquals(root.findUnbalancedNode(), root.findUnbalancedNode(true));
+		leaf.removeLeftChild();
+		assertTrue(root.isBalanced(true));
+		assertEquals(3, root.getHeight());
+		assertTrue(root.isBalanced());
+	}
+
 	@Test
     public void testGetHeight() {
 		BinaryTree<String> lc = new BinaryTree<String>("y");
@@ -383,4 +741,203 @@ public class BinaryTreeTest {
 		assertEquals("6", b.getValue());
 	}
 
+	@Test
+    public void testIterator() {
+		Iterator<BinaryTree<String>> iterator = a1.iterator(TraversalOrder.IN_ORDER);
+		assertEquals(d1, iterator.next());
+		assertEquals(b1, iterator.next());
+		assertEquals(e1, iterator.next());
+		assertEquals(a1, iterator.next());
+		
+		final StringBuilder values = new StringBuilder();
+		Spliterator<BinaryTree<String>> spliterator = a1.spliterator(TraversalOrder.POST_ORDER);
+		while(spliterator.tryAdvance(node -> values.append(node.getValue())));
+		assertEquals("debfgca", values.toString());
+	}
+	
+	@Test
+    public void testDegenerateTree() {
+		/* Deep enough to overflow the call stack of a recursive implementation */
+		BinaryTree<String> deep1 = new BinaryTree<String>("leaf");
+		BinaryTree<String> deep2 = new BinaryTree<String>("leaf");
+		BinaryTree<String> bottom = deep1;
+		for(int i = 0; i < 100000; i++) {
+			deep1 = new BinaryTree<String>("node", deep1, null);
+			deep2 = new BinaryTree<String>("node", deep2, null);
+		}
+		assertEquals(100001, deep1.size());
+		assertEquals(100000, deep1.getHeight());
+		assertTrue(deep1.contains(bottom));
+		assertFalse(deep2.contains(bottom));
+		assertTrue(deep1.equals(deep2));
+		assertEquals(deep1.hashCode(), deep2.hashCode());
+		assertEquals(1, deep1.getLeaves().size());
+		bottom.setValue("other");
+		assertFalse(deep1.equals(deep2));
+	}
+
+	@Test
+    public void testTraversalsWithConsumer() {
+		List<String> values = new ArrayList<String>();
+		a1.inOrderTraversal(values::add);
+		assertEquals("[d, b, e, a, f, c, g]", values.toString());
+		values.clear();
+		a1.preOrderTraversal(values::add);
+		assertEquals("[a, b, d, e, c, f, g]", values.toString());
+		values.clear();
+		a1.postOrderTraversal(values::add);
+		assertEquals("[d, e, b, f, g, c, a]", values.toString());
+	}
+	
+	@Test
+    public void testTraverseWithVisitor() {
+		final StringBuilder events = new StringBuilder();
+		BinaryTree.parse("a(b c(d e))").traverse(new TreeVisitor<Object>() {
+			@Override
+			public void enter(BinaryTree<? extends Object> node, int depth) {
+				events.append("+").append(node.getValue()).append(depth);
+			}
+			@Override
+			public void leave(BinaryTree<? extends Object> node, int depth) {
+				events.append("-").append(node.getValue()).append(depth);
+			}
+		});
+		assertEquals("+a0+b1-b1+c1+d2-d2+e2-e2-c1-a0", events.toString());
+	}
+	
+	@Test
+    public void testPrintToAppendable() throws IOException {
+		StringBuilder out = new StringBuilder();
+		BinaryTree.parse("one(two three(four(six seven) five))").print(out);
+		String n = System.lineSeparator();
+		assertEquals("one"+n+"|\ttwo"+n+"|\tthree"+n+"|\t|\tfour"+n+"|\t|\t|\tsix"+n
+				+"|\t|\t|\tseven"+n+"|\t|\tfive"+n, out.toString());
+	}
+
+	@Test
+    public void testLevelOrderTraversal() {
+		final List<String> values = new ArrayList<String>();
+		a1.levelOrderTraversal(values::add);
+		assertEquals("[a, b, c, d, e, f, g]", values.toString());
+	}
+	
+	@Test
+    public void testLevels() {
+		BinaryTree<String> root = BinaryTree.parse("one(two three(four(six seven) five))");
+		List<String> levels = new ArrayList<String>();
+		root.levels().forEach(level -> {
+			List<String> values = new ArrayList<String>();
+			for(BinaryTree<String> node : level)
+				values.add(node.getValue());
+			levels.add(values.toString());
+		});
+		assertEquals("[[one], [two, three], [four, five], [six, seven]]", levels.toString());
+		assertEquals(1, new BinaryTree<String>("x").levels().count());
+	}
+	
+	@Test
+    public void testLevelsBuiltWhenAskedFor() {
+		BinaryTree<String> root = BinaryTree.parse("one(two three)");
+		Iterator<List<BinaryTree<String>>> levels = root.levels().iterator();
+		assertEquals(1, levels.next().size());
+		List<BinaryTree<String>> second = levels.next();
+		assertEquals(2, second.size());
+		/* The third level is only built from the second one now */
+		second.get(0).setLeftChild(new BinaryTree<String>("four"));
+		assertTrue(levels.hasNext());
+		assertEquals("four", levels.next().get(0).getValue());
+		assertFalse(levels.hasNext());
+	}
+	
+	@Test
+    public void testGetLevelStatistics() {
+		BinaryTree<String> root = BinaryTree.parse("one(two three(four(six seven) five))");
+		LevelStatistics statistics = root.getLevelStatistics();
+		assertEquals(root.size(), statistics.size());
+		assertEquals(root.getLeaves().size(), statistics.getLeafCount());
+		assertEquals(root.getHeight(), statistics.getHeight());
+		assertEquals(4, statistics.getLevelCount());
+		assertEquals(2, statistics.getMaxWidth());
+		assertArrayEquals(new int[] {1, 2, 2, 2}, statistics.getWidths());
+		assertArrayEquals(new int[] {0, 1, 1, 2}, statistics.getLeafCounts());
+		assertEquals(0, statistics.getWidth(4));
+		assertEquals(2, statistics.getLeafCount(3));
+		
+		BinaryTree<Integer> node = new BinaryTree<Integer>(0);
+		for(int i = 1; i < 100000; i++)
+			node = new BinaryTree<Integer>(i, node, null);
+		statistics = node.getLevelStatistics();
+		assertEquals(100000, statistics.getLevelCount());
+		assertEquals(1, statistics.getMaxWidth());
+		assertEquals(1, statistics.getLeafCount(99999));
+	}
+
+	@Test
+    public void testFromSorted() {
+		BinaryTree<Integer> root = BinaryTree.fromSorted(new Integer[] {1, 2, 3, 4, 5, 6, 7});
+		assertEquals("4(2(1 3) 6(5 7))", root.toString());
+		assertNull(root.getParent());
+		assertSame(root, root.getLeftChild().getParent());
+		assertNull(BinaryTree.fromSorted(new String[0]));
+		
+		List<Integer> values = new LinkedList<Integer>();
+		for(int i = 0; i < 100000; i++)
+			values.add(i);
+		root = BinaryTree.fromSorted(values);
+		assertEquals(100000, root.size());
+		assertEquals(16, root.getHeight());
+		assertTrue(root.isBalanced());
+		List<Integer> inOrder = new ArrayList<Integer>();
+		root.inOrderTraversal(inOrder::add);
+		assertEquals(values, inOrder);
+	}
+	
+	@Test
+    public void testRebalance() {
+		BinaryTree<String> root = BinaryTree.parse("one(two three(four(six seven) five))");
+		TreeSnapshot<String> snapshot = root.snapshot();
+		int hash = root.hashCode();
+		List<String> before = new ArrayList<String>();
+		root.inOrderTraversal(before::add);
+		root.rebalance();
+		List<String> after = new ArrayList<String>();
+		root.inOrderTraversal(after::add);
+		assertEquals(before, after);
+		assertEquals(7, root.size());
+		assertEquals(2, root.getHeight());
+		assertTrue(root.isBalanced());
+		assertEquals(BinaryTree.fromSorted(after), root);
+		assertEquals(BinaryTree.fromSorted(after).hashCode(), root.hashCode());
+		assertFalse(hash == root.hashCode());
+		assertEquals("one(two three(four(six seven) five))", snapshot.toString());
+		snapshot.release();
+		
+		/* A subtree is rebalanced in place, its root stays linked to its parent */
+		BinaryTree<Integer> chain = new BinaryTree<Integer>(0);
+		for(int i = 1; i < 100000; i++)
+			chain = new BinaryTree<Integer>(i, null, chain);
+		BinaryTree<Integer> parent = new BinaryTree<Integer>(-1, chain, null);
+		chain.rebalance();
+		assertSame(chain, parent.getLeftChild());
+		assertEquals(100000, chain.size());
+		assertEquals(16, chain.getHeight());
+		assertFalse(parent.isBalanced());
+		assertTrue(chain.isBalanced());
+		Integer[] expected = new Integer[100000];
+		for(int i = 0; i < expected.length; i++)
+			expected[i] = 99999 - i;
+		List<Integer> inOrder = new ArrayList<Integer>();
+		chain.inOrderTraversal(inOrder::add);
+		assertEquals(Arrays.asList(expected), inOrder);
+		
+		OrderStatisticTree<Integer> tree = new OrderStatisticTree<Integer>(0);
+		for(int i = 1; i < 100; i++)
+			tree = new OrderStatisticTree<Integer>(i, tree, null);
+		tree.rebalance();
+		assertTrue(tree.isBalanced());
+		assertEquals(100, tree.size());
+		assertEquals(Integer.valueOf(49), tree.getKthSmallestNode(50).getValue());
+		assertEquals(99, tree.getLeftChild().size() + tree.getRightChild().size());
+	}
+
 }
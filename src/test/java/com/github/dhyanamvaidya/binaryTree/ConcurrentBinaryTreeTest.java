@@ -0,0 +1,247 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.ConcurrentBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeVisitor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the ConcurrentBinaryTree
+ */
+public class ConcurrentBinaryTreeTest {
+
+	ConcurrentBinaryTree<String> root;
+
+	@Before
+	public void setUp() throws Exception {
+		root = ConcurrentBinaryTree.of(BinaryTree.parse("one(two three(four(six seven) five))"));
+	}
+
+	@Test
+	public void testOf() {
+		assertEquals(BinaryTree.parse("one(two three(four(six seven) five))"), root);
+		assertEquals(7, root.size());
+		assertEquals(3, root.getHeight());
+		assertEquals(4, root.countLeaves());
+		assertEquals("four", root.getRightChild().getLeftChild().getValue());
+		assertSame(root, root.getLeftChild().getParent());
+		assertNull(ConcurrentBinaryTree.of(null));
+	}
+
+	@Test
+	public void testTraversals() {
+		List<String> values = new ArrayList<String>();
+		root.inOrderTraversal(values::add);
+		assertEquals("[two, one, six, four, seven, three, five]", values.toString());
+		values.clear();
+		root.levelOrderTraversal(values::add);
+		assertEquals("[one, two, three, four, five, six, seven]", values.toString());
+		values.clear();
+		root.forEachLeaf(leaf -> values.add(leaf.getValue()));
+		assertEquals("[two, six, seven, five]", values.toString());
+	}
+
+	@Test
+	public void testLockedReads() {
+		assertEquals("one(two three(four(six seven) five))", root.toString());
+		assertEquals("six", root.getKthSmallestNode(3).getValue());
+		assertEquals("five", root.getKthLargestNode(1).getValue());
+		assertNull(root.getKthSmallestNode(8));
+		assertNull(root.getKthLargestNode(0));
+		assertEquals("[two, six, seven, five]", root.leaves().map(BinaryTree::getValue).collect(Collectors.toList()).toString());
+		assertEquals(4, root.getLeaves().size());
+		assertEquals("[1, 2, 2, 2]", root.levels().map(List::size).collect(Collectors.toList()).toString());
+		assertEquals(3, root.getLevelStatistics().getHeight());
+		assertFalse(root.isSymmetric());
+		assertEquals(7, root.stream().count());
+		assertEquals(7, root.parallelStream().count());
+		List<String> values = new ArrayList<String>();
+		root.iterator(TraversalOrder.POST_ORDER).forEachRemaining(node -> values.add(node.getValue()));
+		assertEquals("[two, six, seven, four, five, three, one]", values.toString());
+		ConcurrentBinaryTree<String> six = root.getRightChild().getLeftChild().getLeftChild();
+		assertSame(root, six.getRoot());
+		assertEquals(3, six.getDepth());
+		assertTrue(root.isAncestorOf(six));
+		int[] depth = new int[1];
+		root.traverse(new TreeVisitor<String>() {
+			@Override
+			public void enter(BinaryTree<? extends String> node, int nodeDepth) {
+				depth[0] = Math.max(depth[0], nodeDepth);
+			}
+		});
+		assertEquals(3, depth[0]);
+		/* The nodes are gathered when the Iterator is created */
+		Iterator<BinaryTree<String>> ancestors = six.ancestors();
+		Iterator<BinaryTree<String>> nodes = root.iterator(TraversalOrder.PRE_ORDER);
+		root.removeRightChild();
+		assertEquals("four", ancestors.next().getValue());
+		int count = 0;
+		for(; nodes.hasNext(); nodes.next())
+			count++;
+		assertEquals(7, count);
+	}
+
+	@Test
+	public void testModifications() {
+		ConcurrentBinaryTree<String> node = root.newNode("eight");
+		root.getLeftChild().setLeftChild(node);
+		assertSame(node, root.getLeftChild().getLeftChild());
+		assertTrue(root.contains(node));
+		assertEquals(8, root.size());
+		int hash = root.hashCode();
+		node.setValue("nine");
+		assertNotEquals(hash, root.hashCode());
+		assertSame(node, root.getLeftChild().removeLeftChild());
+		assertEquals(7, root.size());
+		assertFalse(root.contains(node));
+		root.getRightChild().clear();
+		assertEquals(3, root.size());
+		assertNull(root.getRightChild().getValue());
+	}
+
+	@Test
+	public void testCycleIgnored() {
+		ConcurrentBinaryTree<String> four = root.getRightChild().getLeftChild();
+		four.setLeftChild(root.getRightChild());
+		four.setRightChild(four);
+		assertEquals(7, root.size());
+		assertSame(root.getRightChild(), four.getParent());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForeignNode() {
+		root.setLeftChild(new BinaryTree<String>("foreign"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNodeOfAnotherTree() {
+		root.setLeftChild(new ConcurrentBinaryTree<String>("other"));
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testRemoveMissingChild() {
+		root.getLeftChild().removeRightChild();
+	}
+
+	@Test
+	public void testCachesFilledByReaders() throws InterruptedException {
+		Integer[] values = new Integer[1023];
+		for(int i = 0; i < values.length; i++)
+			values[i] = i;
+		final BinaryTree<Integer> plain = BinaryTree.fromSorted(values);
+		final ConcurrentBinaryTree<Integer> tree = ConcurrentBinaryTree.of(plain);
+		final int expected = plain.hashCode();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		List<Thread> readers = new ArrayList<Thread>();
+		for(int r = 0; r < 4; r++) {
+			readers.add(new Thread(() -> {
+				try {
+					for(int i = 0; i < 200; i++) {
+						assertEquals(expected, tree.hashCode());
+						assertTrue(tree.isBalanced(true));
+						assertNull(tree.findUnbalancedNode(true));
+						assertEquals(9, tree.getHeight());
+						assertTrue(tree.equals(plain));
+					}
+				}
+				catch(Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			}));
+		}
+		for(Thread reader : readers)
+			reader.start();
+		for(Thread reader : readers)
+			reader.join();
+		if(failure.get() != null)
+			throw new AssertionError(failure.get());
+		/* A write drops the caches filled by the readers */
+		tree.getLeftChild().setValue(-1);
+		plain.getLeftChild().setValue(-1);
+		assertEquals(plain.hashCode(), tree.hashCode());
+		tree.getLeftChild().getLeftChild().setLeftChild(tree.newNode(-2));
+		tree.getLeftChild().getLeftChild().getLeftChild().setLeftChild(tree.newNode(-3));
+		assertFalse(tree.isBalanced(true));
+	}
+
+	@Test
+	public void testConcurrentReadersAndWriter() throws InterruptedException {
+		ConcurrentBinaryTree<Integer> tree = new ConcurrentBinaryTree<Integer>(0);
+		ConcurrentBinaryTree<Integer> node = tree;
+		for(int i = 1; i < 100; i++) {
+			ConcurrentBinaryTree<Integer> child = tree.newNode(i);
+			node.setLeftChild(child);
+			node = child;
+		}
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		List<Thread> readers = new ArrayList<Thread>();
+		for(int r = 0; r < 4; r++) {
+			readers.add(new Thread(() -> {
+				try {
+					for(int i = 0; i < 2000; i++) {
+						int size = tree.size();
+						assertTrue(size > 0 && size <= 100);
+						/* A traversal sees a whole tree, each node once, never a half moved subtree */
+						boolean[] seen = new boolean[100];
+						tree.preOrderTraversal(value -> {
+							assertFalse(seen[value]);
+							seen[value] = true;
+						});
+						assertTrue(seen[0]);
+						/* The other reads see a whole tree as well */
+						List<BinaryTree<Integer>> nodes = new ArrayList<BinaryTree<Integer>>();
+						tree.iterator(TraversalOrder.IN_ORDER).forEachRemaining(nodes::add);
+						assertEquals(nodes.size(), new HashSet<BinaryTree<Integer>>(nodes).size());
+						int width = tree.levels().mapToInt(List::size).sum();
+						assertTrue(width > 0 && width <= 100);
+						assertNotNull(tree.getKthSmallestNode(1));
+						assertNotNull(tree.getKthLargestNode(1));
+						assertTrue(tree.toString().startsWith("0"));
+						assertTrue(tree.getLeaves().size() <= 2);
+					}
+				}
+				catch(Throwable e) {
+					failure.compareAndSet(null, e);
+				}
+			}));
+		}
+		for(Thread reader : readers)
+			reader.start();
+		/* The writer cuts the left chain and moves the lower part to the right side and back */
+		for(int i = 0; i < 2000; i++) {
+			if(tree.getRightChild() != null) {
+				ConcurrentBinaryTree<Integer> last = tree;
+				while(last.getLeftChild() != null)
+					last = last.getLeftChild();
+				last.setLeftChild(tree.removeRightChild());
+			}
+			else {
+				ConcurrentBinaryTree<Integer> cut = tree;
+				for(int depth = i % 50; depth > 0; depth--)
+					cut = cut.getLeftChild();
+				tree.setRightChild(cut.removeLeftChild());
+			}
+		}
+		for(Thread reader : readers)
+			reader.join();
+		if(failure.get() != null)
+			throw new AssertionError(failure.get());
+		assertEquals(100, tree.size());
+	}
+}
@@ -0,0 +1,51 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.stream.DoubleStream;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.DoubleBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeParseException;
+
+import org.junit.Test;
+
+/**
+ * Tests for the DoubleBinaryTree
+ */
+public class DoubleBinaryTreeTest {
+
+	@Test
+	public void testParse() {
+		DoubleBinaryTree root = DoubleBinaryTree.parse("0.5(-1e3 NaN)");
+		assertEquals(0.5, root.getValue(), 0);
+		assertEquals(-1000, root.getLeftChild().getValue(), 0);
+		assertTrue(Double.isNaN(root.getRightChild().getValue()));
+		assertEquals("0.5(-1000.0 NaN)", root.toString());
+	}
+
+	@Test
+	public void testTraversals() {
+		DoubleBinaryTree root = DoubleBinaryTree.parse("2(1 3(2.5 4))");
+		final double[] sum = {0};
+		root.inOrderTraversal(value -> sum[0] += value);
+		assertEquals(12.5, sum[0], 0);
+		assertEquals(2.5, root.getKthSmallestNode(3).getValue(), 0);
+		assertEquals(3, root.getLeaves().size());
+		assertEquals(2, root.getHeight());
+	}
+
+	@Test(expected = TreeParseException.class)
+	public void testParseError() {
+		DoubleBinaryTree.parse("1(2 three)");
+	}
+
+	@Test
+	public void testFromSorted() {
+		assertEquals("1.5(0.5 2.5)", DoubleBinaryTree.fromSorted(0.5, 1.5, 2.5).toString());
+		assertEquals(4, DoubleBinaryTree.fromSorted(DoubleStream.of(1, 2, 3, 4)).size());
+		assertNull(DoubleBinaryTree.fromSorted(DoubleStream.empty()));
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.LinkedList;
+import java.util.NoSuchElementException;
+import java.util.stream.IntStream;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.IntBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeParseException;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the IntBinaryTree and the structure it shares with the other primitive trees
+ */
+public class IntBinaryTreeTest {
+
+	IntBinaryTree root;
+
+	@Before
+	public void setUp() throws Exception {
+		root = IntBinaryTree.parse("10(5(2(1 3) 8(6 9)) 15(12(11 13) 18(16 20)))");
+	}
+
+	@Test
+	public void testParse() {
+		assertEquals("10(5(2(1 3) 8(6 9)) 15(12(11 13) 18(16 20)))", root.toString());
+		assertEquals(5, root.getLeftChild().getValue());
+		assertSame(root, root.getLeftChild().getParent());
+		assertEquals(-7, IntBinaryTree.parse(" -7 ").getValue());
+	}
+
+	@Test
+	public void testParseError() {
+		try {
+			IntBinaryTree.parse("1(2 x)");
+			fail();
+		}
+		catch(TreeParseException e) {
+			assertEquals(5, e.getOffset());
+		}
+	}
+
+	@Test
+	public void testTraversals() {
+		final StringBuilder builder = new StringBuilder();
+		root.inOrderTraversal(value -> builder.append(value).append(' '));
+		assertEquals("1 2 3 5 6 8 9 10 11 12 13 15 16 18 20 ", builder.toString());
+		builder.setLength(0);
+		root.getLeftChild().preOrderTraversal(value -> builder.append(value).append(' '));
+		assertEquals("5 2 1 3 8 6 9 ", builder.toString());
+		builder.setLength(0);
+		root.getLeftChild().postOrderTraversal(value -> builder.append(value).append(' '));
+		assertEquals("1 3 2 6 9 8 5 ", builder.toString());
+	}
+
+	@Test
+	public void testSizeAndHeight() {
+		assertEquals(15, root.size());
+		assertEquals(3, root.getHeight());
+		assertEquals(1, root.getKthSmallestNode(1).size());
+		assertEquals(0, new IntBinaryTree(1).getHeight());
+	}
+
+	@Test
+	public void testGetKthNode() {
+		assertEquals(12, root.getKthSmallestNode(10).getValue());
+		assertEquals(20, root.getKthSmallestNode(15).getValue());
+		assertNull(root.getKthSmallestNode(16));
+		assertNull(root.getKthSmallestNode(0));
+		assertEquals(8, root.getKthLargestNode(10).getValue());
+		assertEquals(20, root.getKthLargestNode(1).getValue());
+		assertNull(root.getKthLargestNode(16));
+	}
+
+	@Test
+	public void testGetLeaves() {
+		LinkedList<IntBinaryTree> leaves = root.getLeaves();
+		assertEquals(8, leaves.size());
+		assertEquals(1, leaves.getFirst().getValue());
+		assertEquals(20, leaves.getLast().getValue());
+	}
+
+	@Test
+	public void testSetChild() {
+		IntBinaryTree other = new IntBinaryTree(0);
+		IntBinaryTree subTree = root.removeRightChild();
+		other.setLeftChild(subTree);
+		assertNull(root.getRightChild());
+		assertSame(other, subTree.getParent());
+		assertEquals(8, root.size());
+		subTree.setLeftChild(other);
+		assertEquals(12, subTree.getLeftChild().getValue());
+		root.setLeftChild(root);
+		assertEquals(8, root.size());
+		assertEquals(subTree, other.removeLeftChild());
+		assertTrue(other.isLeaf());
+		assertTrue(subTree.isRoot());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetChildWithParent() {
+		new IntBinaryTree(0).setLeftChild(root.getRightChild());
+	}
+
+	@Test(expected = NoSuchElementException.class)
+	public void testRemoveMissingChild() {
+		new IntBinaryTree(1).removeRightChild();
+	}
+
+	@Test
+	public void testDegenerateTree() {
+		IntBinaryTree deep = new IntBinaryTree(0);
+		IntBinaryTree node = deep;
+		for(int i = 1; i < 100000; i++) {
+			node.setRightChild(new IntBinaryTree(i));
+			node = node.getRightChild();
+		}
+		assertEquals(100000, deep.size());
+		assertEquals(99999, deep.getHeight());
+		assertEquals(99999, deep.getKthLargestNode(1).getValue());
+		final long[] sum = {0};
+		deep.postOrderTraversal(value -> sum[0] += value);
+		assertEquals(99999L * 100000 / 2, sum[0]);
+		assertEquals(1, deep.getLeaves().size());
+	}
+
+	@Test
+	public void testFromSorted() {
+		IntBinaryTree tree = IntBinaryTree.fromSorted(1, 2, 3, 5, 8, 13, 21);
+		assertEquals("5(2(1 3) 13(8 21))", tree.toString());
+		assertSame(tree, tree.getRightChild().getParent());
+		assertNull(IntBinaryTree.fromSorted());
+		tree = IntBinaryTree.fromSorted(IntStream.range(0, 1000));
+		assertEquals(1000, tree.size());
+		assertEquals(9, tree.getHeight());
+		assertEquals(499, tree.getValue());
+		assertEquals(0, tree.getKthSmallestNode(1).getValue());
+	}
+}
@@ -0,0 +1,53 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.stream.LongStream;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.LongBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeParseException;
+
+import org.junit.Test;
+
+/**
+ * Tests for the LongBinaryTree
+ */
+public class LongBinaryTreeTest {
+
+	@Test
+	public void testParse() throws IOException {
+		LongBinaryTree root = LongBinaryTree.parse(new StringReader("9000000000(1 -9000000000)"));
+		assertEquals(9000000000L, root.getValue());
+		assertEquals(-9000000000L, root.getRightChild().getValue());
+		assertEquals("9000000000(1 -9000000000)", root.toString());
+	}
+
+	@Test
+	public void testTraversals() {
+		LongBinaryTree root = new LongBinaryTree(2, new LongBinaryTree(1), new LongBinaryTree(3));
+		final StringBuilder builder = new StringBuilder();
+		root.inOrderTraversal(value -> builder.append(value));
+		root.preOrderTraversal(value -> builder.append(value));
+		root.postOrderTraversal(value -> builder.append(value));
+		assertEquals("123213132", builder.toString());
+		assertEquals(3, root.getKthSmallestNode(3).getValue());
+	}
+
+	@Test(expected = TreeParseException.class)
+	public void testParseDouble() {
+		LongBinaryTree.parse("1(2.5 3)");
+	}
+
+	@Test
+	public void testFromSorted() {
+		assertEquals("2(1 3)", LongBinaryTree.fromSorted(1L, 2L, 3L).toString());
+		LongBinaryTree tree = LongBinaryTree.fromSorted(LongStream.rangeClosed(1, 1000));
+		assertEquals(1000, tree.size());
+		assertEquals(9, tree.getHeight());
+	}
+}
@@ -0,0 +1,107 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.IndexedBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.OffHeapBinaryTree;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the OffHeapBinaryTree
+ */
+public class OffHeapBinaryTreeTest {
+
+	OffHeapBinaryTree root;
+
+	@Before
+	public void setUp() throws Exception {
+		/* 1(2 3(4(6 7) 5)) */
+		root = OffHeapBinaryTree.allocate(1);
+		root.addLeftChild(0, 2);
+		int three = root.addRightChild(0, 3);
+		int four = root.addLeftChild(three, 4);
+		root.addRightChild(three, 5);
+		root.addLeftChild(four, 6);
+		root.addRightChild(four, 7);
+	}
+
+	@Test
+	public void testChildren() {
+		assertEquals(7, root.size());
+		assertEquals(3, root.getValue(root.getRightChild(root.getRoot())));
+		assertEquals(IndexedBinaryTree.NIL, root.getLeftChild(1));
+		assertTrue(root.isLeaf(1));
+		root.setValue(1, -2);
+		assertEquals(-2, root.getValue(1));
+	}
+
+	@Test
+	public void testSizeHeightAndLeaves() {
+		assertEquals(3, root.getHeight());
+		assertEquals(5, root.size(2));
+		assertArrayEquals(new int[] {1, 5, 6, 4}, root.getLeaves());
+	}
+
+	@Test
+	public void testTraversals() {
+		final StringBuilder builder = new StringBuilder();
+		root.inOrderTraversal(value -> builder.append(value));
+		root.preOrderTraversal(value -> builder.append(value));
+		root.postOrderTraversal(value -> builder.append(value));
+		assertEquals("216473512346752674531", builder.toString());
+	}
+
+	@Test
+	public void testFile() throws IOException {
+		Path file = Files.createTempFile("tree", ".bin");
+		try {
+			try(OffHeapBinaryTree tree = OffHeapBinaryTree.create(file, 0)) {
+				int node = tree.getRoot();
+				for(int i = 1; i < 100000; i++)
+					node = (i % 2 == 0) ? tree.addLeftChild(node, i) : tree.addRightChild(node, i);
+			}
+			try(OffHeapBinaryTree tree = OffHeapBinaryTree.open(file)) {
+				assertEquals(100000, tree.size());
+				assertEquals(99999, tree.getHeight());
+				assertEquals(99999, tree.getValue(tree.getLeaves()[0]));
+				tree.addLeftChild(tree.getLeaves()[0], 100000);
+			}
+			try(OffHeapBinaryTree tree = OffHeapBinaryTree.open(file)) {
+				assertEquals(100001, tree.size());
+				final long[] sum = {0};
+				tree.inOrderTraversal(value -> sum[0] += value);
+				assertEquals(100000L * 100001 / 2, sum[0]);
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testOpenOtherFile() throws IOException {
+		Path file = Files.createTempFile("tree", ".txt");
+		try {
+			Files.write(file, "one(two three(four(six seven) five))".getBytes("UTF-8"));
+			OffHeapBinaryTree.open(file);
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testClosed() throws IOException {
+		root.close();
+		root.getValue(0);
+	}
+}
@@ -0,0 +1,141 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.OrderStatisticTree;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the OrderStatisticTree
+ */
+public class OrderStatisticTreeTest {
+
+	OrderStatisticTree<String> root;
+
+	@Before
+	public void setUp() throws Exception {
+		root = OrderStatisticTree.of(BinaryTree.parse("10(5(2(1 3) 8(6 9)) 15(12(11 13) 18(16 20)))"));
+	}
+
+	@Test
+	public void testOf() {
+		assertEquals(BinaryTree.parse("10(5(2(1 3) 8(6 9)) 15(12(11 13) 18(16 20)))"), root);
+		assertNull(OrderStatisticTree.of(null));
+	}
+
+	@Test
+	public void testOfDegenerateTree() {
+		BinaryTree<String> deep = new BinaryTree<String>("leaf");
+		for(int i = 0; i < 100000; i++)
+			deep = new BinaryTree<String>("node", deep, null);
+		OrderStatisticTree<String> copy = OrderStatisticTree.of(deep);
+		assertEquals(100001, copy.size());
+		assertEquals("leaf", copy.getKthSmallestNode(1).getValue());
+		assertSame(copy, copy.getKthLargestNode(1));
+		assertEquals(100001, copy.rankOf(copy));
+	}
+
+	@Test
+	public void testSize() {
+		assertEquals(15, root.size());
+		assertEquals(7, root.getLeftChild().size());
+		assertEquals(1, root.getLeftChild().getLeftChild().getLeftChild().size());
+	}
+
+	@Test
+	public void testSizeAfterUpdates() {
+		BinaryTree<String> leftSubTree = root.removeLeftChild();
+		assertEquals(8, root.size());
+		assertEquals(7, leftSubTree.size());
+
+		OrderStatisticTree<String> leaf = root.getKthSmallestNode(2);
+		assertEquals("11", leaf.getValue());
+		leaf.setLeftChild(leftSubTree);
+		assertEquals(15, root.size());
+		assertEquals(8, leaf.size());
+
+		root.getRightChild().clear();
+		assertEquals(2, root.size());
+	}
+
+	@Test
+	public void testSetRemovedChild() {
+		OrderStatisticTree<String> other = new OrderStatisticTree<String>("x");
+		BinaryTree<String> subTree = root.removeRightChild();
+		other.setRightChild(subTree);
+		assertNull(root.getRightChild());
+		assertEquals(8, root.size());
+		assertEquals(8, other.size());
+		assertSame(other, ((OrderStatisticTree<String>) subTree).getParent());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetChildWithParent() {
+		new OrderStatisticTree<String>("x").setRightChild(root.getRightChild());
+	}
+
+	@Test
+	public void testSetChildIgnoresCycles() {
+		OrderStatisticTree<String> leaf = root.getKthSmallestNode(1);
+		leaf.setLeftChild(root);
+		assertNull(leaf.getLeftChild());
+		leaf.setRightChild(leaf);
+		assertNull(leaf.getRightChild());
+		assertEquals(15, root.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testSetPlainChild() {
+		root.setLeftChild(new BinaryTree<String>("x"));
+	}
+
+	@Test
+	public void testGetKthSmallestNode() {
+		assertEquals("12", root.getKthSmallestNode(10).getValue());
+		assertEquals("1", root.getKthSmallestNode(1).getValue());
+		assertEquals("20", root.getKthSmallestNode(15).getValue());
+		assertEquals("10", root.getKthSmallestNode(8).getValue());
+		assertNull(root.getKthSmallestNode(0));
+		assertNull(root.getKthSmallestNode(16));
+	}
+
+	@Test
+	public void testGetKthLargestNode() {
+		assertEquals("8", root.getKthLargestNode(10).getValue());
+		assertEquals("20", root.getKthLargestNode(1).getValue());
+		assertEquals("1", root.getKthLargestNode(15).getValue());
+		assertEquals("13", root.getKthLargestNode(5).getValue());
+		assertNull(root.getKthLargestNode(16));
+	}
+
+	@Test
+	public void testRankOf() {
+		for(int k = 1; k <= root.size(); k++)
+			assertEquals(k, root.rankOf(root.getKthSmallestNode(k)));
+		OrderStatisticTree<String> rightSubTree = (OrderStatisticTree<String>) root.getRightChild();
+		assertEquals(1, rightSubTree.rankOf(rightSubTree.getKthSmallestNode(1)));
+		assertEquals(-1, rightSubTree.rankOf(root));
+		assertEquals(-1, root.rankOf(new BinaryTree<String>("10")));
+	}
+
+	@Test
+	public void testSelect() {
+		assertEquals("6", root.select(5).getValue());
+		List<OrderStatisticTree<String>> list = root.select(4, 9);
+		assertEquals(6, list.size());
+		String[] expected = {"5", "6", "8", "9", "10", "11"};
+		for(int i = 0; i < expected.length; i++)
+			assertEquals(expected[i], list.get(i).getValue());
+		assertEquals(15, root.select(0, 100).size());
+		assertEquals(0, root.select(9, 4).size());
+		assertEquals(3, ((OrderStatisticTree<String>) root.getLeftChild()).select(5, 10).size());
+	}
+}
@@ -0,0 +1,106 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.ParallelTreeOperations;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the ParallelTreeOperations
+ */
+public class ParallelTreeOperationsTest {
+
+	ParallelTreeOperations operations;
+	BinaryTree<Integer> random1, random2, deep;
+
+	/**
+	 * Builds a random shaped tree of the given size from a seeded generator
+	 */
+	static BinaryTree<Integer> randomTree(int size, long seed) {
+		Random random = new Random(seed);
+		BinaryTree<Integer> root = new BinaryTree<Integer>(0);
+		for(int i = 1; i < size; i++) {
+			BinaryTree<Integer> node = root;
+			while(true) {
+				if(random.nextBoolean()) {
+					if(node.getLeftChild() == null) {
+						node.setLeftChild(new BinaryTree<Integer>(i));
+						break;
+					}
+					node = node.getLeftChild();
+				}
+				else {
+					if(node.getRightChild() == null) {
+						node.setRightChild(new BinaryTree<Integer>(i));
+						break;
+					}
+					node = node.getRightChild();
+				}
+			}
+		}
+		return root;
+	}
+
+	@Before
+	public void setUp() throws Exception {
+		/* A small threshold, so that even these trees are split between many tasks */
+		operations = new ParallelTreeOperations(new ForkJoinPool(4), 8);
+		random1 = randomTree(2000, 42);
+		random2 = randomTree(2000, 42);
+		deep = new BinaryTree<Integer>(0);
+		for(int i = 1; i < 50000; i++)
+			deep = new BinaryTree<Integer>(i, deep, null);
+	}
+
+	@Test
+	public void testSize() {
+		assertEquals(2000, operations.size(random1));
+		assertEquals(50000, operations.size(deep));
+		assertEquals(1, operations.size(new BinaryTree<Integer>(1)));
+	}
+
+	@Test
+	public void testGetHeight() {
+		assertEquals(random1.getHeight(), operations.getHeight(random1));
+		assertEquals(49999, operations.getHeight(deep));
+		assertEquals(0, operations.getHeight(new BinaryTree<Integer>(1)));
+	}
+
+	@Test
+	public void testGetLeaves() {
+		assertEquals(random1.getLeaves(), operations.getLeaves(random1));
+		assertEquals(1, operations.getLeaves(deep).size());
+	}
+
+	@Test
+	public void testContains() {
+		BinaryTree<Integer> last = random1.getLeaves().getLast();
+		assertTrue(operations.contains(random1, last));
+		assertTrue(operations.contains(random1, random1));
+		assertFalse(operations.contains(random1, random2.getLeaves().getLast()));
+		assertFalse(operations.contains(random1, null));
+	}
+
+	@Test
+	public void testEquals() {
+		assertTrue(operations.equals(random1, random2));
+		assertFalse(operations.equals(random1, deep));
+		assertFalse(operations.equals(random1, "random1"));
+		random2.getLeaves().getLast().setValue(-1);
+		assertFalse(operations.equals(random1, random2));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidThreshold() {
+		new ParallelTreeOperations(ForkJoinPool.commonPool(), 0);
+	}
+}
@@ -0,0 +1,113 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.PersistentBinaryTree;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the PersistentBinaryTree
+ */
+public class PersistentBinaryTreeTest {
+
+	BinaryTree<String> tree;
+	PersistentBinaryTree<String> root;
+
+	@Before
+	public void setUp() throws Exception {
+		tree = BinaryTree.parse("one(two three(four(six seven) five))");
+		root = PersistentBinaryTree.of(tree);
+	}
+
+	@Test
+	public void testConversions() {
+		assertEquals(tree.toString(), root.toString());
+		assertEquals(tree.hashCode(), root.hashCode());
+		assertEquals(7, root.size());
+		assertEquals(3, root.getHeight());
+		assertEquals(tree, root.toBinaryTree());
+		assertNull(PersistentBinaryTree.of(null));
+	}
+
+	@Test
+	public void testGet() {
+		assertSame(root, root.get(0));
+		assertEquals("two", root.get(1).getValue());
+		assertEquals("three", root.get(2).getValue());
+		assertEquals("seven", root.get(5).getValue());
+		assertEquals("five", root.get(6).getValue());
+	}
+
+	@Test
+	public void testWithValue() {
+		PersistentBinaryTree<String> updated = root.withValue(4, "SIX");
+		assertEquals("one(two three(four(six seven) five))", root.toString());
+		assertEquals("one(two three(four(SIX seven) five))", updated.toString());
+		/* Only the path one, three, four, six is copied */
+		assertSame(root.getLeftChild(), updated.getLeftChild());
+		assertSame(root.get(6), updated.get(6));
+		assertSame(root.get(5), updated.get(5));
+		assertNotSame(root.get(3), updated.get(3));
+		assertFalse(root.equals(updated));
+		assertEquals(updated, root.withValue(4, "SIX"));
+		assertEquals(updated.hashCode(), root.withValue(4, "SIX").hashCode());
+	}
+
+	@Test
+	public void testWithChildren() {
+		PersistentBinaryTree<String> updated = root.withLeftChild(2, null);
+		assertEquals(4, updated.size());
+		assertEquals(2, updated.getHeight());
+		assertEquals(7, root.size());
+		updated = updated.withRightChild(1, root.get(3));
+		assertEquals("one(two three)", updated.toString());
+		assertSame(root.get(3), updated.get(1).getRightChild());
+		assertEquals(7, updated.size());
+		List<String> values = new ArrayList<String>();
+		updated.inOrderTraversal(values::add);
+		assertEquals("[two, six, four, seven, one, three, five]", values.toString());
+	}
+
+	@Test
+	public void testTraversals() {
+		List<String> values = new ArrayList<String>();
+		root.preOrderTraversal(values::add);
+		assertEquals("[one, two, three, four, six, seven, five]", values.toString());
+		values.clear();
+		root.postOrderTraversal(values::add);
+		assertEquals("[two, six, seven, four, five, three, one]", values.toString());
+		values.clear();
+		root.levelOrderTraversal(values::add);
+		assertEquals("[one, two, three, four, five, six, seven]", values.toString());
+	}
+
+	@Test
+	public void testVersionsAreIndependent() {
+		List<PersistentBinaryTree<Integer>> versions = new ArrayList<PersistentBinaryTree<Integer>>();
+		PersistentBinaryTree<Integer> version = new PersistentBinaryTree<Integer>(0);
+		versions.add(version);
+		for(int i = 1; i < 1000; i++) {
+			version = version.withLeftChild(i - 1, new PersistentBinaryTree<Integer>(i));
+			versions.add(version);
+		}
+		for(int i = 0; i < 1000; i++) {
+			assertEquals(i + 1, versions.get(i).size());
+			assertEquals(i, versions.get(i).getHeight());
+			assertEquals(Integer.valueOf(i), versions.get(i).get(i).getValue());
+		}
+	}
+
+	@Test(expected = IndexOutOfBoundsException.class)
+	public void testMissingNode() {
+		root.withValue(7, "eight");
+	}
+}
@@ -0,0 +1,97 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.PersistentBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeInterner;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the TreeInterner
+ */
+public class TreeInternerTest {
+
+	TreeInterner<String> interner;
+	BinaryTree<String> tree;
+
+	@Before
+	public void setUp() throws Exception {
+		interner = new TreeInterner<String>();
+		tree = BinaryTree.parse("a(b(x(y z) x(y z)) b(x(y z) x(y z)))");
+	}
+
+	@Test
+	public void testIntern() {
+		PersistentBinaryTree<String> interned = interner.intern(tree);
+		assertEquals(PersistentBinaryTree.of(tree), interned);
+		assertEquals(tree.toString(), interned.toString());
+		assertEquals(15, interned.size());
+		assertSame(interned.getLeftChild(), interned.getRightChild());
+		assertSame(interned.getLeftChild().getLeftChild(), interned.getLeftChild().getRightChild());
+		assertTrue(interner.isInterned(interned));
+		assertNull(interner.intern((BinaryTree<String>) null));
+	}
+
+	@Test
+	public void testEqualTreesAreSame() {
+		PersistentBinaryTree<String> first = interner.intern(tree);
+		PersistentBinaryTree<String> second = interner.intern(BinaryTree.parse(tree.toString()));
+		assertSame(first, second);
+		PersistentBinaryTree<String> other = interner.intern(BinaryTree.parse("b(x(y z) x(y w))"));
+		assertNotSame(first.getLeftChild(), other);
+		assertSame(first.getLeftChild().getLeftChild(), other.getLeftChild());
+	}
+
+	@Test
+	public void testReport() {
+		assertEquals(1.0, interner.getCompressionRatio(), 0);
+		interner.intern(tree);
+		assertEquals(15, interner.getInternedNodes());
+		/* a, b, x, y and z */
+		assertEquals(5, interner.getDistinctNodes());
+		assertEquals(3.0, interner.getCompressionRatio(), 0);
+		assertEquals("15 nodes interned as 5 distinct nodes, compression ratio 3.00", interner.toString());
+		interner.clear();
+		assertEquals(0, interner.getInternedNodes());
+		assertEquals(0, interner.getDistinctNodes());
+	}
+
+	@Test
+	public void testInternPersistentTree() {
+		PersistentBinaryTree<String> copy = PersistentBinaryTree.of(tree);
+		assertFalse(interner.isInterned(copy));
+		PersistentBinaryTree<String> interned = interner.intern(copy);
+		assertEquals(copy, interned);
+		assertSame(interned.getLeftChild(), interned.getRightChild());
+		assertSame(interned, interner.intern(interned));
+		assertSame(interned, interner.intern(tree));
+
+		PersistentBinaryTree<String> updated = interned.withValue(3, "w");
+		assertFalse(interner.isInterned(updated));
+		PersistentBinaryTree<String> reinterned = interner.intern(updated);
+		assertEquals(updated, reinterned);
+		assertSame(interned.getRightChild(), reinterned.getRightChild());
+		assertSame(interned.getLeftChild().getRightChild(), reinterned.getLeftChild().getRightChild());
+	}
+
+	@Test
+	public void testUnshare() {
+		PersistentBinaryTree<String> interned = interner.intern(tree);
+		BinaryTree<String> copy = interner.unshare(interned);
+		assertEquals(tree, copy);
+		copy.getLeftChild().getLeftChild().setValue("w");
+		assertEquals("x", interned.getLeftChild().getLeftChild().getValue());
+		assertEquals("x", interned.getRightChild().getRightChild().getValue());
+		assertEquals("x", copy.getRightChild().getLeftChild().getValue());
+		PersistentBinaryTree<String> modified = interner.intern(copy);
+		assertSame(interned.getRightChild(), modified.getRightChild());
+		assertSame(interned.getLeftChild().getRightChild(), modified.getLeftChild().getRightChild());
+		assertNull(interner.unshare(null));
+	}
+}
@@ -0,0 +1,115 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeIterator;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the TreeIterator
+ */
+public class TreeIteratorTest {
+
+	BinaryTree<String> root;
+
+	@Before
+	public void setUp() throws Exception {
+		root = BinaryTree.parse("one(two three(four(six seven) five))");
+	}
+
+	private static List<String> values(Iterator<BinaryTree<String>> iterator) {
+		List<String> values = new ArrayList<String>();
+		while(iterator.hasNext())
+			values.add(iterator.next().getValue());
+		return values;
+	}
+
+	@Test
+	public void testPreOrder() {
+		assertEquals("[one, two, three, four, six, seven, five]",
+				values(new TreeIterator<String>(root, TraversalOrder.PRE_ORDER)).toString());
+	}
+
+	@Test
+	public void testInOrder() {
+		assertEquals("[two, one, six, four, seven, three, five]",
+				values(new TreeIterator<String>(root, TraversalOrder.IN_ORDER)).toString());
+	}
+
+	@Test
+	public void testPostOrder() {
+		assertEquals("[two, six, seven, four, five, three, one]",
+				values(new TreeIterator<String>(root, TraversalOrder.POST_ORDER)).toString());
+	}
+
+	@Test
+	public void testLevelOrder() {
+		assertEquals("[one, two, three, four, five, six, seven]",
+				values(new TreeIterator<String>(root, TraversalOrder.LEVEL_ORDER)).toString());
+		/* A complete tree whose nodes are numbered in levelOrder, wide enough to grow the queue */
+		List<BinaryTree<Integer>> nodes = new ArrayList<BinaryTree<Integer>>();
+		for(int i = 0; i < 1000; i++) {
+			nodes.add(new BinaryTree<Integer>(i));
+			if(i > 0) {
+				if(i % 2 == 1)
+					nodes.get((i-1) / 2).setLeftChild(nodes.get(i));
+				else
+					nodes.get((i-1) / 2).setRightChild(nodes.get(i));
+			}
+		}
+		Iterator<BinaryTree<Integer>> iterator = nodes.get(0).iterator(TraversalOrder.LEVEL_ORDER);
+		for(int i = 0; i < 1000; i++)
+			assertEquals(Integer.valueOf(i), iterator.next().getValue());
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test
+	public void testSingleChildren() {
+		BinaryTree<String> node = new BinaryTree<String>("a");
+		node.setLeftChild(new BinaryTree<String>("b"));
+		node.getLeftChild().setRightChild(new BinaryTree<String>("c"));
+		assertEquals("[a, b, c]", values(node.iterator(TraversalOrder.PRE_ORDER)).toString());
+		assertEquals("[b, c, a]", values(node.iterator(TraversalOrder.IN_ORDER)).toString());
+		assertEquals("[c, b, a]", values(node.iterator(TraversalOrder.POST_ORDER)).toString());
+		assertEquals("[a, b, c]", values(node.iterator(TraversalOrder.LEVEL_ORDER)).toString());
+	}
+
+	@Test
+	public void testEmpty() {
+		Iterator<BinaryTree<String>> iterator = new TreeIterator<String>(null, TraversalOrder.IN_ORDER);
+		assertFalse(iterator.hasNext());
+		try {
+			iterator.next();
+			fail("NoSuchElementException expected");
+		}
+		catch (NoSuchElementException e) { }
+	}
+
+	@Test
+	public void testDegenerateTree() {
+		BinaryTree<Integer> node = new BinaryTree<Integer>(0);
+		for(int i = 1; i < 100000; i++)
+			node = new BinaryTree<Integer>(i, null, node);
+		for(TraversalOrder order : TraversalOrder.values()) {
+			Iterator<BinaryTree<Integer>> iterator = node.iterator(order);
+			int count = 0;
+			while(iterator.hasNext()) {
+				iterator.next();
+				count++;
+			}
+			assertEquals(100000, count);
+		}
+	}
+}
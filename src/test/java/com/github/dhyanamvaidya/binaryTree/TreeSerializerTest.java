@@ -0,0 +1,173 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeSerializer;
+import main.java.com.github.dhyanamvaidya.binaryTree.ValueCodecs;
+
+import org.junit.Test;
+
+/**
+ * Tests for the TreeSerializer and the ValueCodecs
+ */
+public class TreeSerializerTest {
+
+	private static <V> BinaryTree<V> roundTrip(TreeSerializer<V> serializer, BinaryTree<V> tree) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.write(tree, out);
+		return serializer.read(new ByteArrayInputStream(out.toByteArray()));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		TreeSerializer<String> serializer = new TreeSerializer<String>(ValueCodecs.STRING);
+		BinaryTree<String> tree = BinaryTree.parse("one(two three(four(six seven) five))");
+		assertEquals(tree, roundTrip(serializer, tree));
+		assertNull(roundTrip(serializer, null));
+	}
+
+	@Test
+	public void testSingleChildrenAndNullValues() throws IOException {
+		TreeSerializer<String> serializer = new TreeSerializer<String>(ValueCodecs.STRING);
+		BinaryTree<String> tree = new BinaryTree<String>("root");
+		tree.setRightChild(new BinaryTree<String>(null));
+		tree.getRightChild().setLeftChild(new BinaryTree<String>("\u00e9t\u00e9"));
+		BinaryTree<String> copy = roundTrip(serializer, tree);
+		assertEquals(tree, copy);
+		assertNull(copy.getLeftChild());
+		assertNull(copy.getRightChild().getValue());
+	}
+
+	@Test
+	public void testLargeAndDeepTrees() throws IOException {
+		TreeSerializer<Integer> serializer = new TreeSerializer<Integer>(ValueCodecs.INTEGER);
+		BinaryTree<Integer> tree = ParallelTreeOperationsTest.randomTree(20000, 3);
+		assertEquals(tree, roundTrip(serializer, tree));
+
+		BinaryTree<Integer> deep = new BinaryTree<Integer>(Integer.MIN_VALUE);
+		for(int i = 0; i < 100000; i++)
+			deep = new BinaryTree<Integer>(-i, null, deep);
+		assertEquals(deep, roundTrip(serializer, deep));
+	}
+
+	@Test
+	public void testChannels() throws IOException {
+		TreeSerializer<Long> serializer = new TreeSerializer<Long>(ValueCodecs.LONG);
+		BinaryTree<Long> tree = new BinaryTree<Long>(Long.MAX_VALUE, new BinaryTree<Long>(-1L), new BinaryTree<Long>(Long.MIN_VALUE));
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.write(tree, Channels.newChannel(out));
+		assertEquals(tree, serializer.read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray()))));
+	}
+
+	@Test
+	public void testCompactness() throws IOException {
+		BinaryTree<Integer> numbers = ParallelTreeOperationsTest.randomTree(10000, 5);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new TreeSerializer<Integer>(ValueCodecs.INTEGER).write(numbers, out);
+		/* Half a byte of structure per node and at most 3 bytes per value */
+		assertTrue(out.size() < 10000 * 3.5 + 100);
+	}
+
+	@Test
+	public void testCorruptedStreams() throws IOException {
+		TreeSerializer<String> serializer = new TreeSerializer<String>(ValueCodecs.STRING);
+		try {
+			serializer.read(new ByteArrayInputStream("not a tree".getBytes("UTF-8")));
+			fail("IOException expected");
+		}
+		catch (IOException e) { }
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.write(BinaryTree.parse("a(b c)"), out);
+		byte[] truncated = Arrays.copyOf(out.toByteArray(), out.size() - 3);
+		try {
+			serializer.read(new ByteArrayInputStream(truncated));
+			fail("EOFException expected");
+		}
+		catch (EOFException e) { }
+	}
+
+	@Test
+	public void testNegativeBlockCount() throws IOException {
+		TreeSerializer<String> serializer = new TreeSerializer<String>(ValueCodecs.STRING);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.write(BinaryTree.parse("a(b c)"), out);
+		/* The header is followed by a count of -1 instead of the first block */
+		ByteArrayOutputStream corrupted = new ByteArrayOutputStream();
+		corrupted.write(out.toByteArray(), 0, 5);
+		ValueCodecs.writeVarInt(-1, new DataOutputStream(corrupted));
+		try {
+			serializer.read(new ByteArrayInputStream(corrupted.toByteArray()));
+			fail("IOException expected");
+		}
+		catch (IOException e) { }
+	}
+
+	@Test
+	public void testCorruptedStringLength() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ValueCodecs.writeVarInt(-5, new DataOutputStream(out));
+		try {
+			ValueCodecs.STRING.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+			fail("IOException expected");
+		}
+		catch (IOException e) { }
+
+		/* A huge length runs out of bytes rather than memory */
+		out.reset();
+		DataOutputStream data = new DataOutputStream(out);
+		ValueCodecs.writeVarInt(Integer.MAX_VALUE, data);
+		data.writeBytes("short");
+		try {
+			ValueCodecs.STRING.read(new DataInputStream(new ByteArrayInputStream(out.toByteArray())));
+			fail("EOFException expected");
+		}
+		catch (EOFException e) { }
+	}
+
+	@Test
+	public void testTreesBackToBack() throws IOException {
+		TreeSerializer<String> serializer = new TreeSerializer<String>(ValueCodecs.STRING);
+		BinaryTree<String> first = BinaryTree.parse("one(two three(four(six seven) five))");
+		BinaryTree<String> second = BinaryTree.parse("a(b c)");
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		serializer.write(first, out);
+		serializer.write(second, out);
+		out.write(42);
+		ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+		assertEquals(first, serializer.read(in));
+		assertEquals(second, serializer.read(in));
+		assertEquals(42, in.read());
+		assertEquals(-1, in.read());
+
+		/* A FileChannel is read through a buffer and positioned right after each tree */
+		Path file = Files.createTempFile("trees", ".bin");
+		try {
+			Files.write(file, out.toByteArray());
+			try(FileChannel channel = FileChannel.open(file)) {
+				assertEquals(first, serializer.read(channel));
+				assertEquals(second, serializer.read(channel));
+				assertEquals(out.size() - 1, channel.position());
+			}
+		}
+		finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,342 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinarySearchTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.ConcurrentBinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeSnapshot;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for the TreeSnapshot
+ */
+public class TreeSnapshotTest {
+
+	static final String DESCRIPTION = "one(two three(four(six seven) five))";
+
+	BinaryTree<String> root;
+
+	@Before
+	public void setUp() throws Exception {
+		root = BinaryTree.parse(DESCRIPTION);
+	}
+
+	@Test
+	public void testSnapshotIgnoresModifications() {
+		TreeSnapshot<String> snapshot = root.snapshot();
+		BinaryTree<String> three = root.getRightChild();
+		BinaryTree<String> four = three.getLeftChild();
+		four.setValue("FOUR");
+		root.setLeftChild(three.removeLeftChild());
+		three.setRightChild(new BinaryTree<String>("eight"));
+		root.getLeftChild().clear();
+		assertEquals("one(null three)", root.toString());
+		assertEquals(DESCRIPTION, snapshot.toString());
+		assertEquals(BinaryTree.parse(DESCRIPTION), snapshot.toBinaryTree());
+		assertEquals(7, snapshot.size());
+		assertEquals(3, snapshot.getHeight());
+		assertEquals("four", snapshot.getValue(four));
+		assertSame(four, snapshot.getLeftChild(three));
+		List<String> leaves = new ArrayList<String>();
+		for(BinaryTree<String> leaf : snapshot.getLeaves())
+			leaves.add(snapshot.getValue(leaf));
+		assertEquals("[two, six, seven, five]", leaves.toString());
+		List<String> values = new ArrayList<String>();
+		snapshot.inOrderTraversal(values::add);
+		assertEquals("[two, one, six, four, seven, three, five]", values.toString());
+		assertEquals("six", snapshot.getValue(snapshot.getKthSmallestNode(3)));
+		assertEquals("three", snapshot.getValue(snapshot.getKthLargestNode(2)));
+		snapshot.release();
+	}
+
+	@Test
+	public void testSeveralSnapshots() {
+		TreeSnapshot<String> first = root.snapshot();
+		root.setValue("ONE");
+		TreeSnapshot<String> second = root.snapshot();
+		root.setValue("UNO");
+		root.getLeftChild().setValue("TWO");
+		assertEquals(DESCRIPTION, first.toString());
+		assertEquals("ONE(two three(four(six seven) five))", second.toString());
+		second.release();
+		assertEquals(DESCRIPTION, first.toString());
+		root.setValue("EINS");
+		assertEquals(DESCRIPTION, first.toString());
+		first.release();
+		assertEquals("EINS(TWO three(four(six seven) five))", root.toString());
+	}
+
+	@Test
+	public void testSavedStatesAreDroppedOnRelease() {
+		TreeSnapshot<String> old = root.snapshot();
+		root.setValue("a");
+		TreeSnapshot<String> recent = root.snapshot();
+		root.setValue("b");
+		old.release();
+		assertEquals("a", recent.getValue(root));
+		recent.release();
+		/* With no snapshot left nothing is saved, and a new snapshot sees the current tree */
+		root.setValue("c");
+		TreeSnapshot<String> snapshot = root.snapshot();
+		assertEquals("c", snapshot.getValue(root));
+		snapshot.close();
+		assertTrue(snapshot.isReleased());
+	}
+
+	@Test
+	public void testBinarySearchTree() {
+		BinarySearchTree<Integer> tree = new BinarySearchTree<Integer>();
+		for(int i = 1; i <= 100; i++)
+			tree.insert(i);
+		try(TreeSnapshot<Integer> snapshot = tree.snapshot()) {
+			for(int i = 1; i <= 100; i += 2)
+				tree.delete(i);
+			for(int i = 101; i <= 300; i++)
+				tree.insert(i);
+			List<Integer> values = new ArrayList<Integer>();
+			snapshot.inOrderTraversal(values::add);
+			assertEquals(100, values.size());
+			for(int i = 0; i < 100; i++)
+				assertEquals(Integer.valueOf(i + 1), values.get(i));
+			assertEquals(250, tree.size());
+		}
+	}
+
+	@Test
+	public void testUnrelatedTreeSavesNothing() {
+		Integer[] values = new Integer[1023];
+		for(int i = 0; i < values.length; i++)
+			values[i] = i;
+		BinaryTree<Integer> other = BinaryTree.fromSorted(values);
+		List<BinaryTree<Integer>> leaves = other.getLeaves();
+		try(TreeSnapshot<String> snapshot = root.snapshot()) {
+			for(int round = 0; round < 20; round++)
+				for(BinaryTree<Integer> leaf : leaves)
+					leaf.setValue(round);
+			assertEquals(0, snapshot.getSavedNodes());
+
+			ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+			if(threads instanceof com.sun.management.ThreadMXBean) {
+				com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+				long thread = Thread.currentThread().getId();
+				long before = allocations.getThreadAllocatedBytes(thread);
+				for(BinaryTree<Integer> leaf : leaves)
+					leaf.setValue(values[0]);
+				long allocated = allocations.getThreadAllocatedBytes(thread) - before;
+				/* Far below a saved state per leaf */
+				assertTrue("allocated " + allocated + " bytes", allocated < 4096);
+			}
+			assertEquals(0, snapshot.getSavedNodes());
+
+			root.setValue("ONE");
+			assertEquals(1, snapshot.getSavedNodes());
+			assertEquals(DESCRIPTION, snapshot.toString());
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testUnrelatedTreeDoesNotWalk() {
+		try(TreeSnapshot<String> snapshot = root.snapshot()) {
+			/* Linking every node of a deep chain would take O(n^2) if it walked up to its root */
+			BinaryTree<Integer> top = new BinaryTree<Integer>(0);
+			BinaryTree<Integer> node = top;
+			for(int i = 1; i < 200000; i++) {
+				BinaryTree<Integer> child = new BinaryTree<Integer>(i);
+				node.setLeftChild(child);
+				node.setValue(-i);
+				node = child;
+			}
+			assertEquals(200000, top.size());
+			assertEquals(0, snapshot.getSavedNodes());
+			/* The nodes linked into the tree of the snapshot are observed */
+			BinaryTree<String> two = root.getLeftChild();
+			two.setLeftChild(new BinaryTree<String>("eight", new BinaryTree<String>("nine"), null));
+			two.getLeftChild().getLeftChild().setValue("NINE");
+			assertEquals(2, snapshot.getSavedNodes());
+			assertEquals(DESCRIPTION, snapshot.toString());
+		}
+	}
+
+	@Test
+	public void testDeepSnapshotToString() {
+		/* Every node has a leaf on its left, so the description nests as deep as the tree */
+		BinaryTree<Integer> top = new BinaryTree<Integer>(0);
+		BinaryTree<Integer> node = top;
+		for(int i = 1; i < 100000; i++) {
+			node.setLeftChild(new BinaryTree<Integer>(-i));
+			BinaryTree<Integer> child = new BinaryTree<Integer>(i);
+			node.setRightChild(child);
+			node = child;
+		}
+		try(TreeSnapshot<Integer> snapshot = top.snapshot()) {
+			top.setValue(42);
+			String description = snapshot.toString();
+			assertTrue(description.startsWith("0(-1 1(-2 2("));
+			assertTrue(description.contains("(-99999 99999)"));
+			assertEquals(99999, description.length() - description.lastIndexOf("9") - 1);
+		}
+	}
+
+	@Test
+	public void testSnapshotsSurviveRebalance() {
+		BinaryTree<Integer> top = new BinaryTree<Integer>(0);
+		BinaryTree<Integer> node = top;
+		for(int i = 1; i < 1000; i++) {
+			BinaryTree<Integer> child = new BinaryTree<Integer>(i);
+			node.setRightChild(child);
+			node = child;
+		}
+		BinaryTree<Integer> middle = top;
+		for(int i = 0; i < 500; i++)
+			middle = middle.getRightChild();
+		List<Integer> values = new ArrayList<Integer>();
+		top.inOrderTraversal(values::add);
+		String description = top.toString();
+		try(TreeSnapshot<Integer> snapshot = top.snapshot()) {
+			/* The rotations save every node they modify, once */
+			top.rebalance();
+			assertTrue(top.isBalanced());
+			assertTrue(snapshot.getSavedNodes() <= 1000);
+			List<Integer> saved = new ArrayList<Integer>();
+			snapshot.inOrderTraversal(saved::add);
+			assertEquals(values, saved);
+			assertEquals(description, snapshot.toString());
+			assertEquals(1000, snapshot.size());
+			assertEquals(999, snapshot.getHeight());
+			/* With a snapshot of a subtree as well, every node is saved upfront */
+			try(TreeSnapshot<Integer> subtree = middle.snapshot()) {
+				String subtreeDescription = subtree.toString();
+				int subtreeSize = subtree.size();
+				top.getLeftChild().setLeftChild(null);
+				middle.setValue(-1);
+				top.rebalance();
+				assertEquals(subtreeDescription, subtree.toString());
+				assertEquals(subtreeSize, subtree.size());
+				saved.clear();
+				snapshot.inOrderTraversal(saved::add);
+				assertEquals(values, saved);
+				assertEquals(1000, snapshot.size());
+			}
+		}
+	}
+
+	@Test
+	public void testRemovedSubtreeStillSaved() {
+		TreeSnapshot<String> snapshot = root.snapshot();
+		BinaryTree<String> three = root.removeRightChild();
+		three.getLeftChild().setValue("FOUR");
+		three.getLeftChild().removeLeftChild();
+		BinaryTree<String> other = BinaryTree.parse("x(y z)");
+		other.setLeftChild(three);
+		three.getRightChild().setValue("FIVE");
+		assertEquals(DESCRIPTION, snapshot.toString());
+		/* one, four and five */
+		assertEquals(3, snapshot.getSavedNodes());
+		snapshot.release();
+		/* The subtree now belongs to the tree of other */
+		TreeSnapshot<String> otherSnapshot = other.snapshot();
+		three.setValue("THREE");
+		assertEquals("x(three(FOUR FIVE) z)", otherSnapshot.toString());
+		assertEquals(1, otherSnapshot.getSavedNodes());
+		otherSnapshot.release();
+	}
+
+	@Test
+	public void testSnapshotsOfSubtreeAndTree() {
+		BinaryTree<String> three = root.getRightChild();
+		TreeSnapshot<String> subtree = three.snapshot();
+		TreeSnapshot<String> tree = root.snapshot();
+		three.getLeftChild().setValue("FOUR");
+		root.setValue("ONE");
+		assertEquals("three(four(six seven) five)", subtree.toString());
+		assertEquals(DESCRIPTION, tree.toString());
+		assertEquals(1, subtree.getSavedNodes());
+		assertEquals(2, tree.getSavedNodes());
+		tree.release();
+		assertEquals("three(four(six seven) five)", subtree.toString());
+		subtree.release();
+	}
+
+	@Test
+	public void testSnapshotReadWhileWriting() throws InterruptedException {
+		ConcurrentBinaryTree<Integer> tree = new ConcurrentBinaryTree<Integer>(0);
+		List<ConcurrentBinaryTree<Integer>> nodes = new ArrayList<ConcurrentBinaryTree<Integer>>();
+		nodes.add(tree);
+		for(int i = 1; i < 64; i++) {
+			ConcurrentBinaryTree<Integer> child = tree.newNode(i);
+			nodes.get(i - 1).setLeftChild(child);
+			nodes.add(child);
+		}
+		final AtomicBoolean done = new AtomicBoolean();
+		final AtomicReference<Throwable> failure = new AtomicReference<Throwable>();
+		/* The writer keeps changing values and moving the lower part of the chain */
+		Thread writer = new Thread(() -> {
+			try {
+				for(int i = 0; !done.get(); i++) {
+					tree.setValue(i);
+					nodes.get(i % 64).setValue(i);
+					if(tree.getRightChild() != null) {
+						ConcurrentBinaryTree<Integer> last = tree;
+						while(last.getLeftChild() != null)
+							last = last.getLeftChild();
+						last.setLeftChild(tree.removeRightChild());
+					}
+					else {
+						ConcurrentBinaryTree<Integer> cut = tree;
+						for(int depth = i % 32 + 16; depth > 0; depth--)
+							cut = cut.getLeftChild();
+						tree.setRightChild(cut.removeLeftChild());
+					}
+				}
+			}
+			catch(Throwable e) {
+				failure.compareAndSet(null, e);
+			}
+		});
+		writer.start();
+		try {
+			/* A snapshot read while the tree is written always reads the same tree */
+			for(int round = 0; round < 500 && failure.get() == null; round++) {
+				try(TreeSnapshot<Integer> snapshot = tree.snapshot()) {
+					/* The root is read while the writer saves and modifies it */
+					Integer value = snapshot.getValue(tree);
+					String first = snapshot.toString();
+					assertEquals(value, snapshot.getValue(tree));
+					int size = snapshot.size();
+					assertTrue(size > 16 && size <= 64);
+					for(int i = 0; i < 10; i++) {
+						assertEquals(first, snapshot.toString());
+						assertEquals(size, snapshot.size());
+					}
+				}
+			}
+		}
+		finally {
+			done.set(true);
+			writer.join();
+		}
+		if(failure.get() != null)
+			throw new AssertionError(failure.get());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testReleased() {
+		TreeSnapshot<String> snapshot = root.snapshot();
+		snapshot.release();
+		snapshot.release();
+		snapshot.size();
+	}
+}
@@ -0,0 +1,72 @@
+/**
+ *
+ */
+package test.java.com.github.dhyanamvaidya.binaryTree;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import main.java.com.github.dhyanamvaidya.binaryTree.BinaryTree;
+import main.java.com.github.dhyanamvaidya.binaryTree.TraversalOrder;
+import main.java.com.github.dhyanamvaidya.binaryTree.TreeSpliterator;
+
+import org.junit.Test;
+
+/**
+ * Tests for the TreeSpliterator
+ */
+public class TreeSpliteratorTest {
+
+	private static List<String> values(Spliterator<BinaryTree<String>> spliterator) {
+		final List<String> values = new ArrayList<String>();
+		spliterator.forEachRemaining(node -> values.add(node.getValue()));
+		return values;
+	}
+
+	@Test
+	public void testTrySplitKeepsPreOrder() {
+		BinaryTree<String> root = BinaryTree.parse("one(two three(four(six seven) five))");
+		Spliterator<BinaryTree<String>> suffix = new TreeSpliterator<String>(root);
+		Spliterator<BinaryTree<String>> prefix = suffix.trySplit();
+		assertEquals("[one, two]", values(prefix).toString());
+		assertTrue(suffix.tryAdvance(node -> assertEquals("three", node.getValue())));
+		prefix = suffix.trySplit();
+		assertEquals("[four, six, seven]", values(prefix).toString());
+		assertEquals("[five]", values(suffix).toString());
+		assertNull(suffix.trySplit());
+	}
+
+	@Test
+	public void testSplitAll() {
+		BinaryTree<Integer> root = ParallelTreeOperationsTest.randomTree(1000, 7);
+		List<Integer> expected = new ArrayList<Integer>();
+		root.preOrderTraversal(expected::add);
+		List<Spliterator<BinaryTree<Integer>>> parts = new ArrayList<Spliterator<BinaryTree<Integer>>>();
+		parts.add(new TreeSpliterator<Integer>(root));
+		for(int i = 0; i < parts.size(); i++) {
+			Spliterator<BinaryTree<Integer>> prefix;
+			while((prefix = parts.get(i).trySplit()) != null)
+				parts.add(i, prefix);
+		}
+		assertEquals(1000, parts.size());
+		final List<Integer> actual = new ArrayList<Integer>();
+		for(Spliterator<BinaryTree<Integer>> part : parts)
+			part.forEachRemaining(node -> actual.add(node.getValue()));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void testParallelStream() {
+		BinaryTree<Integer> root = ParallelTreeOperationsTest.randomTree(5000, 11);
+		assertEquals(5000L * 4999 / 2, root.parallelStream().mapToLong(BinaryTree::getValue).sum());
+		List<Integer> expected = new ArrayList<Integer>();
+		root.preOrderTraversal(expected::add);
+		assertEquals(expected, root.parallelStream().map(BinaryTree::getValue).collect(Collectors.toList()));
+		assertEquals(expected, root.stream().map(BinaryTree::getValue).collect(Collectors.toList()));
+		assertTrue(root.spliterator(TraversalOrder.PRE_ORDER) instanceof TreeSpliterator);
+	}
+}